@@ -0,0 +1,118 @@
+package com.nexus.api_gateway.compression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CPU cost (average time per body) versus bytes saved, per codec and level, for a JSON product
+ * listing streamed in 8KB chunks as the backends send it. The compressed size of each
+ * combination is printed during setup, so one run gives both sides of the trade-off:
+ *
+ *   ./mvnw -Pjmh test-compile exec:exec@jmh -Djmh.args="CompressionBenchmark"
+ *
+ * br and zstd need their native libraries; on an unsupported platform those parameters fail.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({"gzip", "br", "zstd"})
+    public String codec;
+
+    @Param({"1", "4", "6", "9"})
+    public int level;
+
+    @Param({"65536"})
+    public int bodySize;
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private List<byte[]> chunks;
+    private StreamingCompressor compressor;
+
+    @Setup
+    public void setup() {
+        CompressionCodec selected = switch (codec) {
+            case "gzip" -> new GzipCodec();
+            case "deflate" -> new DeflateCodec();
+            case "br" -> new BrotliCodec();
+            case "zstd" -> new ZstdCodec();
+            default -> throw new IllegalArgumentException(codec);
+        };
+        if (!selected.isAvailable()) {
+            throw new IllegalStateException(codec + " is not available on this platform");
+        }
+        compressor = new StreamingCompressor(selected, level, bufferFactory);
+        chunks = split(productListing(bodySize));
+        long compressed = compressOnce();
+        System.out.printf("%n%s level %d: %d -> %d bytes (%.1f%% saved)%n",
+                codec, level, bodySize, compressed, 100.0 * (bodySize - compressed) / bodySize);
+    }
+
+    @Benchmark
+    public long compress() {
+        return compressOnce();
+    }
+
+    private long compressOnce() {
+        AtomicLong out = new AtomicLong();
+        compressor.compress(Flux.fromIterable(chunks).map(bufferFactory::wrap), n -> { }, out::addAndGet)
+                .doOnNext(DataBufferUtils::release)
+                .blockLast();
+        return out.get();
+    }
+
+    private static List<byte[]> split(byte[] body) {
+        List<byte[]> chunks = new ArrayList<>();
+        for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+            byte[] chunk = new byte[Math.min(CHUNK_SIZE, body.length - offset)];
+            System.arraycopy(body, offset, chunk, 0, chunk.length);
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    // Repetitive, realistic JSON: the shape of a catalog page from product-service
+    static byte[] productListing(int size) {
+        StringBuilder json = new StringBuilder(size + 256).append("{\"products\":[");
+        for (int i = 0; json.length() < size; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":\"64f1b2c3").append(Integer.toHexString(1_000_000 + i * 7919))
+                    .append("\",\"name\":\"Product ").append(i)
+                    .append("\",\"category\":\"").append(i % 3 == 0 ? "grain" : i % 3 == 1 ? "livestock" : "equipment")
+                    .append("\",\"price\":").append(100 + (i * 37) % 900).append('.').append(i % 100)
+                    .append(",\"stock\":").append((i * 13) % 500)
+                    .append(",\"supplierId\":\"sup-").append(i % 40)
+                    .append("\",\"description\":\"Quality supply item number ").append(i)
+                    .append(" for agricultural funding\"}");
+        }
+        json.append("]}");
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        return bytes.length == size ? bytes : Arrays.copyOf(bytes, size);
+    }
+}
@@ -0,0 +1,66 @@
+package com.nexus.api_gateway.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CorsResponseHeaderSanitizerConfig.sanitizeCorsHeaders on every response: the common case of
+ * clean CORS headers versus a backend that duplicated Access-Control-Allow-Origin ('*' next to
+ * the gateway's origin) with credentials allowed. 'exchangeOnly' is the cost of building the
+ * mock exchange and its headers.
+ *
+ *   ./mvnw -Pjmh test-compile exec:exec@jmh -Djmh.args="CorsSanitizerBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorsSanitizerBenchmark {
+
+    private static final String ORIGIN = "http://localhost:5173";
+
+    @Benchmark
+    public ServerWebExchange exchangeOnly() {
+        return exchange(false);
+    }
+
+    @Benchmark
+    public ServerWebExchange cleanHeaders() {
+        ServerWebExchange exchange = exchange(false);
+        CorsResponseHeaderSanitizerConfig.sanitizeCorsHeaders(exchange);
+        return exchange;
+    }
+
+    @Benchmark
+    public ServerWebExchange duplicateOriginWithCredentials() {
+        ServerWebExchange exchange = exchange(true);
+        CorsResponseHeaderSanitizerConfig.sanitizeCorsHeaders(exchange);
+        return exchange;
+    }
+
+    private static ServerWebExchange exchange(boolean duplicated) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/nexus/api/v1/products")
+                .header(HttpHeaders.ORIGIN, ORIGIN));
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        if (duplicated) headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, ORIGIN);
+        headers.add(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+        return exchange;
+    }
+}
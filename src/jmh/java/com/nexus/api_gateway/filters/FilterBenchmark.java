@@ -0,0 +1,208 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.error.ErrorReason;
+import com.nexus.api_gateway.error.ErrorResponseWriter;
+import com.nexus.api_gateway.error.ErrorResponseWriter.PreparedError;
+import com.nexus.api_gateway.revocation.RevocationStore;
+import com.nexus.api_gateway.revocation.RevocationSync;
+import com.nexus.api_gateway.security.AuthorizationRulesBenchmark;
+import com.nexus.api_gateway.security.JwtPrincipal;
+import com.nexus.api_gateway.security.JwtUtil;
+import com.nexus.api_gateway.security.JwtUtilBenchmark;
+import com.nexus.api_gateway.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.nexus.api_gateway.util.Constants.JWT_PRINCIPAL_ATTR;
+
+/**
+ * Per-request cost of the authentication and authorization filters against mock exchanges, with
+ * legacy* baselines reproducing the former OrderAuthorizationFilter (token parsed twice per
+ * filter, regex rules, role names compared ignoring case) and its onError. 'preparedError' is the
+ * same 403 written by ErrorResponseWriter, from a body encoded once.
+ *
+ * Every benchmark builds its exchange; 'exchangeOnly' measures that part alone. Filter logging is
+ * switched off so the numbers are the filters' own work:
+ *
+ *   ./mvnw -Pjmh test-compile exec:exec@jmh -Djmh.args="FilterBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final GatewayFilterChain CHAIN = exchange -> Mono.empty();
+
+    private JwtUtil jwtUtil;
+    private String funderToken;
+    private String investorToken;
+    private JwtPrincipal funder;
+    private JwtPrincipal investor;
+    private GatewayFilter jwtAuth;
+    private GatewayFilter jwtAuthCached;
+    private GatewayFilter routeAuthorization;
+    private GatewayFilter legacyOrderAuthorization;
+    private PreparedError forbidden;
+
+    @Setup
+    public void setup() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.nexus.api_gateway"))
+                .setLevel(ch.qos.logback.classic.Level.OFF);
+        jwtUtil = JwtUtilBenchmark.newJwtUtil();
+        funderToken = jwtUtil.generateToken("funder@nexus.com", List.of("FUNDER"), "64f1b2c3");
+        investorToken = jwtUtil.generateToken("investor@nexus.com", List.of("INVESTOR"), "64f1b2c4");
+        funder = JwtPrincipal.of("funder@nexus.com", "64f1b2c3", List.of("FUNDER"), Instant.now().plusSeconds(3600));
+        investor = JwtPrincipal.of("investor@nexus.com", "64f1b2c4", List.of("INVESTOR"), Instant.now().plusSeconds(3600));
+
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        ErrorResponseWriter errors = new ErrorResponseWriter(new SimpleMeterRegistry());
+        RevocationStore revocations = new RevocationStore(100_000, 0.01, Duration.ofMinutes(1),
+                RevocationSync.LOCAL, new SimpleMeterRegistry());
+        jwtAuth = new JwtAuthFilter(new VerifiedTokenCache(jwtUtil, false, 0, false,
+                beans.getBeanProvider(MeterRegistry.class)), revocations, errors).apply(new Object());
+        jwtAuthCached = new JwtAuthFilter(new VerifiedTokenCache(jwtUtil, true, 10_000, false,
+                beans.getBeanProvider(MeterRegistry.class)), revocations, errors).apply(new Object());
+
+        RouteAuthorizationFilter.Config config = new RouteAuthorizationFilter.Config();
+        config.setRules(AuthorizationRulesBenchmark.orderRules());
+        routeAuthorization = new RouteAuthorizationFilter(errors).apply(config);
+        forbidden = errors.prepare(ErrorReason.FORBIDDEN, "order-service", "Investors are not allowed to access order details");
+        legacyOrderAuthorization = legacyOrderAuthorization(jwtUtil);
+    }
+
+    @Benchmark
+    public ServerWebExchange exchangeOnly() {
+        return exchange(HttpMethod.GET, "/nexus/api/v1/orders/9", funderToken, null);
+    }
+
+    @Benchmark
+    public Object jwtAuthFilter() {
+        return jwtAuth.filter(exchange(HttpMethod.GET, "/nexus/api/v1/orders/9", funderToken, null), CHAIN).block();
+    }
+
+    @Benchmark
+    public Object jwtAuthFilterCached() {
+        return jwtAuthCached.filter(exchange(HttpMethod.GET, "/nexus/api/v1/orders/9", funderToken, null), CHAIN).block();
+    }
+
+    @Benchmark
+    public Object jwtAuthFilterRejected() {
+        return jwtAuth.filter(exchange(HttpMethod.GET, "/nexus/api/v1/orders/9", "not.a.jwt", null), CHAIN).block();
+    }
+
+    @Benchmark
+    public Object routeAuthorizationAllowed() {
+        return routeAuthorization.filter(exchange(HttpMethod.PUT, "/api/v1/orders/9/status", funderToken, funder), CHAIN).block();
+    }
+
+    @Benchmark
+    public Object routeAuthorizationForbidden() {
+        return routeAuthorization.filter(exchange(HttpMethod.GET, "/api/v1/orders/9", investorToken, investor), CHAIN).block();
+    }
+
+    @Benchmark
+    public Object legacyOrderAuthorizationAllowed() {
+        return legacyOrderAuthorization.filter(exchange(HttpMethod.PUT, "/api/v1/orders/9/status", funderToken, null), CHAIN).block();
+    }
+
+    @Benchmark
+    public Object legacyOrderAuthorizationForbidden() {
+        return legacyOrderAuthorization.filter(exchange(HttpMethod.GET, "/api/v1/orders/9", investorToken, null), CHAIN).block();
+    }
+
+    /** The former per-filter error writer: encodes the message and wraps a new buffer per call. */
+    @Benchmark
+    public Object legacyOnError() {
+        ServerWebExchange exchange = exchange(HttpMethod.GET, "/api/v1/orders/9", investorToken, null);
+        return legacyOnError(exchange, "Investors are not allowed to access order details", HttpStatus.FORBIDDEN).block();
+    }
+
+    @Benchmark
+    public Object preparedError() {
+        ServerWebExchange exchange = exchange(HttpMethod.GET, "/api/v1/orders/9", investorToken, null);
+        return forbidden.write(exchange).block();
+    }
+
+    private static ServerWebExchange exchange(HttpMethod method, String path, String token, JwtPrincipal principal) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(method, path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        if (principal != null) exchange.getAttributes().put(JWT_PRINCIPAL_ATTR, principal);
+        return exchange;
+    }
+
+    // The former OrderAuthorizationFilter's rules, without its logging
+    private static GatewayFilter legacyOrderAuthorization(JwtUtil jwtUtil) {
+        return (exchange, chain) -> {
+            String path = exchange.getRequest().getURI().getPath();
+            String method = exchange.getRequest().getMethod().name();
+            if (!path.startsWith("/api/v1/orders")) return chain.filter(exchange);
+            String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                return legacyOnError(exchange, "Missing or invalid Authorization header", HttpStatus.UNAUTHORIZED);
+            }
+            String token = authHeader.substring(7);
+            if (!jwtUtil.validateToken(token)) {
+                return legacyOnError(exchange, "JWT validation failed", HttpStatus.UNAUTHORIZED);
+            }
+            List<String> roles = jwtUtil.extractRoles(token);
+            if (method.equals("GET") && hasRoleIgnoreCase(roles, "INVESTOR")) {
+                return legacyOnError(exchange, "Investors are not allowed to access order details", HttpStatus.FORBIDDEN);
+            }
+            if (method.equals("POST") && path.matches("/api/v1/orders/?") && !hasRoleIgnoreCase(roles, "FUNDER")) {
+                return legacyOnError(exchange, "Only funders can create orders", HttpStatus.FORBIDDEN);
+            }
+            if (method.equals("PUT") && path.matches("/api/v1/orders/[^/]+/status/?")
+                    && !(hasRoleIgnoreCase(roles, "SUPPLIER") || hasRoleIgnoreCase(roles, "FUNDER"))) {
+                return legacyOnError(exchange, "Only suppliers or funders can update order status", HttpStatus.FORBIDDEN);
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    private static boolean hasRoleIgnoreCase(List<String> roles, String expected) {
+        if (roles == null) return false;
+        for (String r : roles) {
+            if (r != null && r.equalsIgnoreCase(expected)) return true;
+        }
+        return false;
+    }
+
+    private static Mono<Void> legacyOnError(ServerWebExchange exchange, String message, HttpStatus status) {
+        exchange.getResponse().setStatusCode(status);
+        exchange.getResponse().getHeaders().add("Content-Type", "text/plain");
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = exchange.getResponse().bufferFactory().wrap(bytes);
+        return exchange.getResponse().writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,93 @@
+package com.nexus.api_gateway.revocation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the revocation check JwtAuthFilter adds to every authenticated request, with
+ * 'revocations' tokens revoked: a token that is not revoked (the common case, answered by the
+ * Bloom filter), a revoked one, and the exact map alone as a baseline.
+ *
+ * Token ids are fresh strings, as when a token is parsed, so each lookup also hashes the 'jti':
+ *
+ *   ./mvnw -Pjmh test-compile exec:exec@jmh -Djmh.args="RevocationStoreBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevocationStoreBenchmark {
+
+    private static final int IDS = 1024;
+
+    @Param({"0", "1000", "100000"})
+    public int revocations;
+
+    private RevocationStore store;
+    private Map<String, Long> exact;
+    private String[] live;
+    private String[] revoked;
+    private int next;
+
+    @Setup
+    public void setup() {
+        store = new RevocationStore(100_000, 0.01, Duration.ofMinutes(1), RevocationSync.LOCAL, new SimpleMeterRegistry());
+        exact = new ConcurrentHashMap<>();
+        Instant exp = Instant.now().plusSeconds(3600);
+        revoked = new String[IDS];
+        for (int i = 0; i < revocations; i++) {
+            String id = UUID.randomUUID().toString();
+            store.revoke(id, exp).block();
+            exact.put(id, exp.toEpochMilli());
+            if (i < IDS) revoked[i] = id;
+        }
+        for (int i = revocations; i < IDS; i++) revoked[i] = revoked[i % Math.max(1, revocations)];
+        live = new String[IDS];
+        for (int i = 0; i < IDS; i++) live[i] = UUID.randomUUID().toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return store.isRevoked(fresh(live));
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocations > 0 && store.isRevoked(fresh(revoked));
+    }
+
+    @Benchmark
+    public boolean exactMapOnly() {
+        return exact.containsKey(fresh(live));
+    }
+
+    // A copy, so the cached String.hashCode of the array element is not reused
+    private String fresh(String[] ids) {
+        return new String(ids[next++ & (IDS - 1)]);
+    }
+}
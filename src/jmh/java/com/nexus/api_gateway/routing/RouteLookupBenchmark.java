@@ -0,0 +1,91 @@
+package com.nexus.api_gateway.routing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route resolution as the number of routes grows: the stock Path predicates, evaluated route by
+ * route (each pattern matched until the first route matches, then its variables extracted),
+ * versus RouteIndex (one trie walk, then the matched route's RouteMatch).
+ *
+ * Each route has the shape of the real ones: a collection path, '/{id}' and '/{id}/**'.
+ * 'target' picks the first or the last route; the last is the stock predicates' worst case.
+ *
+ *   ./mvnw -Pjmh test-compile exec:exec@jmh -Djmh.args="RouteLookupBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteLookupBenchmark {
+
+    @Param({"4", "50", "200", "500"})
+    public int routes;
+
+    @Param({"first", "last"})
+    public String target;
+
+    private List<List<PathPattern>> stock;
+    private RouteIndex index;
+    private String path;
+
+    @Setup
+    public void setup() {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        stock = new ArrayList<>(routes);
+        index = new RouteIndex(new GatewayProperties());
+        for (int i = 0; i < routes; i++) {
+            String base = "/nexus/api/v1/resource-" + i;
+            List<String> patterns = List.of(base, base + "/{id}", base + "/{id}/**");
+            stock.add(patterns.stream().map(parser::parse).toList());
+            index.register(patterns);
+        }
+        int routeNumber = target.equals("first") ? 0 : routes - 1;
+        path = "/nexus/api/v1/resource-" + routeNumber + "/12345/status";
+    }
+
+    @Benchmark
+    public Map<String, String> stockPathPredicates() {
+        PathContainer container = PathContainer.parsePath(path);
+        for (List<PathPattern> route : stock) {
+            for (PathPattern pattern : route) {
+                if (pattern.matches(container)) {
+                    return pattern.matchAndExtract(container).getUriVariables();
+                }
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Map<String, String> routeIndex() {
+        PathLookup lookup = index.lookup(path);
+        // Each route's predicate tests its group, in route order, as the gateway evaluates them
+        for (int group = 0; group < routes; group++) {
+            if (lookup.matches(group)) {
+                return index.resolve(lookup, group).getVariables();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.nexus.api_gateway.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule checks of the order route: the compiled rule table with role bitmasks (AuthorizationRules)
+ * against the former OrderAuthorizationFilter logic, which compiled a regex per request
+ * (String.matches) and compared role names with equalsIgnoreCase (legacy*).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationRulesBenchmark {
+
+    private AuthorizationRules rules;
+    private JwtPrincipal supplier;
+    private List<String> supplierRoles;
+
+    @Setup
+    public void setup() {
+        rules = AuthorizationRules.compile(orderRules());
+        supplierRoles = List.of("SUPPLIER");
+        supplier = JwtPrincipal.of("bench@nexus.com", "64f1b2c3", supplierRoles, Instant.now().plusSeconds(3600));
+    }
+
+    /** The order route's rules as declared in application.yml (paths after StripPrefix). */
+    public static List<AuthorizationRules.Rule> orderRules() {
+        return List.of(
+                rule(List.of("GET"), "/api/v1/orders/**", null, List.of(Roles.INVESTOR)),
+                rule(List.of("POST"), "/api/v1/orders", List.of(Roles.FUNDER), null),
+                rule(List.of("PUT"), "/api/v1/orders/{orderId}/status", List.of(Roles.SUPPLIER, Roles.FUNDER), null));
+    }
+
+    private static AuthorizationRules.Rule rule(List<String> methods, String path, List<String> roles, List<String> denyRoles) {
+        AuthorizationRules.Rule rule = new AuthorizationRules.Rule();
+        rule.setMethods(methods);
+        rule.setPath(path);
+        rule.setRoles(roles);
+        rule.setDenyRoles(denyRoles);
+        rule.setMessage("denied");
+        return rule;
+    }
+
+    @Benchmark
+    public Object compiledStatusUpdate() {
+        return rules.check("PUT", "/api/v1/orders/64f1b2c3/status", supplier);
+    }
+
+    @Benchmark
+    public Object compiledGet() {
+        return rules.check("GET", "/api/v1/orders/64f1b2c3", supplier);
+    }
+
+    @Benchmark
+    public boolean legacyStatusUpdate() {
+        String path = "/api/v1/orders/64f1b2c3/status";
+        return path.matches("/api/v1/orders/[^/]+/status/?")
+                && (hasRoleIgnoreCase(supplierRoles, "SUPPLIER") || hasRoleIgnoreCase(supplierRoles, "FUNDER"));
+    }
+
+    @Benchmark
+    public boolean legacyGet() {
+        return hasRoleIgnoreCase(supplierRoles, "INVESTOR");
+    }
+
+    @Benchmark
+    public boolean hasRoleIgnoreCase() {
+        return hasRoleIgnoreCase(supplierRoles, "FUNDER");
+    }
+
+    @Benchmark
+    public boolean hasRoleBitmask() {
+        return supplier.hasRole(Roles.FUNDER);
+    }
+
+    // Copied from the former per-domain authorization filters
+    static boolean hasRoleIgnoreCase(List<String> roles, String expected) {
+        if (roles == null) return false;
+        for (String r : roles) {
+            if (r != null && r.equalsIgnoreCase(expected)) return true;
+        }
+        return false;
+    }
+}
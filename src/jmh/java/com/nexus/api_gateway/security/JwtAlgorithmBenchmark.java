@@ -0,0 +1,51 @@
+package com.nexus.api_gateway.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify cost per signing algorithm (average time per operation).
+ * Asymmetric algorithms use an ephemeral key pair generated by JwtKeyRing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+
+    @Param({"HS256", "RS256", "PS256", "ES256"})
+    public String algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = JwtUtilBenchmark.newJwtUtil(algorithm);
+        token = jwtUtil.generateToken("bench@nexus.com", List.of("SUPPLIER", "FUNDER"), "64f1b2c3");
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken("bench@nexus.com", List.of("SUPPLIER", "FUNDER"), "64f1b2c3");
+    }
+
+    @Benchmark
+    public JwtPrincipal verify() {
+        return jwtUtil.parseToken(token);
+    }
+}
@@ -0,0 +1,87 @@
+package com.nexus.api_gateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation (run with -prof gc) of the JWT hot path.
+ * The legacy* benchmarks reproduce the previous behaviour of JwtUtil, which decoded the
+ * secret and built a new key and JwtParser on every call, so both can be compared in one run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "dGhpcy1pcy1hLXZlcnktbG9uZy1zZWNyZXQta2V5LWV4YW1wbGUtMTIzNDU2Nzg5MA==";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = newJwtUtil();
+        token = jwtUtil.generateToken("bench@nexus.com", List.of("SUPPLIER", "FUNDER"), "64f1b2c3");
+    }
+
+    public static JwtUtil newJwtUtil() {
+        return newJwtUtil("HS256");
+    }
+
+    static JwtUtil newJwtUtil(String algorithm) {
+        JwtProperties properties = new JwtProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setSecret(SECRET);
+        JwtUtil util = new JwtUtil(new JwtKeyRing(properties));
+        ReflectionTestUtils.setField(util, "expiration", 3_600_000L);
+        return util;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench@nexus.com", List.of("SUPPLIER", "FUNDER"), "64f1b2c3");
+    }
+
+    /** One verification + claim extraction, as JwtAuthFilter does per request. */
+    @Benchmark
+    public JwtPrincipal parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+
+    /** validateToken + extractRoles, each a full parse, as the route filters used to do. */
+    @Benchmark
+    public List<String> validateAndExtractRoles() {
+        if (!jwtUtil.validateToken(token)) {
+            throw new IllegalStateException("token rejected");
+        }
+        return jwtUtil.extractRoles(token);
+    }
+
+    @Benchmark
+    public Claims legacyParsePerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
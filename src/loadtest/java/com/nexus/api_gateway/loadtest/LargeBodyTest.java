@@ -0,0 +1,162 @@
+package com.nexus.api_gateway.loadtest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Proxies one body of 'size' bytes each way through a route limited to 'size' bytes
+ * (/nexus/loadtest/** with BodySizeLimitFilter, see LoadTest), then one body just over it:
+ *  - upload: POST, chunked, the stub answers with the number of bytes it received;
+ *  - download: GET, the stub streams the bytes with a Content-Length;
+ *  - oversize: POST, chunked, expected to be answered 413 once it crosses the limit.
+ *
+ * While it runs, the JVM's used heap, Netty's pooled direct memory and the route's
+ * gateway.body.inflight.bytes are sampled every 100ms. Run with a heap much smaller than the body
+ * (-Dloadtest.heap=256m): the peaks should stay flat, whatever the size. Result.failures() checks
+ * them: the heap is shared with the stubs and this client, so its limit is an upper bound for the
+ * gateway, while the in-flight bytes are the gateway's alone and may not exceed 'prefetch' chunks.
+ */
+final class LargeBodyTest implements AutoCloseable {
+
+    // Also the largest read of the gateway's inbound channels (Netty's default receive buffer limit)
+    private static final byte[] CHUNK = new byte[64 * 1024];
+
+    private final LoopResources loops = LoopResources.create("loadgen-large", 1, true);
+    private final ConnectionProvider connections = ConnectionProvider.create("loadgen-large", 1);
+    private final HttpClient client;
+    private final MeterRegistry meterRegistry;
+    private final int prefetch;
+
+    /**
+     * @param prefetch the route's BodySizeLimitFilter prefetch, which bounds the chunks in flight.
+     */
+    LargeBodyTest(String baseUrl, MeterRegistry meterRegistry, int prefetch) {
+        this.client = HttpClient.create(connections).runOn(loops).baseUrl(baseUrl);
+        this.meterRegistry = meterRegistry;
+        this.prefetch = prefetch;
+    }
+
+    Result run(long size) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+        AtomicLong peakDirect = new AtomicLong();
+        AtomicLong peakInflight = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loadgen-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(() -> {
+            peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            peakDirect.accumulateAndGet(PooledByteBufAllocator.DEFAULT.metric().usedDirectMemory(), Math::max);
+            peakInflight.accumulateAndGet(inflightBytes(), Math::max);
+        }, 0, 100, TimeUnit.MILLISECONDS);
+        try {
+            long start = System.nanoTime();
+            long uploaded = upload(size).block();
+            double uploadSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            long downloaded = download(size).block();
+            double downloadSeconds = (System.nanoTime() - start) / 1e9;
+
+            int oversizeStatus = oversize(size + CHUNK.length).block();
+            return new Result(size, uploaded, size / uploadSeconds / 1e6, downloaded, size / downloadSeconds / 1e6,
+                    oversizeStatus, memory.getHeapMemoryUsage().getMax(), peakHeap.get(), peakDirect.get(),
+                    peakInflight.get(), (long) prefetch * CHUNK.length);
+        } finally {
+            sampler.shutdownNow();
+        }
+    }
+
+    private Mono<Long> upload(long size) {
+        return client.post()
+                .uri("/nexus/loadtest/upload")
+                .send(body(size))
+                .responseSingle((response, content) -> content.asString())
+                .map(json -> Long.parseLong(json.replaceAll("\\D", "")));
+    }
+
+    private Mono<Long> download(long size) {
+        return client.get()
+                .uri("/nexus/loadtest/download?size=" + size)
+                .responseContent()
+                .reduce(0L, (received, buffer) -> received + buffer.readableBytes());
+    }
+
+    // Status the gateway answered with, or -1 if it closed the connection instead
+    private Mono<Integer> oversize(long size) {
+        return client.post()
+                .uri("/nexus/loadtest/upload")
+                .send(body(size))
+                .responseSingle((response, content) -> content.then(Mono.just(response.status().code())))
+                .onErrorReturn(-1);
+    }
+
+    // Without a Content-Length, so the gateway can only enforce the limit as the bytes arrive
+    private static Flux<ByteBuf> body(long size) {
+        Flux<ByteBuf> chunks = Flux.range(0, (int) (size / CHUNK.length)).map(i -> Unpooled.wrappedBuffer(CHUNK));
+        int rest = (int) (size % CHUNK.length);
+        return rest == 0 ? chunks : chunks.concatWith(Mono.fromSupplier(() -> Unpooled.wrappedBuffer(CHUNK, 0, rest)));
+    }
+
+    private long inflightBytes() {
+        return (long) meterRegistry.find("gateway.body.inflight.bytes").tag("route", LoadTest.LARGE_BODY_ROUTE)
+                .gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+
+    @Override
+    public void close() {
+        connections.disposeLater().block(Duration.ofSeconds(5));
+        loops.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    record Result(long bodyBytes, long uploadedBytes, double uploadMBps, long downloadedBytes, double downloadMBps,
+                  int oversizeStatus, long heapMaxBytes, long peakHeapUsedBytes, long peakNettyDirectBytes,
+                  long peakInflightBytes, long maxInflightBytes) {
+
+        /**
+         * @param maxHeapFraction the share of -Xmx the used heap may peak at.
+         * @return a description of each check that failed; empty if the run passed.
+         */
+        List<String> failures(double maxHeapFraction) {
+            List<String> failures = new ArrayList<>();
+            if (uploadedBytes != bodyBytes) {
+                failures.add("uploaded " + uploadedBytes + " of " + bodyBytes + " bytes");
+            }
+            if (downloadedBytes != bodyBytes) {
+                failures.add("downloaded " + downloadedBytes + " of " + bodyBytes + " bytes");
+            }
+            if (oversizeStatus != 413) {
+                failures.add("oversize body answered " + oversizeStatus + " instead of 413");
+            }
+            if (peakHeapUsedBytes > heapMaxBytes * maxHeapFraction) {
+                failures.add(String.format("peak heap %d MB over %.0f%% of -Xmx %d MB",
+                        peakHeapUsedBytes >> 20, maxHeapFraction * 100, heapMaxBytes >> 20));
+            }
+            if (peakInflightBytes > maxInflightBytes) {
+                failures.add("peak in-flight " + peakInflightBytes + " bytes over prefetch x chunk = "
+                        + maxInflightBytes);
+            }
+            return failures;
+        }
+    }
+}
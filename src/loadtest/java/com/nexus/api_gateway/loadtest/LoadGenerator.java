@@ -0,0 +1,114 @@
+package com.nexus.api_gateway.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load: 'concurrency' virtual users each send the scenario's request, wait for the
+ * full response, and repeat until the duration is over. Latencies go into an HdrHistogram
+ * Recorder (microseconds, 3 significant digits), so recording does not allocate.
+ *
+ * Allocation is the bytes allocated by every thread except the load generator's, the stubs' and
+ * the calling thread (com.sun.management.ThreadMXBean), i.e. by the gateway, divided by the
+ * requests sent. Threads that end during the run are not counted.
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    private static final String LOOP_PREFIX = "loadgen";
+
+    private final LoopResources loops = LoopResources.create(LOOP_PREFIX, Math.max(2, Runtime.getRuntime().availableProcessors() / 2), true);
+    private final ConnectionProvider connections;
+    private final HttpClient client;
+    private final int concurrency;
+
+    LoadGenerator(String baseUrl, int concurrency) {
+        this.concurrency = concurrency;
+        this.connections = ConnectionProvider.builder(LOOP_PREFIX)
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.client = HttpClient.create(connections).runOn(loops).baseUrl(baseUrl);
+    }
+
+    Result run(Scenario scenario, Duration duration) {
+        Recorder recorder = new Recorder(3);
+        AtomicLong requests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicInteger sequence = new AtomicInteger();
+
+        long allocatedBefore = gatewayAllocatedBytes();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        Flux.range(0, concurrency)
+                .flatMap(user -> Mono.defer(() -> {
+                    long sent = System.nanoTime();
+                    return send(scenario, sequence.getAndIncrement())
+                            .doOnNext(status -> {
+                                recorder.recordValue(Math.max(1, (System.nanoTime() - sent) / 1000));
+                                if (status != scenario.expectedStatus()) errors.incrementAndGet();
+                            })
+                            .onErrorResume(error -> {
+                                errors.incrementAndGet();
+                                return Mono.empty();
+                            })
+                            .doFinally(signal -> requests.incrementAndGet());
+                }).repeat(() -> System.nanoTime() < end).then(), concurrency)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+        long allocated = gatewayAllocatedBytes() - allocatedBefore;
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        long count = requests.get();
+        return new Result(scenario.name(), count, errors.get(), count * 1e9 / elapsed,
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9), histogram.getMaxValue(),
+                count == 0 ? 0 : allocated / count);
+    }
+
+    private Mono<Integer> send(Scenario scenario, int n) {
+        String token = scenario.tokens() == null ? null : scenario.tokens().apply(n);
+        HttpClient request = client.headers(headers -> {
+            if (token != null) headers.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + token);
+            if (scenario.body() != null) headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+        });
+        return request.request(scenario.method())
+                .uri(scenario.path())
+                .send((req, out) -> scenario.body() == null ? out : out.sendByteArray(Mono.just(scenario.body())))
+                .responseSingle((response, content) -> content.asByteArray()
+                        .map(bytes -> response.status().code())
+                        .defaultIfEmpty(response.status().code()));
+    }
+
+    private static long gatewayAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Thread self = Thread.currentThread();
+        long[] ids = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread != self)
+                .filter(thread -> !thread.getName().startsWith(LOOP_PREFIX) && !thread.getName().startsWith("stub"))
+                .mapToLong(Thread::threadId)
+                .toArray();
+        return Arrays.stream(threads.getThreadAllocatedBytes(ids)).filter(bytes -> bytes > 0).sum();
+    }
+
+    @Override
+    public void close() {
+        connections.disposeLater().block();
+        loops.disposeLater().block();
+    }
+
+    record Result(String scenario, long requests, long errors, double throughputRps,
+                  long p50Micros, long p99Micros, long p999Micros, long maxMicros, long allocatedBytesPerRequest) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.nexus.api_gateway.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nexus.api_gateway.ApiGatewayApplication;
+import com.nexus.api_gateway.filters.BodySizeLimitFilter;
+import com.nexus.api_gateway.ratelimit.RateLimitBackend;
+import com.nexus.api_gateway.ratelimit.RateLimitDecision;
+import com.nexus.api_gateway.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test: starts the stub backends and the gateway (with its application.yml) in
+ * one JVM, then loads each scenario in turn and writes throughput, p50/p99/p999 latency and
+ * gateway allocation per request as JSON, tagged with the git commit, for comparison across
+ * commits:
+ *
+ *   ./mvnw -Ploadtest test-compile exec:exec@loadtest
+ *   ./mvnw -Ploadtest test-compile exec:exec@loadtest -Dloadtest.args="duration=60s concurrency=128 scenarios=order-get,product-get"
+ *
+ * Arguments (key=value): duration (30s), warmup (10s), concurrency (64), users (1000),
+ * latency (5ms), jitter (2ms), failure-rate (0.0), body-size (2048), rate-limit (off),
+ * scenarios (all, see Scenario.defaults), port (8080), output (target/loadtest-result.json),
+ * large-body (off; a size such as 4GB runs LargeBodyTest after the scenarios), max-heap-fraction
+ * (0.75; the share of -Xmx the large body's peak used heap may reach).
+ *
+ * The large-body run is a pass/fail check (see LargeBodyTest.Result.failures): any failed check is
+ * printed and the JVM exits with status 1 once the results are written.
+ *
+ * A multi-GB body through a small heap, without the scenarios:
+ *
+ *   ./mvnw -Ploadtest test-compile exec:exec@loadtest -Dloadtest.heap=256m -Dloadtest.args="large-body=4GB scenarios=none"
+ *
+ * With rate-limit=off the token buckets always allow, so the run measures the gateway rather
+ * than the configured quotas; the filter itself still runs.
+ */
+public final class LoadTest {
+
+    static final String LARGE_BODY_ROUTE = "loadtest-large-body";
+    static final int LARGE_BODY_PREFETCH = 32;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        Duration duration = duration(options, "duration", "30s");
+        Duration warmup = duration(options, "warmup", "10s");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        String port = options.getOrDefault("port", "8080");
+        Path output = Path.of(options.getOrDefault("output", "target/loadtest-result.json"));
+        boolean rateLimit = "on".equals(options.getOrDefault("rate-limit", "off"));
+        String largeBody = options.getOrDefault("large-body", "off");
+        long largeBodySize = largeBody.equals("off") ? -1 : DataSize.parse(largeBody).toBytes();
+        double maxHeapFraction = Double.parseDouble(options.getOrDefault("max-heap-fraction", "0.75"));
+        List<String> failures = new ArrayList<>();
+
+        try (StubBackends stubs = new StubBackends(duration(options, "latency", "5ms"), duration(options, "jitter", "2ms"),
+                     Double.parseDouble(options.getOrDefault("failure-rate", "0.0")),
+                     Integer.parseInt(options.getOrDefault("body-size", "2048"))).start();
+             ConfigurableApplicationContext gateway = startGateway(port, rateLimit, largeBodySize);
+             LoadGenerator generator = new LoadGenerator("http://localhost:" + port, concurrency)) {
+
+            JwtUtil jwtUtil = gateway.getBean(JwtUtil.class);
+            Map<String, String[]> tokens = new HashMap<>();
+            Scenario.TokenPool pool = role -> {
+                String[] issued = tokens.computeIfAbsent(role, r -> issue(jwtUtil, r, users));
+                return n -> issued[n % issued.length];
+            };
+            List<Scenario> scenarios = select(Scenario.defaults(pool), options.getOrDefault("scenarios", "all"));
+
+            List<LoadGenerator.Result> results = new ArrayList<>();
+            for (Scenario scenario : scenarios) {
+                generator.run(scenario, warmup);
+                System.gc();
+                LoadGenerator.Result result = generator.run(scenario, duration);
+                results.add(result);
+                System.out.printf("%-24s %8.0f req/s  p50 %6d us  p99 %6d us  p999 %6d us  errors %d  alloc %d B/req%n",
+                        result.scenario(), result.throughputRps(), result.p50Micros(), result.p99Micros(),
+                        result.p999Micros(), result.errors(), result.allocatedBytesPerRequest());
+            }
+            LargeBodyTest.Result largeBodyResult = null;
+            if (largeBodySize >= 0) {
+                try (LargeBodyTest test = new LargeBodyTest("http://localhost:" + port,
+                        gateway.getBean(MeterRegistry.class), LARGE_BODY_PREFETCH)) {
+                    largeBodyResult = test.run(largeBodySize);
+                }
+                System.out.printf("%-24s up %.0f MB/s  down %.0f MB/s  oversize %d  peak heap %d MB of %d MB  peak direct %d MB%n",
+                        "large-body " + largeBody, largeBodyResult.uploadMBps(), largeBodyResult.downloadMBps(),
+                        largeBodyResult.oversizeStatus(), largeBodyResult.peakHeapUsedBytes() >> 20,
+                        largeBodyResult.heapMaxBytes() >> 20, largeBodyResult.peakNettyDirectBytes() >> 20);
+                failures.addAll(largeBodyResult.failures(maxHeapFraction));
+            }
+            write(output, options, results, largeBodyResult);
+            System.out.println("Results written to " + output.toAbsolutePath());
+        }
+        if (!failures.isEmpty()) {
+            failures.forEach(failure -> System.out.println("FAILED: " + failure));
+            System.exit(1);
+        }
+    }
+
+    private static ConfigurableApplicationContext startGateway(String port, boolean rateLimit, long largeBodySize) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ApiGatewayApplication.class)
+                .properties("server.port=" + port, "logging.level.root=WARN");
+        if (!rateLimit) {
+            // Registered before the context refreshes, so it replaces the in-memory backend
+            RateLimitBackend unlimited = (key, capacity, replenishRate) -> Mono.just(RateLimitDecision.allowed(capacity));
+            builder.initializers(context -> context.getBeanFactory().registerSingleton("unlimitedRateLimitBackend", unlimited));
+        }
+        if (largeBodySize >= 0) {
+            builder.initializers(context -> ((GenericApplicationContext) context)
+                    .registerBean("largeBodyRoute", RouteLocator.class, () -> largeBodyRoute(context, largeBodySize)));
+        }
+        return builder.run();
+    }
+
+    // /nexus/loadtest/** to the product stub, limited to 'size' bytes each way
+    @SuppressWarnings("unchecked")
+    private static RouteLocator largeBodyRoute(ConfigurableApplicationContext context, long size) {
+        GatewayFilterFactory<BodySizeLimitFilter.Config> limits =
+                context.getBean("bodySizeLimitFilter", GatewayFilterFactory.class);
+        BodySizeLimitFilter.Config config = new BodySizeLimitFilter.Config();
+        config.setRouteId(LARGE_BODY_ROUTE);
+        config.setMaxRequestSize(DataSize.ofBytes(size));
+        config.setMaxResponseSize(DataSize.ofBytes(size));
+        config.setPrefetch(LARGE_BODY_PREFETCH);
+        return context.getBean(RouteLocatorBuilder.class).routes()
+                .route(LARGE_BODY_ROUTE, route -> route.path("/nexus/loadtest/**")
+                        .filters(filters -> filters.stripPrefix(1).filter(limits.apply(config)))
+                        .uri("http://localhost:" + StubBackends.PORTS[1]))
+                .build();
+    }
+
+    private static String[] issue(JwtUtil jwtUtil, String role, int users) {
+        String[] tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            String id = role.toLowerCase() + "-" + i;
+            tokens[i] = jwtUtil.generateToken(id + "@loadtest.local", List.of(role), id);
+        }
+        return tokens;
+    }
+
+    private static List<Scenario> select(List<Scenario> all, String names) {
+        if (names.equals("all")) return all;
+        List<String> wanted = Arrays.asList(names.split(","));
+        return all.stream().filter(scenario -> wanted.contains(scenario.name())).toList();
+    }
+
+    private static void write(Path output, Map<String, String> options, List<LoadGenerator.Result> results,
+                              LargeBodyTest.Result largeBody) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("commit", gitCommit());
+        report.put("timestamp", Instant.now().toString());
+        report.put("java", Runtime.version().toString());
+        report.put("cpus", Runtime.getRuntime().availableProcessors());
+        report.put("options", options);
+        report.put("results", results);
+        if (largeBody != null) report.put("largeBody", largeBody);
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+    }
+
+    private static String gitCommit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "HEAD").redirectErrorStream(true).start();
+            String commit = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor() == 0 ? commit : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+
+    private static Duration duration(Map<String, String> options, String key, String defaultValue) {
+        return DurationStyle.detectAndParse(options.getOrDefault(key, defaultValue));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
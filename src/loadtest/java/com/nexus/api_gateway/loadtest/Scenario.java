@@ -0,0 +1,40 @@
+package com.nexus.api_gateway.loadtest;
+
+import io.netty.handler.codec.http.HttpMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * One route and auth combination to load: the request to send and the status the gateway is
+ * expected to answer with (anything else counts as an error).
+ *
+ * @param tokens bearer token for the n-th request, or null for none; a pool of users keeps
+ *               per-user quotas and the verified-token cache realistic.
+ */
+record Scenario(String name, HttpMethod method, String path, byte[] body, IntFunction<String> tokens, int expectedStatus) {
+
+    static List<Scenario> defaults(TokenPool tokens) {
+        byte[] order = "{\"productId\":\"p-1\",\"quantity\":2}".getBytes(StandardCharsets.UTF_8);
+        byte[] login = "{\"email\":\"loadtest@nexus.local\",\"password\":\"secret\"}".getBytes(StandardCharsets.UTF_8);
+        return List.of(
+                new Scenario("login", HttpMethod.POST, "/nexus/auth/login", login, null, 200),
+                new Scenario("user-get-public", HttpMethod.GET, "/nexus/api/v1/users/42", null, null, 200),
+                new Scenario("product-get", HttpMethod.GET, "/nexus/api/v1/products/7", null, tokens.role("SUPPLIER"), 200),
+                new Scenario("product-list", HttpMethod.GET, "/nexus/api/v1/products", null, tokens.role("SUPPLIER"), 200),
+                new Scenario("funding-get", HttpMethod.GET, "/nexus/api/v1/funding-requests/3", null, tokens.role("INVESTOR"), 200),
+                new Scenario("order-get", HttpMethod.GET, "/nexus/api/v1/orders/9", null, tokens.role("FUNDER"), 200),
+                new Scenario("order-create", HttpMethod.POST, "/nexus/api/v1/orders", order, tokens.role("FUNDER"), 200),
+                new Scenario("order-create-forbidden", HttpMethod.POST, "/nexus/api/v1/orders", order, tokens.role("INVESTOR"), 403),
+                new Scenario("order-get-no-token", HttpMethod.GET, "/nexus/api/v1/orders/9", null, null, 401),
+                new Scenario("order-get-bad-token", HttpMethod.GET, "/nexus/api/v1/orders/9", null, n -> "not.a.jwt", 401));
+    }
+
+    /**
+     * Tokens for 'users' distinct users per role, generated once before the run.
+     */
+    interface TokenPool {
+        IntFunction<String> role(String role);
+    }
+}
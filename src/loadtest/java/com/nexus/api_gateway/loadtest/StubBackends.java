@@ -0,0 +1,133 @@
+package com.nexus.api_gateway.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-ins for the user, product, investment and order services on the ports the routes use
+ * (3000, 3002, 3004, 3007). Every request gets a JSON body of 'bodySize' bytes after 'latency'
+ * (plus up to 'jitter'), or a 503 with probability 'failureRate'. The user service also answers
+ * the login call (POST /api/v1/auth/user/validate) with a valid user.
+ *
+ * For the large-body run every stub also streams without holding bodies: POST /loadtest/upload
+ * counts the bytes it receives and answers {"received":N}, GET /loadtest/download?size=N sends N
+ * bytes, repeating one 64KB chunk.
+ *
+ * The stubs run on their own event loops ("stub-*") so their work is not counted as the gateway's.
+ */
+final class StubBackends implements AutoCloseable {
+
+    static final int[] PORTS = {3000, 3002, 3004, 3007};
+    private static final byte[] CHUNK = new byte[64 * 1024];
+
+    private final LoopResources loops = LoopResources.create("stub", 2, true);
+    private final Scheduler timer = Schedulers.newParallel("stub-timer", 1, true);
+    private final List<DisposableServer> servers = new ArrayList<>();
+    private final Duration latency;
+    private final Duration jitter;
+    private final double failureRate;
+    private final byte[] body;
+    private final byte[] user;
+
+    StubBackends(Duration latency, Duration jitter, double failureRate, int bodySize) {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.failureRate = failureRate;
+        this.body = jsonBody(bodySize);
+        this.user = ("{\"data\":{\"id\":\"u-1\",\"email\":\"loadtest@nexus.local\",\"roles\":[\"FUNDER\"]}}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    StubBackends start() {
+        for (int port : PORTS) {
+            servers.add(HttpServer.create()
+                    .port(port)
+                    .runOn(loops)
+                    .handle(this::handle)
+                    .bindNow());
+        }
+        return this;
+    }
+
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        if (request.fullPath().endsWith("loadtest/upload")) {
+            return request.receive()
+                    .reduce(0L, (received, buffer) -> received + buffer.readableBytes())
+                    .flatMap(received -> response.status(HttpResponseStatus.OK)
+                            .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                            .sendString(Mono.just("{\"received\":" + received + "}"))
+                            .then());
+        }
+        if (request.fullPath().endsWith("loadtest/download")) {
+            List<String> size = new QueryStringDecoder(request.uri()).parameters().get("size");
+            return download(response, size == null ? 0 : Long.parseLong(size.get(0)));
+        }
+        Mono<Void> drained = request.receive().then();
+        long delayNanos = latency.toNanos()
+                + (jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toNanos() + 1));
+        Mono<Void> delay = delayNanos == 0 ? Mono.empty() : Mono.delay(Duration.ofNanos(delayNanos), timer).then();
+        return drained.then(delay).then(Mono.defer(() -> {
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send();
+            }
+            byte[] payload = request.uri().endsWith("/auth/user/validate") ? user : body;
+            return response.status(HttpResponseStatus.OK)
+                    .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .header(HttpHeaderNames.CONTENT_LENGTH, Integer.toString(payload.length))
+                    .sendByteArray(Mono.just(payload))
+                    .then();
+        }));
+    }
+
+    private static Mono<Void> download(HttpServerResponse response, long size) {
+        Flux<byte[]> chunks = Flux.range(0, (int) (size / CHUNK.length)).map(i -> CHUNK);
+        int rest = (int) (size % CHUNK.length);
+        if (rest > 0) chunks = chunks.concatWith(Mono.fromSupplier(() -> Arrays.copyOf(CHUNK, rest)));
+        return response.status(HttpResponseStatus.OK)
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/octet-stream")
+                .header(HttpHeaderNames.CONTENT_LENGTH, Long.toString(size))
+                .sendByteArray(chunks)
+                .then();
+    }
+
+    private static byte[] jsonBody(int size) {
+        StringBuilder json = new StringBuilder(size + 64).append("{\"items\":[");
+        int i = 0;
+        while (json.length() < size - 64) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\",\"price\":").append(i * 7 % 1000).append('}');
+            i++;
+        }
+        json.append("],\"count\":").append(i).append('}');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        servers.forEach(DisposableServer::disposeNow);
+        loops.dispose();
+        timer.dispose();
+    }
+
+    @Override
+    public String toString() {
+        return "StubBackends" + Arrays.toString(PORTS);
+    }
+}
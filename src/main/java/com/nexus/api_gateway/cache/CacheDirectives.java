@@ -0,0 +1,95 @@
+package com.nexus.api_gateway.cache;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The Cache-Control directives the response cache acts on. Durations are in seconds, -1 when absent.
+ */
+public final class CacheDirectives {
+
+    private static final CacheDirectives NONE = new CacheDirectives();
+
+    private boolean present;
+    private boolean noStore;
+    private boolean noCache;
+    private boolean isPrivate;
+    private boolean isPublic;
+    private long maxAge = -1;
+    private long sharedMaxAge = -1;
+    private long staleWhileRevalidate = -1;
+    private long staleIfError = -1;
+
+    private CacheDirectives() {}
+
+    /**
+     * @param values the Cache-Control header values, may be null.
+     */
+    public static CacheDirectives parse(List<String> values) {
+        if (values == null || values.isEmpty()) return NONE;
+        CacheDirectives d = new CacheDirectives();
+        d.present = true;
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                int eq = directive.indexOf('=');
+                String name = (eq < 0 ? directive : directive.substring(0, eq)).trim().toLowerCase(Locale.ROOT);
+                long seconds = eq < 0 ? -1 : seconds(directive.substring(eq + 1));
+                switch (name) {
+                    case "no-store" -> d.noStore = true;
+                    case "no-cache" -> d.noCache = true;
+                    case "private" -> d.isPrivate = true;
+                    case "public" -> d.isPublic = true;
+                    case "max-age" -> d.maxAge = seconds;
+                    case "s-maxage" -> d.sharedMaxAge = seconds;
+                    case "stale-while-revalidate" -> d.staleWhileRevalidate = seconds;
+                    case "stale-if-error" -> d.staleIfError = seconds;
+                    default -> { }
+                }
+            }
+        }
+        return d;
+    }
+
+    private static long seconds(String value) {
+        String v = value.trim();
+        if (v.length() > 1 && v.charAt(0) == '"') v = v.substring(1, v.length() - 1);
+        try {
+            return Math.max(0, Long.parseLong(v));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * How long a shared cache may treat the response as fresh.
+     * A request carrying Authorization is only stored when the response says public or s-maxage,
+     * or when it has no Cache-Control at all and the route sets a default max age.
+     *
+     * @param authorized        whether the request carried credentials
+     * @param defaultMaxAgeSecs the route's default, used without Cache-Control (0 = do not cache)
+     * @return seconds of freshness, or -1 if the response must not be stored.
+     */
+    public long freshnessSeconds(boolean authorized, long defaultMaxAgeSecs) {
+        if (noStore || noCache || isPrivate) return -1;
+        if (sharedMaxAge >= 0) return sharedMaxAge;
+        if (maxAge >= 0) return authorized && !isPublic ? -1 : maxAge;
+        if (!present || isPublic) return defaultMaxAgeSecs > 0 ? defaultMaxAgeSecs : -1;
+        return -1;
+    }
+
+    public boolean isNoStore() {
+        return noStore;
+    }
+
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    public long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public long getStaleIfError() {
+        return staleIfError;
+    }
+}
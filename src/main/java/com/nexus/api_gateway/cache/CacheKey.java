@@ -0,0 +1,47 @@
+package com.nexus.api_gateway.cache;
+
+import com.nexus.api_gateway.security.JwtPrincipal;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import static com.nexus.api_gateway.util.Constants.JWT_PRINCIPAL_ATTR;
+
+/**
+ * Builds the keys shared by ResponseCacheFilter and EtagFilter: route, method, path, query,
+ * Accept-Encoding, selected request headers and optionally the caller's roles.
+ */
+public final class CacheKey {
+
+    private CacheKey() {}
+
+    public static String of(String routeId, ServerWebExchange exchange, List<String> varyHeaders, boolean varyOnRoles) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+        StringBuilder key = new StringBuilder(128)
+                .append(routeId).append(' ')
+                .append(request.getMethod().name()).append(' ')
+                .append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) key.append('?').append(query);
+        key.append("|ae=").append(String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)));
+        for (String name : varyHeaders) {
+            key.append('|').append(name).append('=').append(String.join(",", headers.getOrEmpty(name)));
+        }
+        if (varyOnRoles) {
+            JwtPrincipal principal = exchange.getAttribute(JWT_PRINCIPAL_ATTR);
+            if (principal == null) {
+                key.append("|anonymous");
+            } else {
+                key.append("|rm=").append(Long.toHexString(principal.getRoleMask()));
+                if (!principal.getExtraRoles().isEmpty()) {
+                    key.append(',').append(String.join(",", new TreeSet<>(principal.getExtraRoles())));
+                }
+            }
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.nexus.api_gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Immutable cached response: status, headers and a read-only body buffer shared by every reader
+ * (always write body().duplicate()). Times are epoch milliseconds.
+ *
+ * Lifecycle after storedAt: fresh for maxAge, then servable while revalidating for
+ * staleWhileRevalidate, and servable instead of an upstream error for staleIfError (both counted
+ * from the end of freshness).
+ */
+public final class CachedResponse {
+
+    private final int status;
+    private final HttpHeaders headers;
+    private final ByteBuffer body;
+    private final long storedAt;
+    private final long maxAgeMillis;
+    private final long staleWhileRevalidateMillis;
+    private final long staleIfErrorMillis;
+
+    public CachedResponse(int status, HttpHeaders headers, ByteBuffer body, long storedAt,
+                          long maxAgeMillis, long staleWhileRevalidateMillis, long staleIfErrorMillis) {
+        this.status = status;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body.asReadOnlyBuffer();
+        this.storedAt = storedAt;
+        this.maxAgeMillis = maxAgeMillis;
+        this.staleWhileRevalidateMillis = staleWhileRevalidateMillis;
+        this.staleIfErrorMillis = staleIfErrorMillis;
+    }
+
+    /**
+     * @return the same response, fresh again from now (after a 304 from the backend).
+     */
+    public CachedResponse revalidated(long now) {
+        return new CachedResponse(status, headers, body, now, maxAgeMillis, staleWhileRevalidateMillis, staleIfErrorMillis);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return the shared body; never read it directly, use body().duplicate().
+     */
+    public ByteBuffer body() {
+        return body;
+    }
+
+    public String getEtag() {
+        return headers.getETag();
+    }
+
+    public long ageSeconds(long now) {
+        return Math.max(0, (now - storedAt) / 1000);
+    }
+
+    public boolean isFresh(long now) {
+        return now - storedAt < maxAgeMillis;
+    }
+
+    public boolean canServeWhileRevalidating(long now) {
+        return now - storedAt < maxAgeMillis + staleWhileRevalidateMillis;
+    }
+
+    public boolean canServeIfError(long now) {
+        return now - storedAt < maxAgeMillis + staleIfErrorMillis;
+    }
+
+    /**
+     * @return how long the entry is worth keeping at all.
+     */
+    public long lifetimeMillis() {
+        return maxAgeMillis + Math.max(staleWhileRevalidateMillis, staleIfErrorMillis);
+    }
+
+    public long getStoredAt() {
+        return storedAt;
+    }
+
+    /**
+     * Approximate bytes held, for the cache's size bound.
+     */
+    public int weight() {
+        return body.capacity() + 64 * headers.size() + 64;
+    }
+}
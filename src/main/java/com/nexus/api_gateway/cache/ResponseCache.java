@@ -0,0 +1,193 @@
+package com.nexus.api_gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.nexus.api_gateway.util.Constants.RESPONSE_CACHE_KEY_ATTR;
+import static com.nexus.api_gateway.util.Constants.RESPONSE_CACHE_SERVED_ATTR;
+
+/**
+ * Shared store behind ResponseCacheFilter.
+ *
+ * - Bounded by total bytes (nexus.response-cache.maximum-size), W-TinyLFU eviction (Caffeine).
+ * - With nexus.response-cache.off-heap=true bodies live in direct buffers, outside the Java heap.
+ * - Entries are dropped once neither fresh nor usable as stale (see CachedResponse).
+ * - Keeps the in-flight upstream fetch per key, so concurrent misses and revalidations collapse.
+ *
+ * Also the StaleResponseSource of FallbackController: when a circuit breaker rejects a cached GET,
+ * the entry is served if it is within its stale-if-error window.
+ */
+@Component
+public class ResponseCache implements StaleResponseSource {
+
+    static final String CACHE_NAME = "gateway.responses";
+
+    private final Cache<String, CachedResponse> store;
+    private final boolean offHeap;
+    private final Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public ResponseCache(@Value("${nexus.response-cache.maximum-size:64MB}") DataSize maximumSize,
+                         @Value("${nexus.response-cache.off-heap:false}") boolean offHeap,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.offHeap = offHeap;
+        this.store = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((String key, CachedResponse value) -> value.weight() + 2 * key.length())
+                .expireAfter(new ExpireAfterLifetime())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, store, CACHE_NAME));
+    }
+
+    public CachedResponse get(String key) {
+        return store.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        store.put(key, response);
+    }
+
+    public void invalidate(String key) {
+        store.invalidate(key);
+    }
+
+    /**
+     * Copies the first 'length' bytes into a read-only body buffer (direct when off-heap is on).
+     */
+    public ByteBuffer newBody(byte[] bytes, int length) {
+        ByteBuffer body = offHeap ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+        return body.put(bytes, 0, length).flip().asReadOnlyBuffer();
+    }
+
+    /**
+     * Registers the caller as the one fetching 'key' from upstream.
+     * @return null if registered, otherwise the sink of the fetch already in flight to wait on.
+     */
+    public Sinks.One<CachedResponse> joinInFlight(String key, Sinks.One<CachedResponse> sink) {
+        return inFlight.putIfAbsent(key, sink);
+    }
+
+    /**
+     * Ends an in-flight fetch; waiters that were not handed a response fetch on their own.
+     */
+    public void leaveInFlight(String key, Sinks.One<CachedResponse> sink) {
+        inFlight.remove(key, sink);
+        sink.tryEmitEmpty();
+    }
+
+    /**
+     * Writes a cached response (304 when the request's If-None-Match matches a fresh entry).
+     * @param state value of the X-Cache header: HIT or STALE.
+     */
+    public Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String state) {
+        exchange.getAttributes().put(RESPONSE_CACHE_SERVED_ATTR, state);
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        cached.getHeaders().forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(System.currentTimeMillis())));
+        headers.set("X-Cache", state);
+
+        String etag = cached.getEtag();
+        if (etag != null && matches(exchange.getRequest().getHeaders(), etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(cached.getStatus()));
+        headers.setContentLength(cached.body().remaining());
+        if (exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body().duplicate())));
+    }
+
+    /**
+     * Replaces an upstream error response that has not been committed yet with a stale entry.
+     * Headers set by the backend are dropped; those set by the gateway itself (CORS, rate limit) stay.
+     */
+    public Mono<Void> replaceWithStale(ServerWebExchange exchange, CachedResponse cached) {
+        exchange.getResponse().getHeaders().keySet().removeIf(name -> !isGatewayHeader(name));
+        return write(exchange, cached, "STALE");
+    }
+
+    @Override
+    public Mono<Boolean> serveStale(ServerWebExchange exchange) {
+        String key = exchange.getAttribute(RESPONSE_CACHE_KEY_ATTR);
+        CachedResponse cached = key == null ? null : store.getIfPresent(key);
+        if (cached == null || !cached.canServeIfError(System.currentTimeMillis())
+                || exchange.getResponse().isCommitted()) {
+            return Mono.just(false);
+        }
+        return replaceWithStale(exchange, cached).thenReturn(true);
+    }
+
+    /**
+     * @return true for response headers the gateway adds on its own and that must not be cached.
+     */
+    public static boolean isGatewayHeader(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.startsWith("access-control-") || lower.startsWith("x-ratelimit-")
+                || lower.equals("vary") || lower.equals("x-cache");
+    }
+
+    private static boolean matches(HttpHeaders requestHeaders, String etag) {
+        if (!requestHeaders.containsKey(HttpHeaders.IF_NONE_MATCH)) return false;
+        List<String> ifNoneMatch;
+        try {
+            ifNoneMatch = requestHeaders.getIfNoneMatch();
+        } catch (IllegalArgumentException e) {
+            return false; // malformed header: answer with the full response
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch) {
+            if (candidate.equals("*") || candidate.equals(etag) || candidate.equals(opaque)
+                    || (candidate.startsWith("W/") && candidate.substring(2).equals(opaque))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Keeps an entry until it is no longer fresh or usable as stale, measured from its storedAt
+    private static final class ExpireAfterLifetime implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            long remaining = value.getStoredAt() + value.lifetimeMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.nexus.api_gateway.cache;
+
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * A source of previously cached responses that FallbackController may serve, instead of a 503,
+ * when a circuit breaker rejects or fails an idempotent read.
+ */
+public interface StaleResponseSource {
+
+    /**
+     * Writes a stale copy of the response to the original request of this (forwarded) exchange.
+     * @return Mono emitting true if a response was written, false if nothing usable is cached.
+     */
+    Mono<Boolean> serveStale(ServerWebExchange exchange);
+}
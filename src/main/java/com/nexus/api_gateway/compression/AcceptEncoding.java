@@ -0,0 +1,62 @@
+package com.nexus.api_gateway.compression;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Accept-Encoding negotiation (RFC 9110 12.5.3) with q-values.
+ */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {}
+
+    /**
+     * Picks the encoding with the highest q-value among 'supported'; ties go to the earlier entry of
+     * 'supported', which is the server's preference order.
+     *
+     * @return the chosen encoding, or null for identity (nothing acceptable, or no header).
+     */
+    public static String negotiate(List<String> headerValues, List<String> supported) {
+        if (headerValues == null || headerValues.isEmpty()) return null;
+        String best = null;
+        double bestQ = 0;
+        for (String encoding : supported) {
+            double q = qualityOf(headerValues, encoding);
+            if (q > bestQ) {
+                best = encoding;
+                bestQ = q;
+            }
+        }
+        return best;
+    }
+
+    // q of the exact token, else of '*', else 0
+    static double qualityOf(List<String> headerValues, String encoding) {
+        double wildcard = 0;
+        for (String value : headerValues) {
+            for (String item : value.split(",")) {
+                int semicolon = item.indexOf(';');
+                String token = (semicolon < 0 ? item : item.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+                double q = semicolon < 0 ? 1.0 : parseQ(item.substring(semicolon + 1));
+                if (token.equals(encoding)) return q;
+                if (token.equals("*")) wildcard = q;
+            }
+        }
+        return wildcard;
+    }
+
+    private static double parseQ(String params) {
+        for (String param : params.split(";")) {
+            String p = param.trim();
+            if (p.length() > 2 && (p.charAt(0) == 'q' || p.charAt(0) == 'Q') && p.charAt(1) == '=') {
+                try {
+                    double q = Double.parseDouble(p.substring(2).trim());
+                    return q < 0 ? 0 : Math.min(q, 1.0);
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1.0;
+    }
+}
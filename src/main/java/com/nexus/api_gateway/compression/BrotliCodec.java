@@ -0,0 +1,55 @@
+package com.nexus.api_gateway.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Brotli through brotli4j (native); disabled when the native library is missing for the platform.
+ */
+@Component
+public class BrotliCodec implements CompressionCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(BrotliCodec.class);
+
+    private final boolean available;
+
+    public BrotliCodec() {
+        boolean loaded;
+        try {
+            loaded = Brotli4jLoader.isAvailable();
+        } catch (Throwable e) {
+            loaded = false;
+        }
+        if (!loaded) {
+            log.warn("Brotli native library not available, 'br' responses are disabled");
+        }
+        this.available = loaded;
+    }
+
+    @Override
+    public String encoding() {
+        return "br";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public int defaultLevel() {
+        return 4;
+    }
+
+    @Override
+    public OutputStream encoder(OutputStream sink, int level) throws IOException {
+        return new BrotliOutputStream(sink, new Encoder.Parameters().setQuality(level));
+    }
+}
@@ -0,0 +1,31 @@
+package com.nexus.api_gateway.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A Content-Encoding the gateway can produce. Encoders are streaming: CompressionFilter writes each
+ * body chunk into the returned stream and forwards whatever compressed output it has produced.
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return the Content-Encoding token, e.g. "gzip".
+     */
+    String encoding();
+
+    /**
+     * @return false if the codec cannot run here (e.g. its native library failed to load).
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+
+    int defaultLevel();
+
+    /**
+     * Opens an encoder writing compressed bytes to 'sink'. Closing it finishes the stream and
+     * frees any native memory; it must be closed on every path, including cancellation.
+     */
+    OutputStream encoder(OutputStream sink, int level) throws IOException;
+}
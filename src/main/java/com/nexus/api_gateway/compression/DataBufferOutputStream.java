@@ -0,0 +1,60 @@
+package com.nexus.api_gateway.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.OutputStream;
+
+/**
+ * OutputStream collecting an encoder's output into buffers of the response's factory (pooled
+ * Netty ByteBufs on Reactor Netty). drain() hands over what has been written since the last call.
+ */
+final class DataBufferOutputStream extends OutputStream {
+
+    private final DataBufferFactory factory;
+    private final int initialCapacity;
+    private DataBuffer current;
+
+    DataBufferOutputStream(DataBufferFactory factory, int initialCapacity) {
+        this.factory = factory;
+        this.initialCapacity = initialCapacity;
+    }
+
+    @Override
+    public void write(int b) {
+        buffer(1).write((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        if (length > 0) buffer(length).write(bytes, offset, length);
+    }
+
+    private DataBuffer buffer(int length) {
+        if (current == null) {
+            current = factory.allocateBuffer(Math.max(initialCapacity, length));
+        }
+        current.ensureWritable(length);
+        return current;
+    }
+
+    /**
+     * @return the bytes written since the last call, or null if there are none.
+     */
+    DataBuffer drain() {
+        DataBuffer out = current;
+        current = null;
+        return out;
+    }
+
+    /**
+     * Releases undelivered output (cancellation or error).
+     */
+    void discard() {
+        if (current != null) {
+            DataBufferUtils.release(current);
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.nexus.api_gateway.compression;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * HTTP "deflate", i.e. the zlib format (RFC 1950), not raw deflate.
+ */
+@Component
+public class DeflateCodec implements CompressionCodec {
+
+    @Override
+    public String encoding() {
+        return "deflate";
+    }
+
+    @Override
+    public int defaultLevel() {
+        return 6;
+    }
+
+    @Override
+    public OutputStream encoder(OutputStream sink, int level) {
+        Deflater deflater = new Deflater(level);
+        return new DeflaterOutputStream(sink, deflater, 8192) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    deflater.end(); // a Deflater passed in is not ended by close()
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.nexus.api_gateway.compression;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class GzipCodec implements CompressionCodec {
+
+    @Override
+    public String encoding() {
+        return "gzip";
+    }
+
+    @Override
+    public int defaultLevel() {
+        return 6;
+    }
+
+    @Override
+    public OutputStream encoder(OutputStream sink, int level) throws IOException {
+        return new GZIPOutputStream(sink, 8192) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+}
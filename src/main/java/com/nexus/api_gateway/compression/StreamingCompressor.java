@@ -0,0 +1,111 @@
+package com.nexus.api_gateway.compression;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * Compresses a stream of DataBuffers with one codec: each input chunk is fed to the encoder and
+ * released, and whatever output the encoder has produced so far is emitted as a new buffer from
+ * the given factory. The encoder is closed on completion, error and cancellation alike.
+ */
+public final class StreamingCompressor {
+
+    private static final int OUTPUT_CAPACITY = 8192;
+
+    private final CompressionCodec codec;
+    private final int level;
+    private final DataBufferFactory bufferFactory;
+
+    public StreamingCompressor(CompressionCodec codec, int level, DataBufferFactory bufferFactory) {
+        this.codec = codec;
+        this.level = level;
+        this.bufferFactory = bufferFactory;
+    }
+
+    /**
+     * @param bytesIn  called with the size of each input chunk
+     * @param bytesOut called with the size of each compressed chunk
+     */
+    public Flux<DataBuffer> compress(Publisher<? extends DataBuffer> body, LongConsumer bytesIn, LongConsumer bytesOut) {
+        return Flux.using(Encoding::new,
+                encoding -> Flux.from(body)
+                        .<DataBuffer>handle((buffer, sink) -> {
+                            bytesIn.accept(buffer.readableByteCount());
+                            try {
+                                encoding.write(buffer);
+                            } catch (IOException e) {
+                                sink.error(e);
+                                return;
+                            } finally {
+                                DataBufferUtils.release(buffer);
+                            }
+                            DataBuffer out = encoding.output.drain();
+                            if (out != null) {
+                                bytesOut.accept(out.readableByteCount());
+                                sink.next(out);
+                            }
+                        })
+                        .concatWith(Mono.fromCallable(() -> {
+                            DataBuffer out = encoding.finish();
+                            if (out != null) bytesOut.accept(out.readableByteCount());
+                            return out;
+                        })),
+                Encoding::close);
+    }
+
+    private final class Encoding {
+        final DataBufferOutputStream output = new DataBufferOutputStream(bufferFactory, OUTPUT_CAPACITY);
+        final OutputStream encoder;
+        private byte[] scratch; // for direct input buffers
+        private boolean finished;
+
+        Encoding() throws IOException {
+            this.encoder = codec.encoder(output, level);
+        }
+
+        void write(DataBuffer buffer) throws IOException {
+            try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+                while (it.hasNext()) {
+                    ByteBuffer chunk = it.next();
+                    if (chunk.hasArray()) {
+                        encoder.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+                        continue;
+                    }
+                    if (scratch == null) scratch = new byte[OUTPUT_CAPACITY];
+                    while (chunk.hasRemaining()) {
+                        int n = Math.min(scratch.length, chunk.remaining());
+                        chunk.get(scratch, 0, n);
+                        encoder.write(scratch, 0, n);
+                    }
+                }
+            }
+        }
+
+        DataBuffer finish() throws IOException {
+            finished = true;
+            encoder.close();
+            return output.drain();
+        }
+
+        void close() {
+            if (!finished) {
+                finished = true;
+                try {
+                    encoder.close();
+                } catch (IOException | RuntimeException ignored) {
+                    // the response is gone; only native memory matters here
+                }
+            }
+            output.discard();
+        }
+    }
+}
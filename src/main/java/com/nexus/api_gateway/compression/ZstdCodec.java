@@ -0,0 +1,54 @@
+package com.nexus.api_gateway.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Zstandard through zstd-jni (native); disabled when the native library is missing for the platform.
+ */
+@Component
+public class ZstdCodec implements CompressionCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(ZstdCodec.class);
+
+    private final boolean available;
+
+    public ZstdCodec() {
+        boolean loaded;
+        try {
+            loaded = Zstd.defaultCompressionLevel() > 0; // forces the native library to load
+        } catch (Throwable e) {
+            loaded = false;
+        }
+        if (!loaded) {
+            log.warn("Zstd native library not available, 'zstd' responses are disabled");
+        }
+        this.available = loaded;
+    }
+
+    @Override
+    public String encoding() {
+        return "zstd";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public int defaultLevel() {
+        return 3;
+    }
+
+    @Override
+    public OutputStream encoder(OutputStream sink, int level) throws IOException {
+        return new ZstdOutputStream(sink, level);
+    }
+}
@@ -17,7 +17,7 @@ public class CorsResponseHeaderSanitizerConfig {
         return (exchange, chain) -> chain.filter(exchange).then(Mono.fromRunnable(() -> sanitizeCorsHeaders(exchange)));
     }
 
-    private void sanitizeCorsHeaders(ServerWebExchange exchange) {
+    static void sanitizeCorsHeaders(ServerWebExchange exchange) {
         HttpHeaders headers = exchange.getResponse().getHeaders();
 
         // If both specific origin and '*' are present, retain the specific origin and remove '*'
@@ -0,0 +1,45 @@
+package com.nexus.api_gateway.config;
+
+import com.nexus.api_gateway.instrumentation.FilterInstrumentation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Hot-path latency instrumentation, switched by nexus.instrumentation.enabled (default true).
+ * When disabled filters are not timed and the routing client records no metrics (filters are
+ * still wrapped for their spans when nexus.tracing.enabled is true, see TracingConfig).
+ *
+ *  - gateway.filter.time (filter, route): self time of each of the gateway's own filters.
+ *  - reactor.netty.http.client.* (remote.address, ...): upstream connect time, TLS handshake and
+ *    response time (request sent to response headers, i.e. time to first byte).
+ *  - spring.cloud.gateway.requests (routeId, ...): end-to-end time per route (gateway default).
+ *
+ * All of them are scraped from /actuator/prometheus.
+ */
+@Configuration
+public class InstrumentationConfig {
+
+    // static: post-processors are created before regular beans
+    @Bean
+    public static FilterInstrumentation filterInstrumentation(Environment environment,
+                                                              ObjectProvider<MeterRegistry> meterRegistry,
+                                                              ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new FilterInstrumentation(
+                environment.getProperty("nexus.instrumentation.enabled", Boolean.class, true),
+                environment.getProperty("nexus.tracing.enabled", Boolean.class, true),
+                meterRegistry, observationRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "nexus.instrumentation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public HttpClientCustomizer upstreamClientMetrics() {
+        // Single fixed uri tag: backend paths would create one meter per distinct URI
+        return httpClient -> httpClient.metrics(true, uri -> "/");
+    }
+}
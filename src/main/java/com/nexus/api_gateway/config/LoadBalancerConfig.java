@@ -0,0 +1,23 @@
+package com.nexus.api_gateway.config;
+
+import com.nexus.api_gateway.loadbalancer.EndpointOutcomeFilter;
+import com.nexus.api_gateway.loadbalancer.PoolLoadBalancerConfiguration;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Client-side load balancing for lb://service-id routes (see LoadBalancerProperties): services
+ * configured under nexus.load-balancer.services are balanced by their ServicePool, others by the
+ * stock round robin over the discovery client.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PoolLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public GlobalFilter endpointOutcomeFilter() {
+        return new EndpointOutcomeFilter();
+    }
+}
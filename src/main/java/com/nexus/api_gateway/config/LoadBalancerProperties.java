@@ -0,0 +1,231 @@
+package com.nexus.api_gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client-side load balancing of lb:// routes (nexus.load-balancer.*), keyed by service id
+ * (the host of the route uri). Unset service values fall back to 'defaults', then to the
+ * built-in values below. Services not listed here use the stock round robin over
+ * spring.cloud.discovery.client.simple.instances.
+ */
+@ConfigurationProperties(prefix = "nexus.load-balancer")
+public class LoadBalancerProperties {
+
+    private Service defaults = new Service();
+    private Map<String, Service> services = new LinkedHashMap<>();
+
+    public Service getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Service defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Service> getServices() {
+        return services;
+    }
+
+    public void setServices(Map<String, Service> services) {
+        this.services = services;
+    }
+
+    /**
+     * @return the effective settings for a service id (service over defaults over built-ins).
+     */
+    public Service resolve(String serviceId) {
+        return Service.BUILT_IN.overriddenBy(defaults).overriddenBy(services.get(serviceId));
+    }
+
+    public enum Strategy {
+        /** Two random instances, the one with fewer requests in flight wins. */
+        POWER_OF_TWO_CHOICES,
+        /** The instance with the fewest requests in flight, scanning all of them. */
+        LEAST_OUTSTANDING,
+        /** Two random instances, the lower peak-EWMA latency times (requests in flight + 1) wins. */
+        PEAK_EWMA
+    }
+
+    public static class Service {
+
+        static final Service BUILT_IN = builtIn();
+
+        private Strategy strategy;
+        // Instances: a static list, or a file with one URI per line ('#' comments), re-read when it changes
+        private List<URI> instances;
+        private String instancesFile;
+        private Duration fileCheckInterval;
+        // Peak EWMA: time for an old latency sample's weight to decay to 1/e
+        private Duration ewmaDecay;
+        // Passive health: consecutive failures (5xx, connect errors, timeouts) eject an instance
+        private Integer consecutiveFailures;
+        private Duration baseEjectionTime;            // doubles on each failed half-open probe
+        private Duration maxEjectionTime;
+        private Integer maxEjectionPercent;
+        // Active health: GET health-check-path on every instance (unset disables active checks)
+        private String healthCheckPath;
+        private Duration healthCheckInterval;
+        private Duration healthCheckTimeout;
+        private Integer unhealthyThreshold;
+        private Integer healthyThreshold;
+
+        private static Service builtIn() {
+            Service s = new Service();
+            s.strategy = Strategy.PEAK_EWMA;
+            s.instances = List.of();
+            s.fileCheckInterval = Duration.ofSeconds(5);
+            s.ewmaDecay = Duration.ofSeconds(10);
+            s.consecutiveFailures = 5;
+            s.baseEjectionTime = Duration.ofSeconds(30);
+            s.maxEjectionTime = Duration.ofMinutes(5);
+            s.maxEjectionPercent = 50;
+            s.healthCheckInterval = Duration.ofSeconds(10);
+            s.healthCheckTimeout = Duration.ofSeconds(2);
+            s.unhealthyThreshold = 2;
+            s.healthyThreshold = 1;
+            return s;
+        }
+
+        Service overriddenBy(Service other) {
+            if (other == null) return this;
+            Service s = new Service();
+            s.strategy = pick(other.strategy, strategy);
+            s.instances = pick(other.instances, instances);
+            s.instancesFile = pick(other.instancesFile, instancesFile);
+            s.fileCheckInterval = pick(other.fileCheckInterval, fileCheckInterval);
+            s.ewmaDecay = pick(other.ewmaDecay, ewmaDecay);
+            s.consecutiveFailures = pick(other.consecutiveFailures, consecutiveFailures);
+            s.baseEjectionTime = pick(other.baseEjectionTime, baseEjectionTime);
+            s.maxEjectionTime = pick(other.maxEjectionTime, maxEjectionTime);
+            s.maxEjectionPercent = pick(other.maxEjectionPercent, maxEjectionPercent);
+            s.healthCheckPath = pick(other.healthCheckPath, healthCheckPath);
+            s.healthCheckInterval = pick(other.healthCheckInterval, healthCheckInterval);
+            s.healthCheckTimeout = pick(other.healthCheckTimeout, healthCheckTimeout);
+            s.unhealthyThreshold = pick(other.unhealthyThreshold, unhealthyThreshold);
+            s.healthyThreshold = pick(other.healthyThreshold, healthyThreshold);
+            return s;
+        }
+
+        private static <T> T pick(T preferred, T fallback) {
+            return preferred != null ? preferred : fallback;
+        }
+
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(Strategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public List<URI> getInstances() {
+            return instances;
+        }
+
+        public void setInstances(List<URI> instances) {
+            this.instances = instances;
+        }
+
+        public String getInstancesFile() {
+            return instancesFile;
+        }
+
+        public void setInstancesFile(String instancesFile) {
+            this.instancesFile = instancesFile;
+        }
+
+        public Duration getFileCheckInterval() {
+            return fileCheckInterval;
+        }
+
+        public void setFileCheckInterval(Duration fileCheckInterval) {
+            this.fileCheckInterval = fileCheckInterval;
+        }
+
+        public Duration getEwmaDecay() {
+            return ewmaDecay;
+        }
+
+        public void setEwmaDecay(Duration ewmaDecay) {
+            this.ewmaDecay = ewmaDecay;
+        }
+
+        public Integer getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public void setConsecutiveFailures(Integer consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+        }
+
+        public Duration getBaseEjectionTime() {
+            return baseEjectionTime;
+        }
+
+        public void setBaseEjectionTime(Duration baseEjectionTime) {
+            this.baseEjectionTime = baseEjectionTime;
+        }
+
+        public Duration getMaxEjectionTime() {
+            return maxEjectionTime;
+        }
+
+        public void setMaxEjectionTime(Duration maxEjectionTime) {
+            this.maxEjectionTime = maxEjectionTime;
+        }
+
+        public Integer getMaxEjectionPercent() {
+            return maxEjectionPercent;
+        }
+
+        public void setMaxEjectionPercent(Integer maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+        }
+
+        public String getHealthCheckPath() {
+            return healthCheckPath;
+        }
+
+        public void setHealthCheckPath(String healthCheckPath) {
+            this.healthCheckPath = healthCheckPath;
+        }
+
+        public Duration getHealthCheckInterval() {
+            return healthCheckInterval;
+        }
+
+        public void setHealthCheckInterval(Duration healthCheckInterval) {
+            this.healthCheckInterval = healthCheckInterval;
+        }
+
+        public Duration getHealthCheckTimeout() {
+            return healthCheckTimeout;
+        }
+
+        public void setHealthCheckTimeout(Duration healthCheckTimeout) {
+            this.healthCheckTimeout = healthCheckTimeout;
+        }
+
+        public Integer getUnhealthyThreshold() {
+            return unhealthyThreshold;
+        }
+
+        public void setUnhealthyThreshold(Integer unhealthyThreshold) {
+            this.unhealthyThreshold = unhealthyThreshold;
+        }
+
+        public Integer getHealthyThreshold() {
+            return healthyThreshold;
+        }
+
+        public void setHealthyThreshold(Integer healthyThreshold) {
+            this.healthyThreshold = healthyThreshold;
+        }
+    }
+}
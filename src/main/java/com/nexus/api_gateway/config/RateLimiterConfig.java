@@ -0,0 +1,29 @@
+package com.nexus.api_gateway.config;
+
+import com.nexus.api_gateway.ratelimit.InMemoryTokenBucketBackend;
+import com.nexus.api_gateway.ratelimit.RateLimitBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Provides the node-local token-bucket backend for RateLimiterFilter unless another
+ * RateLimitBackend (e.g. one backed by a shared store) is defined.
+ *
+ * An auto-configuration (see META-INF/spring/...AutoConfiguration.imports), so the condition is
+ * evaluated after every application bean has been registered.
+ */
+@AutoConfiguration
+public class RateLimiterConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(RateLimitBackend.class)
+    public RateLimitBackend inMemoryTokenBucketBackend(
+            @Value("${nexus.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${nexus.rate-limit.maximum-buckets:1000000}") long maximumBuckets) {
+        return new InMemoryTokenBucketBackend(idleTimeout, maximumBuckets);
+    }
+}
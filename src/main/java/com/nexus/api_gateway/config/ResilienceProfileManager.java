@@ -0,0 +1,197 @@
+package com.nexus.api_gateway.config;
+
+import com.nexus.api_gateway.error.BodyTooLargeException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedTimeLimiterMetrics;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies the nexus.resilience profiles to the circuit breakers, time limiters and bulkheads
+ * used by the gateway routes, and re-applies them when the environment changes
+ * (POST /actuator/refresh, or a config server push) without a restart.
+ *
+ * On reload a changed circuit breaker is replaced in the registry, which resets its window and
+ * state; the gateway's CircuitBreaker filter looks the instance up by name on every call.
+ * Bulkheads are resized in place.
+ *
+ * Metrics: resilience4j.circuitbreaker.*, resilience4j.timelimiter.*, resilience4j.bulkhead.*
+ * (tag: name) and gateway.circuitbreaker.transitions (tags: name, from, to).
+ */
+@Component
+public class ResilienceProfileManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilienceProfileManager.class);
+    private static final String PREFIX = "nexus.resilience";
+
+    private final ReactiveResilience4JCircuitBreakerFactory factory;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    private volatile ResilienceProperties properties;
+    // Resolved profiles; read on hot paths (e.g. Retry-After of fallbacks), cleared on reload
+    private final Map<String, ResilienceProperties.Profile> resolved = new ConcurrentHashMap<>();
+
+    public ResilienceProfileManager(ReactiveResilience4JCircuitBreakerFactory factory,
+                                    ResilienceProperties properties,
+                                    MeterRegistry meterRegistry,
+                                    Environment environment) {
+        this.factory = factory;
+        this.circuitBreakerRegistry = factory.getCircuitBreakerRegistry();
+        this.timeLimiterRegistry = factory.getTimeLimiterRegistry();
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.properties = properties;
+
+        circuitBreakerRegistry.getEventPublisher()
+                .onEntryAdded(event -> countTransitions(event.getAddedEntry()))
+                .onEntryReplaced(event -> countTransitions(event.getNewEntry()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedTimeLimiterMetrics.ofTimeLimiterRegistry(timeLimiterRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+
+        apply(properties);
+    }
+
+    /**
+     * @return the effective profile for a circuit breaker name.
+     */
+    public ResilienceProperties.Profile profile(String name) {
+        return resolved.computeIfAbsent(name, properties::resolve);
+    }
+
+    /**
+     * @return the semaphore bulkhead for a profile name, created on first use.
+     */
+    public Bulkhead bulkhead(String name) {
+        return bulkheadRegistry.bulkhead(name, bulkheadConfig(profile(name)));
+    }
+
+    @EventListener(EnvironmentChangeEvent.class)
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().noneMatch(key -> key.startsWith(PREFIX))) {
+            return;
+        }
+        // Bind directly rather than rely on the order of the ConfigurationPropertiesRebinder
+        ResilienceProperties reloaded = Binder.get(environment)
+                .bind(PREFIX, ResilienceProperties.class)
+                .orElseGet(ResilienceProperties::new);
+        this.properties = reloaded;
+        resolved.clear();
+        apply(reloaded);
+        log.info("Reloaded resilience profiles for {}", reloaded.getInstances().keySet());
+    }
+
+    private void apply(ResilienceProperties props) {
+        factory.configureDefault(id -> configBuilder(id, props.resolve(id)).build());
+
+        Set<String> names = new HashSet<>(props.getInstances().keySet());
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(cb -> names.add(cb.getName()));
+        for (String name : names) {
+            ResilienceProperties.Profile profile = props.resolve(name);
+            CircuitBreakerConfig cbConfig = circuitBreakerConfig(profile);
+            TimeLimiterConfig tlConfig = timeLimiterConfig(profile);
+            factory.configure(builder -> builder.circuitBreakerConfig(cbConfig).timeLimiterConfig(tlConfig), name);
+
+            // Instances already created by a route keep their old config unless replaced
+            circuitBreakerRegistry.find(name)
+                    .filter(existing -> !sameConfig(existing.getCircuitBreakerConfig(), cbConfig))
+                    .ifPresent(existing -> circuitBreakerRegistry.replace(name, CircuitBreaker.of(name, cbConfig)));
+            timeLimiterRegistry.find(name)
+                    .filter(existing -> !existing.getTimeLimiterConfig().getTimeoutDuration().equals(tlConfig.getTimeoutDuration()))
+                    .ifPresent(existing -> timeLimiterRegistry.replace(name, TimeLimiter.of(name, tlConfig)));
+            bulkheadRegistry.find(name)
+                    .ifPresent(bulkhead -> bulkhead.changeConfig(bulkheadConfig(profile)));
+        }
+    }
+
+    private static Resilience4JConfigBuilder configBuilder(String id, ResilienceProperties.Profile profile) {
+        return new Resilience4JConfigBuilder(id)
+                .circuitBreakerConfig(circuitBreakerConfig(profile))
+                .timeLimiterConfig(timeLimiterConfig(profile));
+    }
+
+    static CircuitBreakerConfig circuitBreakerConfig(ResilienceProperties.Profile profile) {
+        return CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.TIME_BASED)
+                .slidingWindowSize(profile.getSlidingWindowSeconds())
+                .minimumNumberOfCalls(profile.getMinimumNumberOfCalls())
+                .failureRateThreshold(profile.getFailureRateThreshold())
+                .slowCallRateThreshold(profile.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(profile.getSlowCallDurationThreshold())
+                .waitDurationInOpenState(profile.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(profile.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // An oversized request body (BodySizeLimitFilter) is the client's fault, not the backend's
+                .ignoreExceptions(BodyTooLargeException.class)
+                .build();
+    }
+
+    static TimeLimiterConfig timeLimiterConfig(ResilienceProperties.Profile profile) {
+        return TimeLimiterConfig.custom()
+                .timeoutDuration(profile.getTimeout())
+                .cancelRunningFuture(true)
+                .build();
+    }
+
+    static BulkheadConfig bulkheadConfig(ResilienceProperties.Profile profile) {
+        // No waiting: a reactive caller must never park an event-loop thread
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(profile.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+    }
+
+    private static boolean sameConfig(CircuitBreakerConfig a, CircuitBreakerConfig b) {
+        return a.getSlidingWindowType() == b.getSlidingWindowType()
+                && a.getSlidingWindowSize() == b.getSlidingWindowSize()
+                && a.getMinimumNumberOfCalls() == b.getMinimumNumberOfCalls()
+                && a.getFailureRateThreshold() == b.getFailureRateThreshold()
+                && a.getSlowCallRateThreshold() == b.getSlowCallRateThreshold()
+                && a.getSlowCallDurationThreshold().equals(b.getSlowCallDurationThreshold())
+                && a.getWaitIntervalFunctionInOpenState().apply(1).equals(b.getWaitIntervalFunctionInOpenState().apply(1))
+                && a.getPermittedNumberOfCallsInHalfOpenState() == b.getPermittedNumberOfCallsInHalfOpenState();
+    }
+
+    private void countTransitions(CircuitBreaker circuitBreaker) {
+        String name = circuitBreaker.getName();
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            Counter.builder("gateway.circuitbreaker.transitions")
+                    .tag("name", name)
+                    .tag("from", transition.getFromState().name())
+                    .tag("to", transition.getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Circuit breaker {} changed state: {}", name, transition);
+        });
+    }
+}
@@ -0,0 +1,164 @@
+package com.nexus.api_gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-route resilience profiles (nexus.resilience.*), keyed by circuit breaker name.
+ * Unset instance values fall back to 'defaults', then to the built-in values below.
+ */
+@ConfigurationProperties(prefix = "nexus.resilience")
+public class ResilienceProperties {
+
+    private Profile defaults = new Profile();
+    private Map<String, Profile> instances = new LinkedHashMap<>();
+
+    public Profile getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Profile defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Profile> getInstances() {
+        return instances;
+    }
+
+    public void setInstances(Map<String, Profile> instances) {
+        this.instances = instances;
+    }
+
+    /**
+     * @return the effective profile for a circuit breaker name (instance over defaults over built-ins).
+     */
+    public Profile resolve(String name) {
+        return Profile.BUILT_IN.overriddenBy(defaults).overriddenBy(instances.get(name));
+    }
+
+    public static class Profile {
+
+        static final Profile BUILT_IN = builtIn();
+
+        // Circuit breaker (time-based sliding window)
+        private Integer slidingWindowSeconds;
+        private Integer minimumNumberOfCalls;
+        private Float failureRateThreshold;           // percent
+        private Float slowCallRateThreshold;          // percent
+        private Duration slowCallDurationThreshold;
+        private Duration waitDurationInOpenState;
+        private Integer permittedCallsInHalfOpenState;
+        // Time limiter: the backend's SLO
+        private Duration timeout;
+        // Semaphore bulkhead
+        private Integer maxConcurrentCalls;
+
+        private static Profile builtIn() {
+            Profile p = new Profile();
+            p.slidingWindowSeconds = 30;
+            p.minimumNumberOfCalls = 20;
+            p.failureRateThreshold = 50f;
+            p.slowCallRateThreshold = 50f;
+            p.slowCallDurationThreshold = Duration.ofSeconds(2);
+            p.waitDurationInOpenState = Duration.ofSeconds(10);
+            p.permittedCallsInHalfOpenState = 5;
+            p.timeout = Duration.ofSeconds(3);
+            p.maxConcurrentCalls = 100;
+            return p;
+        }
+
+        Profile overriddenBy(Profile other) {
+            if (other == null) return this;
+            Profile p = new Profile();
+            p.slidingWindowSeconds = pick(other.slidingWindowSeconds, slidingWindowSeconds);
+            p.minimumNumberOfCalls = pick(other.minimumNumberOfCalls, minimumNumberOfCalls);
+            p.failureRateThreshold = pick(other.failureRateThreshold, failureRateThreshold);
+            p.slowCallRateThreshold = pick(other.slowCallRateThreshold, slowCallRateThreshold);
+            p.slowCallDurationThreshold = pick(other.slowCallDurationThreshold, slowCallDurationThreshold);
+            p.waitDurationInOpenState = pick(other.waitDurationInOpenState, waitDurationInOpenState);
+            p.permittedCallsInHalfOpenState = pick(other.permittedCallsInHalfOpenState, permittedCallsInHalfOpenState);
+            p.timeout = pick(other.timeout, timeout);
+            p.maxConcurrentCalls = pick(other.maxConcurrentCalls, maxConcurrentCalls);
+            return p;
+        }
+
+        private static <T> T pick(T preferred, T fallback) {
+            return preferred != null ? preferred : fallback;
+        }
+
+        public Integer getSlidingWindowSeconds() {
+            return slidingWindowSeconds;
+        }
+
+        public void setSlidingWindowSeconds(Integer slidingWindowSeconds) {
+            this.slidingWindowSeconds = slidingWindowSeconds;
+        }
+
+        public Integer getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+
+        public void setMinimumNumberOfCalls(Integer minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+
+        public Float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        public void setFailureRateThreshold(Float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+
+        public Float getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        public void setSlowCallRateThreshold(Float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+        }
+
+        public Duration getSlowCallDurationThreshold() {
+            return slowCallDurationThreshold;
+        }
+
+        public void setSlowCallDurationThreshold(Duration slowCallDurationThreshold) {
+            this.slowCallDurationThreshold = slowCallDurationThreshold;
+        }
+
+        public Duration getWaitDurationInOpenState() {
+            return waitDurationInOpenState;
+        }
+
+        public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+            this.waitDurationInOpenState = waitDurationInOpenState;
+        }
+
+        public Integer getPermittedCallsInHalfOpenState() {
+            return permittedCallsInHalfOpenState;
+        }
+
+        public void setPermittedCallsInHalfOpenState(Integer permittedCallsInHalfOpenState) {
+            this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Integer getMaxConcurrentCalls() {
+            return maxConcurrentCalls;
+        }
+
+        public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+        }
+    }
+}
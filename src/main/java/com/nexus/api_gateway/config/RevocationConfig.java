@@ -0,0 +1,23 @@
+package com.nexus.api_gateway.config;
+
+import com.nexus.api_gateway.revocation.RevocationSync;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Keeps token revocations local to this node unless another RevocationSync (e.g. one backed by
+ * a shared pub/sub channel) is defined.
+ *
+ * An auto-configuration (see META-INF/spring/...AutoConfiguration.imports), so the condition is
+ * evaluated after every application bean has been registered.
+ */
+@AutoConfiguration
+public class RevocationConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(RevocationSync.class)
+    public RevocationSync localRevocationSync() {
+        return RevocationSync.LOCAL;
+    }
+}
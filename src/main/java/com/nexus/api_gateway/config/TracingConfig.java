@@ -0,0 +1,74 @@
+package com.nexus.api_gateway.config;
+
+import com.nexus.api_gateway.tracing.AdaptiveSampler;
+import com.nexus.api_gateway.tracing.FileSpanExporter;
+import com.nexus.api_gateway.tracing.InMemorySpanExporter;
+import com.nexus.api_gateway.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * W3C trace context (management.tracing.propagation.type) with OpenTelemetry, sampled adaptively.
+ *
+ *  - The server span, one span per gateway filter and the CircuitBreaker (see FilterInstrumentation),
+ *    and the upstream call, whose traceparent header is sent to the backend.
+ *  - Head sampling by AdaptiveSampler (nexus.tracing.sampling.*), plus tail sampling of slow or
+ *    failed traces by TailSamplingSpanProcessor (nexus.tracing.tail.*).
+ *  - Exporters are pluggable: every SpanExporter bean receives the spans, i.e. OTLP when
+ *    management.otlp.tracing.endpoint is set, and the file / in-memory exporters below.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "nexus.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "nexus.tracing.tail", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(TracingProperties properties,
+                                                               ObjectProvider<SpanExporter> exporters,
+                                                               MeterRegistry meterRegistry) {
+        TracingProperties.Tail tail = properties.getTail();
+        return new TailSamplingSpanProcessor(tail.getMaxTraces(), tail.getMaxSpansPerTrace(),
+                tail.getSlowThreshold(), tail.getTraceTimeout(), exporters, meterRegistry);
+    }
+
+    @Bean
+    public Sampler adaptiveSampler(TracingProperties properties,
+                                   ObjectProvider<TailSamplingSpanProcessor> tail,
+                                   MeterRegistry meterRegistry) {
+        TracingProperties.Sampling sampling = properties.getSampling();
+        AdaptiveSampler sampler = new AdaptiveSampler(sampling.getTargetTracesPerSecond(),
+                sampling.getMinimumProbability(), tail.getIfAvailable());
+        Gauge.builder("gateway.tracing.sampling.probability", sampler, AdaptiveSampler::getProbability)
+                .register(meterRegistry);
+        return sampler;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "nexus.tracing.exporter", name = "file")
+    public FileSpanExporter fileSpanExporter(TracingProperties properties) throws IOException {
+        return new FileSpanExporter(Path.of(properties.getExporter().getFile()));
+    }
+
+    @Bean
+    @ConditionalOnExpression("${nexus.tracing.exporter.memory-capacity:0} > 0")
+    public InMemorySpanExporter inMemorySpanExporter(TracingProperties properties) {
+        return new InMemorySpanExporter(properties.getExporter().getMemoryCapacity());
+    }
+
+    @Bean
+    public MeterFilter filterSpanMeters() {
+        // Filter spans are for traces only; gateway.filter.time already times the filters
+        return MeterFilter.denyNameStartsWith("gateway.filter.span");
+    }
+}
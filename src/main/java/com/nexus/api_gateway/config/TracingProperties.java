@@ -0,0 +1,149 @@
+package com.nexus.api_gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Trace sampling and export (nexus.tracing.*); see TracingConfig.
+ */
+@ConfigurationProperties(prefix = "nexus.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+    private Sampling sampling = new Sampling();
+    private Tail tail = new Tail();
+    private Exporter exporter = new Exporter();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Sampling getSampling() {
+        return sampling;
+    }
+
+    public void setSampling(Sampling sampling) {
+        this.sampling = sampling;
+    }
+
+    public Tail getTail() {
+        return tail;
+    }
+
+    public void setTail(Tail tail) {
+        this.tail = tail;
+    }
+
+    public Exporter getExporter() {
+        return exporter;
+    }
+
+    public void setExporter(Exporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Head sampling: the probability adapts so that about target-traces-per-second new traces are
+     * sampled, whatever the request rate.
+     */
+    public static class Sampling {
+        private double targetTracesPerSecond = 10;
+        private double minimumProbability = 0.0001;
+
+        public double getTargetTracesPerSecond() {
+            return targetTracesPerSecond;
+        }
+
+        public void setTargetTracesPerSecond(double targetTracesPerSecond) {
+            this.targetTracesPerSecond = targetTracesPerSecond;
+        }
+
+        public double getMinimumProbability() {
+            return minimumProbability;
+        }
+
+        public void setMinimumProbability(double minimumProbability) {
+            this.minimumProbability = minimumProbability;
+        }
+    }
+
+    /**
+     * Tail sampling: traces not head-sampled are recorded locally and exported only when slow or failed.
+     */
+    public static class Tail {
+        private boolean enabled = true;
+        private Duration slowThreshold = Duration.ofSeconds(1);
+        private int maxTraces = 10_000;          // traces held at once; beyond that new traces are not recorded
+        private int maxSpansPerTrace = 200;
+        private Duration traceTimeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        public int getMaxTraces() {
+            return maxTraces;
+        }
+
+        public void setMaxTraces(int maxTraces) {
+            this.maxTraces = maxTraces;
+        }
+
+        public int getMaxSpansPerTrace() {
+            return maxSpansPerTrace;
+        }
+
+        public void setMaxSpansPerTrace(int maxSpansPerTrace) {
+            this.maxSpansPerTrace = maxSpansPerTrace;
+        }
+
+        public Duration getTraceTimeout() {
+            return traceTimeout;
+        }
+
+        public void setTraceTimeout(Duration traceTimeout) {
+            this.traceTimeout = traceTimeout;
+        }
+    }
+
+    /**
+     * Local exporters, in addition to OTLP (management.otlp.tracing.endpoint).
+     */
+    public static class Exporter {
+        private String file;                     // JSON lines; unset disables
+        private int memoryCapacity;              // spans kept by InMemorySpanExporter; 0 disables
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public int getMemoryCapacity() {
+            return memoryCapacity;
+        }
+
+        public void setMemoryCapacity(int memoryCapacity) {
+            this.memoryCapacity = memoryCapacity;
+        }
+    }
+}
@@ -1,17 +1,51 @@
 package com.nexus.api_gateway.config;
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration class to provide a WebClient bean for reactive service communication.
+ * The client used for the login call has its own bounded connection pool and timeouts
+ * (see UserServiceClientProperties), separate from the gateway's routing client.
  */
 @Configuration
 public class WebClientConfig {
 
     @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
+    public WebClient webClient(WebClient.Builder builder, UserServiceClientProperties properties) {
+        ConnectionProvider provider = ConnectionProvider.builder("user-service")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictInterval())
+                .metrics(properties.isMetrics()) // reactor.netty.connection.provider.* gauges
+                .build();
+
+        long readTimeoutMillis = properties.getReadTimeout().toMillis();
+        HttpClient httpClient = HttpClient.create(provider)
+                .protocol(properties.getProtocol())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(properties.getResponseTimeout())
+                // Added per request (and removed with it) so idle pooled connections are not timed out
+                .doOnRequest((request, connection) -> connection.addHandlerLast("readTimeout",
+                        new ReadTimeoutHandler(readTimeoutMillis, TimeUnit.MILLISECONDS)))
+                // Single fixed uri tag: avoids one meter per distinct URI
+                .metrics(properties.isMetrics(), uri -> "/auth/user/validate");
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -2,9 +2,14 @@ package com.nexus.api_gateway.controller;
 
 import com.nexus.api_gateway.dto.LoginRequest;
 import com.nexus.api_gateway.dto.LoginResponse;
+import com.nexus.api_gateway.revocation.RevocationStore;
+import com.nexus.api_gateway.security.JwtPrincipal;
 import com.nexus.api_gateway.security.JwtUtil;
+import com.nexus.api_gateway.security.VerifiedTokenCache;
 import com.nexus.api_gateway.service.UserServiceClient;
 import com.nexus.api_gateway.util.UserValidationUtil;
+import io.jsonwebtoken.JwtException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +21,7 @@ import java.util.Map;
 /**
  * AuthController handles authentication-related endpoints.
  * Uses UserServiceClient for user validation.
+ * Logout revokes the presented token until it expires (see RevocationStore).
  */
 @RestController
 @RequestMapping("/nexus/auth")
@@ -24,13 +30,18 @@ public class AuthController {
 
     private final JwtUtil jwtUtil;
     private final UserServiceClient userServiceClient;
+    private final VerifiedTokenCache tokenCache;
+    private final RevocationStore revocations;
 
     /**
      * Constructor for dependency injection.
      */
-    public AuthController(JwtUtil jwtUtil, UserServiceClient userServiceClient) {
+    public AuthController(JwtUtil jwtUtil, UserServiceClient userServiceClient,
+                          VerifiedTokenCache tokenCache, RevocationStore revocations) {
         this.jwtUtil = jwtUtil;
         this.userServiceClient = userServiceClient;
+        this.tokenCache = tokenCache;
+        this.revocations = revocations;
     }
 
     /**
@@ -69,7 +80,36 @@ public class AuthController {
             return Mono.just(ResponseEntity.ok(loginResponse));
         });
 
-        return responseMono.onErrorResume(error -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body("Authentication failed: " + error.getMessage())));
+        return responseMono
+                // Pool exhausted or timed out: fail fast and let the client retry later
+                .onErrorResume(UserServiceClient::isUnavailable, error -> Mono.just(ResponseEntity
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body("User service is busy, please retry later")))
+                .onErrorResume(error -> Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body("Authentication failed: " + error.getMessage())));
+    }
+
+    /**
+     * Revokes the bearer token of the request, on every node sharing revocations.
+     */
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<?>> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid Authorization header"));
+        }
+        String token = authHeader.substring(7);
+        JwtPrincipal principal;
+        try {
+            principal = tokenCache.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token"));
+        }
+        if (principal.getTokenId() == null || principal.getExpiration() == null) {
+            // Issued before tokens carried a 'jti'; it stays valid until it expires
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Token cannot be revoked"));
+        }
+        tokenCache.invalidate(token);
+        return revocations.revoke(principal.getTokenId(), principal.getExpiration())
+                .thenReturn(ResponseEntity.ok(Map.of("message", "Logout successful")));
     }
 }
@@ -1,52 +1,100 @@
 package com.nexus.api_gateway.controller;
 
+import com.nexus.api_gateway.cache.StaleResponseSource;
+import com.nexus.api_gateway.config.ResilienceProfileManager;
+import com.nexus.api_gateway.error.BodyTooLargeException;
+import com.nexus.api_gateway.error.ErrorReason;
+import com.nexus.api_gateway.error.ErrorResponseWriter;
+import com.nexus.api_gateway.error.ErrorResponseWriter.PreparedError;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
 
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * Targets of the routes' CircuitBreaker fallbackUri (forward:/fallback/...), for every HTTP method.
+ *
+ * The 503 problem+json bodies are prepared once per service by ErrorResponseWriter, so nothing is
+ * encoded or copied while a backend is down; they are counted in gateway.rejections with
+ * reason=service_unavailable. Retry-After is the circuit breaker's wait duration in the open state
+ * (see ResilienceProfileManager). For GET and HEAD a stale cached response is served instead, when
+ * a StaleResponseSource has one. A request body rejected mid-stream by BodySizeLimitFilter is
+ * answered 413 (request_too_large), not 503.
+ */
 @RestController
 @RequestMapping("/fallback")
 public class FallbackController {
 
-    // ============================
-    // USER SERVICE FALLBACK
-    // ============================
-    @GetMapping("/users")
-    public ResponseEntity<String> userServiceFallback() {
-        return ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("User Service is currently unavailable. Our developers are working to fix the issue.");
+    private final Map<String, Fallback> fallbacks;
+    private final ResilienceProfileManager profiles;
+    private final ErrorResponseWriter errors;
+    private final StaleResponseSource staleResponses; // null when no response cache is configured
+
+    public FallbackController(ResilienceProfileManager profiles,
+                              ErrorResponseWriter errors,
+                              ObjectProvider<StaleResponseSource> staleResponses,
+                              @Value("${nexus.fallback.serve-stale:true}") boolean serveStale) {
+        this.profiles = profiles;
+        this.errors = errors;
+        this.staleResponses = serveStale ? staleResponses.getIfAvailable() : null;
+        this.fallbacks = Map.of(
+                "users", new Fallback("userServiceCB", prepare("user-service", "User Service")),
+                "orders", new Fallback("orderServiceCB", prepare("order-service", "Order Service")),
+                "products", new Fallback("productServiceCB", prepare("product-service", "Product Service")),
+                "funding-requests", new Fallback("investmentServiceCB", prepare("investment-service", "Investment Service")));
+    }
+
+    private PreparedError prepare(String routeId, String serviceName) {
+        return errors.prepare(ErrorReason.SERVICE_UNAVAILABLE, routeId,
+                serviceName + " is currently unavailable. Our developers are working to fix the issue.");
+    }
+
+    @RequestMapping("/{service}")
+    public Mono<Void> fallback(@PathVariable String service, ServerWebExchange exchange) {
+        Fallback fallback = fallbacks.get(service);
+        if (fallback == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_FOUND);
+            return exchange.getResponse().setComplete();
+        }
+        if (exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) instanceof BodyTooLargeException) {
+            // The request body, not the backend (see BodySizeLimitFilter)
+            return errors.write(exchange, ErrorReason.REQUEST_TOO_LARGE);
+        }
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (staleResponses != null && (method == HttpMethod.GET || method == HttpMethod.HEAD)) {
+            return staleResponses.serveStale(exchange)
+                    .flatMap(served -> served ? Mono.<Void>empty() : writeProblem(exchange, fallback));
+        }
+        return writeProblem(exchange, fallback);
     }
 
-    // ============================
-    // ORDER SERVICE FALLBACK
-    // ============================
-    @GetMapping("/orders")
-    public ResponseEntity<String> orderServiceFallback() {
-        return ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("Order Service is currently unavailable. Our developers are working to fix the issue.");
+    private Mono<Void> writeProblem(ServerWebExchange exchange, Fallback fallback) {
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfterSeconds(fallback.circuitBreaker));
+        return fallback.unavailable.write(exchange);
     }
 
-    // ============================
-    // INVENTORY SERVICE FALLBACK
-    // ============================
-    @GetMapping("/products")
-    public ResponseEntity<String> inventoryServiceFallback() {
-        return ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("Product Service is currently unavailable. (Our developers are working to fix the issue.");
+    private String retryAfterSeconds(String circuitBreaker) {
+        long millis = profiles.profile(circuitBreaker).getWaitDurationInOpenState().toMillis();
+        return Long.toString(Math.max(1, (millis + 999) / 1000));
     }
 
-    // ============================
-    // PAYMENT SERVICE FALLBACK
-    // ============================
-    @GetMapping("/funding-requests")
-    public ResponseEntity<String> paymentServiceFallback() {
-        return ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body("Investment Service is currently unavailable. Our developers are working to fix the issue.");
+    private static final class Fallback {
+        final String circuitBreaker;
+        final PreparedError unavailable;
+
+        Fallback(String circuitBreaker, PreparedError unavailable) {
+            this.circuitBreaker = circuitBreaker;
+            this.unavailable = unavailable;
+        }
     }
 }
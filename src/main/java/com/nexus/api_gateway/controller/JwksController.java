@@ -0,0 +1,80 @@
+package com.nexus.api_gateway.controller;
+
+import com.nexus.api_gateway.security.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigInteger;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the gateway's public verification keys as a JWK Set (RFC 7517),
+ * so downstream services can verify tokens locally instead of trusting forwarded headers.
+ * The document is built once at startup; with HS* signing the key set is empty.
+ */
+@RestController
+public class JwksController {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final Map<String, Object> jwks;
+
+    public JwksController(JwtKeyRing keyRing) {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        keyRing.getVerificationKeys().forEach((kid, key) -> keys.add(toJwk(kid, key, keyRing.getAlgorithm().getValue())));
+        this.jwks = Map.of("keys", List.copyOf(keys));
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(jwks);
+    }
+
+    private static Map<String, Object> toJwk(String kid, PublicKey key, String alg) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (key instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+        } else if (key instanceof ECPublicKey ec) {
+            int fieldSize = ec.getParams().getCurve().getField().getFieldSize();
+            int length = (fieldSize + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("crv", fieldSize == 521 ? "P-521" : "P-" + fieldSize);
+            jwk.put("x", base64Url(ec.getW().getAffineX(), length));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), length));
+        } else {
+            throw new IllegalStateException("Unsupported public key type: " + key.getAlgorithm());
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", alg);
+        jwk.put("kid", kid);
+        return jwk;
+    }
+
+    // Unsigned big-endian, optionally left-padded to a fixed length (EC coordinates)
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,19 @@
+package com.nexus.api_gateway.error;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * A request body that crossed its route's limit while streaming (see BodySizeLimitFilter).
+ *
+ * The client's fault, not the backend's: the circuit breakers ignore it and the fallback answers
+ * it with 413 instead of 503.
+ */
+public class BodyTooLargeException extends ResponseStatusException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BodyTooLargeException(long maxBytes) {
+        super(HttpStatus.PAYLOAD_TOO_LARGE, "Request body exceeds " + maxBytes + " bytes");
+    }
+}
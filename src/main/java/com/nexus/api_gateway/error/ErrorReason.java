@@ -0,0 +1,47 @@
+package com.nexus.api_gateway.error;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Why the gateway answered a request itself instead of forwarding it: the status, the 'code' of
+ * the JSON body, the default 'detail', and the 'reason' tag of gateway.rejections.
+ */
+public enum ErrorReason {
+
+    MISSING_TOKEN(HttpStatus.UNAUTHORIZED, "missing_token", "Missing Authorization header"),
+    MALFORMED_TOKEN(HttpStatus.UNAUTHORIZED, "malformed_token", "Invalid Authorization format"),
+    INVALID_TOKEN(HttpStatus.UNAUTHORIZED, "invalid_token", "JWT validation failed"),
+    TOKEN_ERROR(HttpStatus.UNAUTHORIZED, "token_error", "Error processing JWT"),
+    REVOKED_TOKEN(HttpStatus.UNAUTHORIZED, "revoked_token", "Token has been revoked"),
+    UNAUTHENTICATED(HttpStatus.UNAUTHORIZED, "unauthenticated", "Missing or invalid Authorization header"),
+    MISSING_USER_ID(HttpStatus.UNAUTHORIZED, "missing_user_id", "Missing authenticated user id header"),
+    FORBIDDEN(HttpStatus.FORBIDDEN, "forbidden", "You are not allowed to perform this action"),
+    RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS, "rate_limited", "Too many requests"),
+    CONCURRENCY_LIMITED(HttpStatus.SERVICE_UNAVAILABLE, "concurrency_limited", "Service is overloaded, please retry later"),
+    BULKHEAD_FULL(HttpStatus.SERVICE_UNAVAILABLE, "bulkhead_full", "Service is overloaded, please retry later"),
+    SERVICE_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "service_unavailable", "Service is currently unavailable, please retry later"),
+    REQUEST_TOO_LARGE(HttpStatus.PAYLOAD_TOO_LARGE, "request_too_large", "Request body is too large"),
+    RESPONSE_TOO_LARGE(HttpStatus.BAD_GATEWAY, "response_too_large", "Upstream response is too large");
+
+    private final HttpStatus status;
+    private final String code;
+    private final String detail;
+
+    ErrorReason(HttpStatus status, String code, String detail) {
+        this.status = status;
+        this.code = code;
+        this.detail = detail;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+}
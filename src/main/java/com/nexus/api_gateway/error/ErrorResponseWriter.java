@@ -0,0 +1,137 @@
+package com.nexus.api_gateway.error;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * The gateway's own error responses (401, 403, 413, 429, 502, 503), shared by all filters.
+ *
+ * Each body is an application/problem+json document encoded once, when a filter is applied, into a
+ * read-only direct buffer; a rejection wraps a duplicate of it, so nothing is encoded or copied per
+ * request. FallbackController answers open circuits through it too. Bodies only ever hold fixed or
+ * configured text, never exception messages.
+ *
+ * Every rejection is counted in gateway.rejections (tags: reason, route).
+ */
+@Component
+public class ErrorResponseWriter {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final MeterRegistry meterRegistry;
+    // For filters without a route id of their own, e.g. default filters: reason -> route id -> error
+    private final Map<ErrorReason, Map<String, PreparedError>> byRoute = new EnumMap<>(ErrorReason.class);
+
+    public ErrorResponseWriter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (ErrorReason reason : ErrorReason.values()) {
+            byRoute.put(reason, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Encodes the reason's response for a route, with the reason's default detail. Call it when the
+     * filter is applied, not per request.
+     */
+    public PreparedError prepare(ErrorReason reason, String routeId) {
+        return prepare(reason, routeId, reason.getDetail());
+    }
+
+    /**
+     * Encodes the reason's response for a route with a specific detail (e.g. a rule's message).
+     */
+    public PreparedError prepare(ErrorReason reason, String routeId, String detail) {
+        Counter counter = Counter.builder("gateway.rejections")
+                .tag("reason", reason.getCode()).tag("route", routeId)
+                .register(meterRegistry);
+        return new PreparedError(reason, encode(reason, detail == null ? reason.getDetail() : detail), counter);
+    }
+
+    /**
+     * Writes the reason's response, for the route the exchange was matched to ("default" if none).
+     */
+    public Mono<Void> write(ServerWebExchange exchange, ErrorReason reason) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? "default" : route.getId();
+        Map<String, PreparedError> errors = byRoute.get(reason);
+        PreparedError error = errors.get(routeId);
+        if (error == null) {
+            error = errors.computeIfAbsent(routeId, id -> prepare(reason, id));
+        }
+        return error.write(exchange);
+    }
+
+    private static ByteBuffer encode(ErrorReason reason, String detail) {
+        Map<String, Object> problem = new LinkedHashMap<>();
+        problem.put("type", "about:blank");
+        problem.put("title", reason.getStatus().getReasonPhrase());
+        problem.put("status", reason.getStatus().value());
+        problem.put("code", reason.getCode());
+        problem.put("detail", detail);
+        try {
+            byte[] bytes = JSON.writeValueAsBytes(problem);
+            return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().asReadOnlyBuffer();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode error response " + reason, e);
+        }
+    }
+
+    /**
+     * One encoded error response and its counter; immutable and shared by all requests.
+     */
+    public static final class PreparedError {
+
+        private final ErrorReason reason;
+        private final ByteBuffer body; // read-only, shared; always hand out duplicate()
+        private final String contentLength;
+        private final Counter rejections;
+
+        PreparedError(ErrorReason reason, ByteBuffer body, Counter rejections) {
+            this.reason = reason;
+            this.body = body;
+            this.contentLength = Integer.toString(body.remaining());
+            this.rejections = rejections;
+        }
+
+        public ErrorReason getReason() {
+            return reason;
+        }
+
+        public Mono<Void> write(ServerWebExchange exchange) {
+            return write(exchange, exchange.getResponse());
+        }
+
+        /**
+         * Writes to a given response, e.g. the delegate of a response decorator.
+         */
+        public Mono<Void> write(ServerWebExchange exchange, ServerHttpResponse response) {
+            rejections.increment();
+            response.setStatusCode(reason.getStatus());
+            HttpHeaders headers = response.getHeaders();
+            headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+            headers.set(HttpHeaders.CONTENT_LENGTH, contentLength);
+            if (exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+                return response.setComplete();
+            }
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body.duplicate())));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.error.ErrorReason;
+import com.nexus.api_gateway.error.ErrorResponseWriter;
+import com.nexus.api_gateway.error.ErrorResponseWriter.PreparedError;
+import com.nexus.api_gateway.ratelimit.AimdConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AdaptiveConcurrencyLimitFilter
+ *
+ * Limits the number of in-flight requests to the route's backend with an AIMD limit driven by
+ * observed latency and errors (see AimdConcurrencyLimiter). Requests over the limit are shed
+ * immediately with 503 + Retry-After, which keeps tail latency bounded when a backend slows down.
+ *
+ * Place it before the CircuitBreaker filter so fallback responses (503) count as drops.
+ * Metrics: gateway.concurrency.limit, gateway.concurrency.inflight, gateway.concurrency.rejected (tag: route).
+ */
+@Component
+public class AdaptiveConcurrencyLimitFilter extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitFilter.Config> {
+
+    private final MeterRegistry meterRegistry;
+    private final ErrorResponseWriter errors;
+    // One limiter per route, kept across route refreshes so the learned limit is not lost
+    private final Map<String, RouteLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimitFilter(MeterRegistry meterRegistry, ErrorResponseWriter errors) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.errors = errors;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        RouteLimiter routeLimiter = limiters.computeIfAbsent(routeId, RouteLimiter::new);
+        routeLimiter.update(Settings.of(config));
+        Counter rejected = Counter.builder("gateway.concurrency.rejected").tag("route", routeId).register(meterRegistry);
+        PreparedError overloaded = errors.prepare(ErrorReason.CONCURRENCY_LIMITED, routeId);
+
+        return (exchange, chain) -> {
+            // Released on the limiter it was acquired from, even if a refresh replaced it meanwhile
+            AimdConcurrencyLimiter limiter = routeLimiter.limiter;
+            if (!limiter.tryAcquire()) {
+                rejected.increment();
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return overloaded.write(exchange);
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    limiter.onCancel();
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean dropped = signal == SignalType.ON_ERROR
+                        || (status != null && (status.is5xxServerError() || status.value() == 429));
+                limiter.onSample(System.nanoTime() - start, dropped);
+            });
+        };
+    }
+
+    private record Settings(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        static Settings of(Config config) {
+            return new Settings(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit(),
+                    config.getBackoffRatio(), config.getLatencyThreshold().toNanos());
+        }
+    }
+
+    // The route's limiter and its gauges. The gauges are registered once and read whichever
+    // limiter is current, so a refresh with new settings swaps the limiter under the same meters.
+    private final class RouteLimiter {
+        private Settings settings;
+        private volatile AimdConcurrencyLimiter limiter;
+
+        RouteLimiter(String routeId) {
+            Gauge.builder("gateway.concurrency.limit", this, route -> route.limiter.getLimit())
+                    .tag("route", routeId).register(meterRegistry);
+            Gauge.builder("gateway.concurrency.inflight", this, route -> route.limiter.getInFlight())
+                    .tag("route", routeId).register(meterRegistry);
+        }
+
+        // Same settings keep the learned limit; changed settings start over from the new initial limit
+        synchronized void update(Settings settings) {
+            if (settings.equals(this.settings)) return;
+            this.limiter = new AimdConcurrencyLimiter(settings.initialLimit(), settings.minLimit(), settings.maxLimit(),
+                    settings.backoffRatio(), settings.latencyThresholdNanos());
+            this.settings = settings;
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private Duration latencyThreshold = Duration.ofMillis(500); // slower responses count as congestion
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.error.BodyTooLargeException;
+import com.nexus.api_gateway.error.ErrorReason;
+import com.nexus.api_gateway.error.ErrorResponseWriter;
+import com.nexus.api_gateway.error.ErrorResponseWriter.PreparedError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BodySizeLimitFilter
+ *
+ * Streams request and response bodies through with per-route size limits, checked chunk by chunk
+ * as the bytes arrive; nothing is aggregated.
+ *  - A request whose Content-Length exceeds max-request-size is answered 413 before its body is
+ *    read (a client sending Expect: 100-continue never sends it). A chunked body fails with 413 as
+ *    soon as it crosses the limit, and the upstream request is aborted.
+ *  - A response over max-response-size is answered 502 when its Content-Length says so, otherwise
+ *    the connection is aborted when the limit is crossed (the status is already sent).
+ *  - Chunks are requested from the inbound connection 'prefetch' at a time. The inbound channel
+ *    stops reading while the upstream connection cannot take more, so a slow reader on either side
+ *    slows the other down instead of filling memory.
+ *
+ * Place it first on the route, so later filters see the limited body; the response limit is applied
+ * to what NettyWriteResponseFilter writes through ResponseDecorators.
+ * Metrics (tags: route, direction=request|response): gateway.body.bytes, gateway.body.rejected,
+ * gateway.body.streams (bodies in transit) and gateway.body.inflight.bytes (bytes handed on but not
+ * yet asked past by the consumer, i.e. an estimate of the pooled direct memory the route holds).
+ */
+@Component
+public class BodySizeLimitFilter extends AbstractGatewayFilterFactory<BodySizeLimitFilter.Config> {
+
+    private final MeterRegistry meterRegistry;
+    private final ErrorResponseWriter errors;
+    // One set of meters per route and direction, kept across route refreshes so the gauges keep
+    // reading the counts the live filter updates
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public BodySizeLimitFilter(MeterRegistry meterRegistry, ErrorResponseWriter errors) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.errors = errors;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        long maxRequest = config.getMaxRequestSize() == null ? -1 : config.getMaxRequestSize().toBytes();
+        long maxResponse = config.getMaxResponseSize() == null ? -1 : config.getMaxResponseSize().toBytes();
+        Meters requestMeters = meters.computeIfAbsent(routeId + "|request", key -> new Meters(routeId, "request"));
+        Meters responseMeters = meters.computeIfAbsent(routeId + "|response", key -> new Meters(routeId, "response"));
+        int prefetch = config.getPrefetch();
+        PreparedError requestTooLarge = errors.prepare(ErrorReason.REQUEST_TOO_LARGE, routeId,
+                "Request body exceeds " + maxRequest + " bytes");
+        PreparedError responseTooLarge = errors.prepare(ErrorReason.RESPONSE_TOO_LARGE, routeId,
+                "Upstream response exceeds " + maxResponse + " bytes");
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            long contentLength = request.getHeaders().getContentLength();
+            if (maxRequest >= 0 && contentLength > maxRequest) {
+                requestMeters.rejected.increment();
+                return requestTooLarge.write(exchange);
+            }
+            ServerHttpRequest limitedRequest = new ServerHttpRequestDecorator(request) {
+                @Override
+                public Flux<DataBuffer> getBody() {
+                    return limit(super.getBody(), maxRequest, prefetch, requestMeters, true);
+                }
+            };
+            ServerWebExchange limited = ResponseDecorators.decorate(exchange, response -> new ServerHttpResponseDecorator(response) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    if (maxResponse >= 0 && getHeaders().getContentLength() > maxResponse) {
+                        responseMeters.rejected.increment();
+                        Flux.from(body).subscribe(new Discarding());
+                        getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                        getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+                        getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+                        return responseTooLarge.write(exchange, getDelegate());
+                    }
+                    return super.writeWith(limit(Flux.from(body), maxResponse, prefetch, responseMeters, false));
+                }
+            });
+            return chain.filter(limited.mutate().request(limitedRequest).build());
+        };
+    }
+
+    private static Flux<DataBuffer> limit(Flux<? extends DataBuffer> body, long max, int prefetch, Meters meters,
+                                          boolean request) {
+        return Flux.defer(() -> {
+            AtomicLong received = new AtomicLong();
+            AtomicLong handedOn = new AtomicLong(); // since the consumer last asked for more
+            meters.streams.incrementAndGet();
+            return body.limitRate(prefetch)
+                    .<DataBuffer>handle((buffer, sink) -> {
+                        int size = buffer.readableByteCount();
+                        if (max >= 0 && received.addAndGet(size) > max) {
+                            DataBufferUtils.release(buffer);
+                            meters.rejected.increment();
+                            sink.error(request
+                                    ? new BodyTooLargeException(max)
+                                    : new IllegalStateException("Upstream response exceeds " + max + " bytes"));
+                            return;
+                        }
+                        meters.bytes.increment(size);
+                        handedOn.addAndGet(size);
+                        meters.inflight.addAndGet(size);
+                        sink.next(buffer);
+                    })
+                    .doOnRequest(n -> meters.inflight.addAndGet(-handedOn.getAndSet(0)))
+                    .doFinally(signal -> {
+                        meters.inflight.addAndGet(-handedOn.getAndSet(0));
+                        meters.streams.decrementAndGet();
+                    });
+        });
+    }
+
+    private final class Meters {
+        final Counter bytes;
+        final Counter rejected;
+        final AtomicInteger streams = new AtomicInteger();
+        final AtomicLong inflight = new AtomicLong();
+
+        Meters(String routeId, String direction) {
+            bytes = Counter.builder("gateway.body.bytes").baseUnit("bytes")
+                    .tag("route", routeId).tag("direction", direction).register(meterRegistry);
+            rejected = Counter.builder("gateway.body.rejected")
+                    .tag("route", routeId).tag("direction", direction).register(meterRegistry);
+            Gauge.builder("gateway.body.streams", streams, AtomicInteger::get)
+                    .tag("route", routeId).tag("direction", direction).register(meterRegistry);
+            Gauge.builder("gateway.body.inflight.bytes", inflight, AtomicLong::get).baseUnit("bytes")
+                    .tag("route", routeId).tag("direction", direction).register(meterRegistry);
+        }
+    }
+
+    // Cancels an unwanted upstream body right away, which closes the upstream connection
+    private static final class Discarding extends BaseSubscriber<DataBuffer> {
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            cancel();
+        }
+
+        @Override
+        protected void hookOnNext(DataBuffer buffer) {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private DataSize maxRequestSize = DataSize.ofMegabytes(10);
+        private DataSize maxResponseSize;                 // unlimited when unset
+        private int prefetch = 32;                        // chunks requested from the inbound connection at once
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public DataSize getMaxRequestSize() {
+            return maxRequestSize;
+        }
+
+        public void setMaxRequestSize(DataSize maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+        }
+
+        public DataSize getMaxResponseSize() {
+            return maxResponseSize;
+        }
+
+        public void setMaxResponseSize(DataSize maxResponseSize) {
+            this.maxResponseSize = maxResponseSize;
+        }
+
+        public int getPrefetch() {
+            return prefetch;
+        }
+
+        public void setPrefetch(int prefetch) {
+            this.prefetch = prefetch;
+        }
+    }
+}
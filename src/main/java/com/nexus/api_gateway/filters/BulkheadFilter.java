@@ -0,0 +1,76 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.config.ResilienceProfileManager;
+import com.nexus.api_gateway.error.ErrorReason;
+import com.nexus.api_gateway.error.ErrorResponseWriter;
+import com.nexus.api_gateway.error.ErrorResponseWriter.PreparedError;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * BulkheadFilter
+ *
+ * Hard cap on concurrent calls to a backend, sized by the resilience profile of the same name
+ * (nexus.resilience.instances.<name>.max-concurrent-calls). Semaphore based and never waits:
+ * a call over the cap is answered 503 + Retry-After right away.
+ *
+ * AdaptiveConcurrencyLimitFilter tunes its limit below this ceiling; the bulkhead is the fixed
+ * upper bound that still holds while that limit is being learned.
+ */
+@Component
+public class BulkheadFilter extends AbstractGatewayFilterFactory<BulkheadFilter.Config> {
+
+    private final ResilienceProfileManager profiles;
+    private final ErrorResponseWriter errors;
+
+    public BulkheadFilter(ResilienceProfileManager profiles, ErrorResponseWriter errors) {
+        super(Config.class);
+        this.profiles = profiles;
+        this.errors = errors;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getName() == null) {
+            throw new IllegalArgumentException("BulkheadFilter requires a 'name'");
+        }
+        Bulkhead bulkhead = profiles.bulkhead(config.getName());
+        PreparedError overloaded = errors.prepare(ErrorReason.BULKHEAD_FULL,
+                config.getRouteId() == null ? "default" : config.getRouteId());
+        return (exchange, chain) -> chain.filter(exchange)
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorResume(BulkheadFullException.class, e -> {
+                    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                    return overloaded.write(exchange);
+                });
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private String name; // resilience profile / circuit breaker name
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
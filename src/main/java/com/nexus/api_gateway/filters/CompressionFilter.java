@@ -0,0 +1,224 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.compression.AcceptEncoding;
+import com.nexus.api_gateway.compression.CompressionCodec;
+import com.nexus.api_gateway.compression.StreamingCompressor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CompressionFilter
+ *
+ * Compresses backend responses on the fly, chunk by chunk, into buffers from the response's
+ * (pooled) buffer factory; the body is never held in full.
+ *  - Encoding: the best Accept-Encoding q-value among 'encodings' (server preference breaks ties).
+ *    br and zstd need their native libraries and are skipped where those are unavailable.
+ *  - Only for allowed content types and bodies of at least min-size (when the length is known).
+ *    Excluded content types win over allowed ones: by default text/event-stream, whose events
+ *    would otherwise sit in the encoder until enough output accumulates.
+ *  - Never re-encodes a body that already has a Content-Encoding, or one marked no-transform.
+ *
+ * Place it after ResponseCacheFilter and EtagFilter, so cached bodies and ETags are those of the
+ * compressed representation (the cache key already varies on Accept-Encoding).
+ * Metric: gateway.compression.bytes (tags: route, encoding, stage=in|out).
+ */
+@Component
+public class CompressionFilter extends AbstractGatewayFilterFactory<CompressionFilter.Config> {
+
+    private final Map<String, CompressionCodec> codecs = new LinkedHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public CompressionFilter(List<CompressionCodec> codecs, MeterRegistry meterRegistry) {
+        super(Config.class);
+        for (CompressionCodec codec : codecs) {
+            if (codec.isAvailable()) this.codecs.put(codec.encoding(), codec);
+        }
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        List<String> encodings = new ArrayList<>();
+        Map<String, Integer> levels = new HashMap<>();
+        Map<String, Counter[]> counters = new HashMap<>();
+        for (String encoding : config.getEncodings()) {
+            CompressionCodec codec = codecs.get(encoding);
+            if (codec == null) continue;
+            encodings.add(encoding);
+            levels.put(encoding, config.getLevels().getOrDefault(encoding, codec.defaultLevel()));
+            counters.put(encoding, new Counter[] {bytes(routeId, encoding, "in"), bytes(routeId, encoding, "out")});
+        }
+        List<MediaType> contentTypes = MediaType.parseMediaTypes(config.getContentTypes());
+        List<MediaType> excludedContentTypes = MediaType.parseMediaTypes(config.getExcludedContentTypes());
+        long minSize = config.getMinSize().toBytes();
+
+        return (exchange, chain) -> {
+            if (exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+                return chain.filter(exchange);
+            }
+            String encoding = AcceptEncoding.negotiate(
+                    exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT_ENCODING), encodings);
+            if (encoding == null) {
+                return chain.filter(exchange);
+            }
+            Counter[] bytes = counters.get(encoding);
+            return chain.filter(ResponseDecorators.decorate(exchange, response -> new CompressingResponse(response,
+                    codecs.get(encoding), levels.get(encoding), contentTypes, excludedContentTypes, minSize, bytes[0], bytes[1])));
+        };
+    }
+
+    private Counter bytes(String routeId, String encoding, String stage) {
+        return Counter.builder("gateway.compression.bytes").baseUnit("bytes")
+                .tag("route", routeId).tag("encoding", encoding).tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static final class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final CompressionCodec codec;
+        private final int level;
+        private final List<MediaType> contentTypes;
+        private final List<MediaType> excludedContentTypes;
+        private final long minSize;
+        private final Counter bytesIn;
+        private final Counter bytesOut;
+
+        CompressingResponse(ServerHttpResponse delegate, CompressionCodec codec, int level,
+                            List<MediaType> contentTypes, List<MediaType> excludedContentTypes, long minSize,
+                            Counter bytesIn, Counter bytesOut) {
+            super(delegate);
+            this.codec = codec;
+            this.level = level;
+            this.contentTypes = contentTypes;
+            this.excludedContentTypes = excludedContentTypes;
+            this.minSize = minSize;
+            this.bytesIn = bytesIn;
+            this.bytesOut = bytesOut;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (!shouldCompress(getStatusCode(), headers)) {
+                return super.writeWith(body);
+            }
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, codec.encoding());
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag); // same content, different bytes
+            }
+            StreamingCompressor compressor = new StreamingCompressor(codec, level, bufferFactory());
+            return super.writeWith(compressor.compress(body, bytesIn::increment, bytesOut::increment));
+        }
+
+        private boolean shouldCompress(HttpStatusCode status, HttpHeaders headers) {
+            if (status == null || status.value() < 200 || status.value() == 204 || status.value() == 304) return false;
+            String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (contentEncoding != null && !contentEncoding.equalsIgnoreCase("identity")) return false;
+            List<String> cacheControl = headers.get(HttpHeaders.CACHE_CONTROL);
+            if (cacheControl != null && cacheControl.stream().anyMatch(v -> v.contains("no-transform"))) return false;
+            long contentLength = headers.getContentLength();
+            if (contentLength >= 0 && contentLength < minSize) return false;
+            MediaType contentType;
+            try {
+                contentType = headers.getContentType();
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            if (contentType == null) return false;
+            for (MediaType excluded : excludedContentTypes) {
+                if (excluded.includes(contentType)) return false;
+            }
+            for (MediaType allowed : contentTypes) {
+                if (allowed.includes(contentType)) return true;
+            }
+            return false;
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private List<String> encodings = List.of("br", "zstd", "gzip");   // server preference
+        private Map<String, Integer> levels = new HashMap<>();            // per encoding; codec default otherwise
+        private DataSize minSize = DataSize.ofKilobytes(1);
+        private List<String> contentTypes = List.of(
+                "application/json", "application/*+json", "application/javascript",
+                "application/xml", "text/*", "image/svg+xml");
+        private List<String> excludedContentTypes = List.of("text/event-stream");  // streamed, never compressed
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public List<String> getEncodings() {
+            return encodings;
+        }
+
+        public void setEncodings(List<String> encodings) {
+            this.encodings = encodings;
+        }
+
+        public Map<String, Integer> getLevels() {
+            return levels;
+        }
+
+        public void setLevels(Map<String, Integer> levels) {
+            this.levels = levels;
+        }
+
+        public DataSize getMinSize() {
+            return minSize;
+        }
+
+        public void setMinSize(DataSize minSize) {
+            this.minSize = minSize;
+        }
+
+        public List<String> getContentTypes() {
+            return contentTypes;
+        }
+
+        public void setContentTypes(List<String> contentTypes) {
+            this.contentTypes = contentTypes;
+        }
+
+        public List<String> getExcludedContentTypes() {
+            return excludedContentTypes;
+        }
+
+        public void setExcludedContentTypes(List<String> excludedContentTypes) {
+            this.excludedContentTypes = excludedContentTypes;
+        }
+    }
+}
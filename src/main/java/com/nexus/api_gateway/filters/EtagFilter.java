@@ -0,0 +1,279 @@
+package com.nexus.api_gateway.filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nexus.api_gateway.cache.CacheKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * EtagFilter
+ *
+ * Opt-in conditional GET support for backends that send no ETag.
+ *  - The body is hashed (SHA-256) chunk by chunk as it streams in; the chunks are held, not joined,
+ *    until the body completes, then sent with a strong ETag. Bodies over max-buffer-size are
+ *    streamed on without an ETag.
+ *  - The ETag is remembered per request key (see CacheKey) for 'ttl'. A request whose
+ *    If-None-Match matches a remembered ETag gets 304 without reaching the backend.
+ *  - A request that does reach the backend and matches the computed ETag also gets 304.
+ *  - A successful POST/PUT/PATCH/DELETE on the route forgets the route's ETags.
+ *
+ * A backend ETag is passed through and remembered as is. Place it after ResponseCacheFilter so the
+ * cached copy carries the ETag. Metric: gateway.etag.requests (tags: route, result).
+ */
+@Component
+public class EtagFilter extends AbstractGatewayFilterFactory<EtagFilter.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    public EtagFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        Cache<String, String> fingerprints = Caffeine.newBuilder()
+                .expireAfterWrite(config.getTtl())
+                .maximumSize(config.getMaximumEntries())
+                .build();
+        Counter fromIndex = counter(routeId, "not_modified_index");
+        Counter fromBackend = counter(routeId, "not_modified");
+        Counter full = counter(routeId, "full");
+
+        return (exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (method != HttpMethod.GET) {
+                if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS) {
+                    return chain.filter(exchange);
+                }
+                // Unsafe method: whatever it changed, the route's fingerprints may now be wrong
+                return chain.filter(exchange).doOnSuccess(done -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status == null || status.is2xxSuccessful()) fingerprints.invalidateAll();
+                });
+            }
+            String key = CacheKey.of(routeId, exchange, config.getVaryHeaders(), config.isVaryOnRoles());
+            List<String> ifNoneMatch = ifNoneMatch(exchange.getRequest().getHeaders());
+            String known = fingerprints.getIfPresent(key);
+            if (known != null && ifNoneMatch.contains(known)) {
+                fromIndex.increment();
+                return notModified(exchange.getResponse(), known);
+            }
+            return chain.filter(ResponseDecorators.decorate(exchange, response -> new EtagResponse(response, key,
+                    ifNoneMatch, fingerprints, (int) config.getMaxBufferSize().toBytes(), fromBackend, full)));
+        };
+    }
+
+    private Counter counter(String routeId, String result) {
+        return Counter.builder("gateway.etag.requests").tag("route", routeId).tag("result", result).register(meterRegistry);
+    }
+
+    private static List<String> ifNoneMatch(HttpHeaders headers) {
+        if (!headers.containsKey(HttpHeaders.IF_NONE_MATCH)) return List.of();
+        try {
+            return headers.getIfNoneMatch();
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private static Mono<Void> notModified(ServerHttpResponse response, String etag) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().setETag(etag);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        return response.setComplete();
+    }
+
+    private static final class EtagResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final List<String> ifNoneMatch;
+        private final Cache<String, String> fingerprints;
+        private final int maxBufferSize;
+        private final Counter fromBackend;
+        private final Counter full;
+
+        EtagResponse(ServerHttpResponse delegate, String key, List<String> ifNoneMatch, Cache<String, String> fingerprints,
+                     int maxBufferSize, Counter fromBackend, Counter full) {
+            super(delegate);
+            this.key = key;
+            this.ifNoneMatch = ifNoneMatch;
+            this.fingerprints = fingerprints;
+            this.maxBufferSize = maxBufferSize;
+            this.fromBackend = fromBackend;
+            this.full = full;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || status.value() != 200) {
+                return super.writeWith(body);
+            }
+            String upstreamEtag = getHeaders().getETag();
+            if (upstreamEtag != null) {
+                fingerprints.put(key, upstreamEtag);
+                return super.writeWith(body);
+            }
+            long contentLength = getHeaders().getContentLength();
+            if (contentLength > maxBufferSize) {
+                full.increment();
+                return super.writeWith(body);
+            }
+
+            BodyHash hash = new BodyHash(maxBufferSize);
+            return Flux.from(body)
+                    .<DataBuffer>map(buffer -> buffer)
+                    .bufferUntil(hash::add)
+                    .switchOnFirst((first, chunks) -> {
+                        if (first.isOnError()) {
+                            return Mono.<Void>error(first.getThrowable());
+                        }
+                        if (hash.overflowed) {
+                            // Too large to hold: send what we have and stream the rest, without an ETag
+                            full.increment();
+                            return super.writeWith(chunks.concatMapIterable(list -> list));
+                        }
+                        List<DataBuffer> whole = first.hasValue() ? first.get() : List.of();
+                        String etag = hash.etag();
+                        fingerprints.put(key, etag);
+                        if (ifNoneMatch.contains(etag)) {
+                            whole.forEach(DataBufferUtils::release);
+                            fromBackend.increment();
+                            return notModified(getDelegate(), etag);
+                        }
+                        full.increment();
+                        getHeaders().setETag(etag);
+                        return super.writeWith(Flux.fromIterable(whole));
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then();
+        }
+    }
+
+    // Incremental SHA-256 over the body; add() returns true once the body no longer fits the buffer limit
+    private static final class BodyHash {
+        private final MessageDigest digest = sha256();
+        private final int limit;
+        private long size;
+        private boolean overflowed;
+
+        BodyHash(int limit) {
+            this.limit = limit;
+        }
+
+        boolean add(DataBuffer buffer) {
+            if (overflowed) return true;
+            size += buffer.readableByteCount();
+            if (size > limit) {
+                overflowed = true;
+                return true;
+            }
+            try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+                while (it.hasNext()) {
+                    ByteBuffer chunk = it.next();
+                    digest.update(chunk);
+                }
+            }
+            return false;
+        }
+
+        String etag() {
+            byte[] hash = digest.digest();
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)) + '"';
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private List<String> varyHeaders = List.of();
+        private boolean varyOnRoles = true;
+        private Duration ttl = Duration.ofSeconds(60);           // how long a 304 may be answered without the backend
+        private long maximumEntries = 10_000;
+        private DataSize maxBufferSize = DataSize.ofMegabytes(1);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public List<String> getVaryHeaders() {
+            return varyHeaders;
+        }
+
+        public void setVaryHeaders(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+        }
+
+        public boolean isVaryOnRoles() {
+            return varyOnRoles;
+        }
+
+        public void setVaryOnRoles(boolean varyOnRoles) {
+            this.varyOnRoles = varyOnRoles;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaximumEntries() {
+            return maximumEntries;
+        }
+
+        public void setMaximumEntries(long maximumEntries) {
+            this.maximumEntries = maximumEntries;
+        }
+
+        public DataSize getMaxBufferSize() {
+            return maxBufferSize;
+        }
+
+        public void setMaxBufferSize(DataSize maxBufferSize) {
+            this.maxBufferSize = maxBufferSize;
+        }
+    }
+}
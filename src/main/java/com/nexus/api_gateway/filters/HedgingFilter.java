@@ -0,0 +1,366 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.loadbalancer.LoadBalancedCalls;
+import com.nexus.api_gateway.retry.RetryBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * HedgingFilter
+ *
+ * Opt-in hedged reads: a GET or HEAD is sent to the backend and, if no response has arrived after
+ * the hedge delay, sent again (for an lb:// route usually to another instance); the first response
+ * wins and the other attempts are cancelled. Any other method passes through untouched, so
+ * non-idempotent calls (e.g. POST /api/v1/orders, /funding-requests/{id}/investment) are never
+ * hedged or retried.
+ *  - Hedge delay: the route's observed 'percentile' latency (to response headers) of the last minute,
+ *    clamped to [min-delay, max-delay]; 'delay' until enough responses were seen, or always when
+ *    'percentile' is 0.
+ *  - An attempt failing with a connection error or a 5xx is retried up to 'retries' times, with
+ *    exponential backoff and jitter. A 5xx only wins when every attempt failed.
+ *  - Hedges and retries are extra attempts drawn from a RetryBudget: at most budget-percent of the
+ *    route's requests, plus min-retries-per-second.
+ *
+ * The filter sends the request itself (with the gateway's HttpClient and header filters) instead
+ * of continuing the chain, so it must be the last filter of the route, after CircuitBreaker: the
+ * circuit breaker and bulkhead then see one call however many attempts it takes.
+ * Metrics: gateway.hedging.attempts (tags: route, kind=hedge|retry), gateway.hedging.wins
+ * (tags: route, winner=primary|hedge), gateway.hedging.budget.exhausted (tag: route) and
+ * gateway.hedging.primary.time (tag: route).
+ */
+@Component
+public class HedgingFilter extends AbstractGatewayFilterFactory<HedgingFilter.Config> {
+
+    private final WebClient client;
+    private final LoadBalancedCalls upstream;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final MeterRegistry meterRegistry;
+
+    public HedgingFilter(WebClient.Builder webClientBuilder, HttpClient httpClient, LoadBalancedCalls upstream,
+                         ObjectProvider<List<HttpHeadersFilter>> headersFilters, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.client = webClientBuilder.clone().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        this.upstream = upstream;
+        this.headersFilters = headersFilters;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        RetryBudget budget = new RetryBudget(config.getBudgetPercent(), config.getMinRetriesPerSecond());
+        HedgeDelay delay = new HedgeDelay(routeId, config);
+        Counter hedges = counter("gateway.hedging.attempts", routeId, "kind", "hedge");
+        Counter retries = counter("gateway.hedging.attempts", routeId, "kind", "retry");
+        Counter primaryWins = counter("gateway.hedging.wins", routeId, "winner", "primary");
+        Counter hedgeWins = counter("gateway.hedging.wins", routeId, "winner", "hedge");
+        Counter exhausted = Counter.builder("gateway.hedging.budget.exhausted").tag("route", routeId).register(meterRegistry);
+
+        Retry retry = Retry.backoff(config.getRetries(), config.getRetryBackoff())
+                .maxBackoff(config.getRetryMaxBackoff())
+                .jitter(0.5)
+                .filter(error -> {
+                    if (!(error instanceof FailedAttempt || error instanceof WebClientRequestException)) return false;
+                    if (budget.tryWithdraw()) return true;
+                    exhausted.increment();
+                    return false;
+                })
+                .doBeforeRetry(signal -> retries.increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+
+        return (exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            if ((method != HttpMethod.GET && method != HttpMethod.HEAD) || route == null) {
+                return chain.filter(exchange);
+            }
+            budget.deposit();
+            URI uri = UriComponentsBuilder.fromUri(route.getUri())
+                    .replacePath(exchange.getRequest().getURI().getRawPath())
+                    .replaceQuery(exchange.getRequest().getURI().getRawQuery())
+                    .build(true)
+                    .toUri();
+            // A copy: without header filters, filterRequest returns the request's read-only headers
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange));
+            headers.remove(HttpHeaders.HOST);
+
+            AtomicBoolean decided = new AtomicBoolean();
+            long start = System.nanoTime();
+            List<Mono<Attempt>> attempts = new ArrayList<>(config.getHedges() + 1);
+            // Only primaries that got a response are timed; a cancelled one has no latency to report
+            attempts.add(attempt(0, method, uri, headers, retry, decided)
+                    .doOnSuccess(done -> delay.record(System.nanoTime() - start)));
+            long hedgeDelay = delay.current();
+            for (int i = 1; i <= config.getHedges(); i++) {
+                int index = i;
+                attempts.add(Mono.delay(Duration.ofNanos(hedgeDelay * i))
+                        .flatMap(tick -> {
+                            if (!budget.tryWithdraw()) {
+                                exhausted.increment();
+                                return Mono.empty();
+                            }
+                            hedges.increment();
+                            return attempt(index, method, uri, headers, retry, decided);
+                        }));
+            }
+            return Mono.firstWithValue(attempts)
+                    .onErrorMap(HedgingFilter::firstFailure)
+                    .flatMap(winner -> {
+                        (winner.index == 0 ? primaryWins : hedgeWins).increment();
+                        return write(exchange, winner.response.getStatusCode(), winner.response.getHeaders(),
+                                winner.response.getBody());
+                    })
+                    .onErrorResume(FailedAttempt.class, failed -> write(exchange, failed.response.getStatusCode(),
+                            failed.response.getHeaders(), Flux.just(exchange.getResponse().bufferFactory()
+                                    .wrap(failed.response.getBody() == null ? new byte[0] : failed.response.getBody()))));
+        };
+    }
+
+    private Mono<Attempt> attempt(int index, HttpMethod method, URI uri, HttpHeaders headers, Retry retry,
+                                  AtomicBoolean decided) {
+        return upstream.call(uri, target -> client.method(method).uri(target)
+                        .headers(h -> h.addAll(headers))
+                        .retrieve()
+                        .onStatus(HttpStatusCode::is5xxServerError,
+                                response -> response.toEntity(byte[].class).map(FailedAttempt::new))
+                        .onStatus(HttpStatusCode::isError, response -> Mono.empty())
+                        .toEntityFlux(DataBuffer.class))
+                .retryWhen(retry)
+                .flatMap(response -> {
+                    if (decided.compareAndSet(false, true)) {
+                        return Mono.just(new Attempt(index, response));
+                    }
+                    // Lost a photo finish: nobody will read this body, release it
+                    if (response.getBody() != null) response.getBody().subscribe(DataBufferUtils::release);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, HttpStatusCode status, HttpHeaders upstreamHeaders,
+                             Flux<DataBuffer> body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFilters.getIfAvailable(), upstreamHeaders, exchange,
+                HttpHeadersFilter.Type.RESPONSE);
+        response.getHeaders().putAll(filtered);
+        if (filtered.containsKey(HttpHeaders.CONTENT_LENGTH)) {
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        }
+        return body == null ? response.setComplete() : response.writeWith(body);
+    }
+
+    // When every attempt failed: the backend's 5xx if there was one, otherwise the first error
+    private static Throwable firstFailure(Throwable error) {
+        Throwable[] failures = error.getSuppressed();
+        for (Throwable failure : failures) {
+            if (failure instanceof FailedAttempt) return failure;
+        }
+        return failures.length > 0 ? failures[0] : error;
+    }
+
+    private Counter counter(String name, String routeId, String tag, String value) {
+        return Counter.builder(name).tag("route", routeId).tag(tag, value).register(meterRegistry);
+    }
+
+    private record Attempt(int index, ResponseEntity<Flux<DataBuffer>> response) {
+    }
+
+    // A 5xx response, as an error so that it is retried and loses to any successful attempt
+    private static final class FailedAttempt extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final transient ResponseEntity<byte[]> response;
+
+        FailedAttempt(ResponseEntity<byte[]> response) {
+            super("Upstream answered " + response.getStatusCode(), null, false, false);
+            this.response = response;
+        }
+    }
+
+    /**
+     * The hedge delay of a route: the latency percentile of its primary attempts that got a response,
+     * refreshed once a second.
+     */
+    private final class HedgeDelay {
+        private static final long REFRESH = TimeUnit.SECONDS.toNanos(1);
+        private static final long MIN_SAMPLES = 20;
+
+        private final Timer timer;
+        private final long fixed;
+        private final long min;
+        private final long max;
+        private volatile long current;
+        private volatile long refreshedAt = System.nanoTime();
+
+        HedgeDelay(String routeId, Config config) {
+            Timer.Builder builder = Timer.builder("gateway.hedging.primary.time").tag("route", routeId)
+                    .distributionStatisticExpiry(Duration.ofMinutes(1))
+                    .distributionStatisticBufferLength(3);
+            if (config.getPercentile() > 0) builder.publishPercentiles(config.getPercentile());
+            this.timer = builder.register(meterRegistry);
+            this.fixed = config.getDelay().toNanos();
+            this.min = config.getMinDelay().toNanos();
+            this.max = config.getMaxDelay().toNanos();
+            this.current = fixed;
+        }
+
+        void record(long nanos) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        long current() {
+            long now = System.nanoTime();
+            if (now - refreshedAt >= REFRESH) {
+                refreshedAt = now;
+                current = compute();
+            }
+            return current;
+        }
+
+        private long compute() {
+            ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+            if (percentiles.length == 0 || timer.count() < MIN_SAMPLES) return fixed;
+            long observed = (long) percentiles[0].value(TimeUnit.NANOSECONDS);
+            return observed <= 0 ? fixed : Math.max(min, Math.min(max, observed));
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private Duration delay = Duration.ofMillis(100);         // until the percentile is known
+        private double percentile = 0.95;                         // 0: always use 'delay'
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private int hedges = 1;                                   // extra attempts after the delay
+        private int retries = 1;                                  // per attempt
+        private Duration retryBackoff = Duration.ofMillis(25);
+        private Duration retryMaxBackoff = Duration.ofMillis(250);
+        private double budgetPercent = 10;
+        private int minRetriesPerSecond = 5;
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public Duration getDelay() {
+            return delay;
+        }
+
+        public void setDelay(Duration delay) {
+            this.delay = delay;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getHedges() {
+            return hedges;
+        }
+
+        public void setHedges(int hedges) {
+            this.hedges = hedges;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+
+        public Duration getRetryMaxBackoff() {
+            return retryMaxBackoff;
+        }
+
+        public void setRetryMaxBackoff(Duration retryMaxBackoff) {
+            this.retryMaxBackoff = retryMaxBackoff;
+        }
+
+        public double getBudgetPercent() {
+            return budgetPercent;
+        }
+
+        public void setBudgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+        }
+
+        public int getMinRetriesPerSecond() {
+            return minRetriesPerSecond;
+        }
+
+        public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+            this.minRetriesPerSecond = minRetriesPerSecond;
+        }
+    }
+}
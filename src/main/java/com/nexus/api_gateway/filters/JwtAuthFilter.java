@@ -1,36 +1,41 @@
 package com.nexus.api_gateway.filters;
 
-import com.nexus.api_gateway.security.JwtUtil;
+import com.nexus.api_gateway.error.ErrorReason;
+import com.nexus.api_gateway.error.ErrorResponseWriter;
+import com.nexus.api_gateway.revocation.RevocationStore;
+import com.nexus.api_gateway.security.JwtPrincipal;
+import com.nexus.api_gateway.security.VerifiedTokenCache;
 
-import java.nio.charset.StandardCharsets;
-import java.util.List;
+import io.jsonwebtoken.JwtException;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.web.server.ServerWebExchange;
-import reactor.core.publisher.Mono;
 
+import static com.nexus.api_gateway.util.Constants.JWT_PRINCIPAL_ATTR;
 import static com.nexus.api_gateway.util.Constants.USER_ID_HEADER;
 
 /**
  * JWT Authentication Filter
- * 1. Validates JWT.
+ * 1. Validates JWT (a single signature check per request) and rejects revoked tokens (see RevocationStore).
  * 2. Extracts user ID (email) from JWT.
- * 3. Sets the X-User-ID header for downstream filters (like RateLimiterFilter).
+ * 3. Stores the verified JwtPrincipal in the exchange attributes for the route authorization filters.
+ * 4. Sets the X-User-ID header for downstream filters (like RateLimiterFilter).
  */
 @Component
 public class JwtAuthFilter extends AbstractGatewayFilterFactory<Object> {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
+    private final RevocationStore revocations;
+    private final ErrorResponseWriter errors;
 
 
-    public JwtAuthFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtAuthFilter(VerifiedTokenCache tokenCache, RevocationStore revocations, ErrorResponseWriter errors) {
+        this.tokenCache = tokenCache;
+        this.revocations = revocations;
+        this.errors = errors;
     }
 
     @Override
@@ -41,6 +46,12 @@ public class JwtAuthFilter extends AbstractGatewayFilterFactory<Object> {
             
             // 1. Skip authentication check for the /auth and /actuator/health routes
             if (request.getURI().getPath().contains("/nexus/auth") || request.getURI().getPath().contains("/actuator/health") || request.getURI().getPath().contains("/nexus/api/v1/user")) {
+                // Public routes may still carry a token (e.g. user updates); verify it once so that
+                // route filters can read the principal, but never reject the request here.
+                JwtPrincipal principal = tryParse(request);
+                if (principal != null) {
+                    exchange.getAttributes().put(JWT_PRINCIPAL_ATTR, principal);
+                }
                 // For non-secured routes, just pass a default header for rate limiting
                 ServerHttpRequest modifiedRequest = request.mutate()
                         .header(USER_ID_HEADER, "ANONYMOUS")
@@ -50,49 +61,55 @@ public class JwtAuthFilter extends AbstractGatewayFilterFactory<Object> {
 
             // 2. Check for Bearer token
             if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-                return this.onError(exchange, "Missing Authorization header", HttpStatus.UNAUTHORIZED);
+                return errors.write(exchange, ErrorReason.MISSING_TOKEN);
             }
 
             String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return this.onError(exchange, "Invalid Authorization format", HttpStatus.UNAUTHORIZED);
+                return errors.write(exchange, ErrorReason.MALFORMED_TOKEN);
             }
 
             String token = authHeader.substring(7);
 
-            // 3. Validate Token and Extract User ID (email)
+            // 3. Verify the token once and share the parsed principal with the route filters
+            JwtPrincipal principal;
             try {
-                if (!jwtUtil.validateToken(token)) {
-                    return this.onError(exchange, "JWT validation failed", HttpStatus.UNAUTHORIZED);
-                }
-
-                String userEmail = jwtUtil.extractUsername(token); // The email is the ID here
-
-
-                String userId = jwtUtil.extractUserId(token);
-
-                // 4. Modify the request: Add the X-User-ID header
-                ServerHttpRequest modifiedRequest = request.mutate()
-                        .header(USER_ID_HEADER, userEmail)
-                        .header("X-User-Id", userId)
-                        .build();
-
-                // Continue to the next filter (RateLimiterFilter)
-                return chain.filter(exchange.mutate().request(modifiedRequest).build());
-
+                principal = tokenCache.verify(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                return errors.write(exchange, ErrorReason.INVALID_TOKEN);
             } catch (Exception e) {
-                return this.onError(exchange, "Error processing JWT: " + e.getMessage(), HttpStatus.UNAUTHORIZED);
+                return errors.write(exchange, ErrorReason.TOKEN_ERROR); // the exception message stays out of the response
+            }
+            if (isRevoked(principal)) {
+                return errors.write(exchange, ErrorReason.REVOKED_TOKEN);
             }
+            exchange.getAttributes().put(JWT_PRINCIPAL_ATTR, principal);
+
+            // 4. Modify the request: Add the X-User-ID header (the email is the ID here)
+            ServerHttpRequest modifiedRequest = request.mutate()
+                    .header(USER_ID_HEADER, principal.getSubject())
+                    .header("X-User-Id", principal.getId())
+                    .build();
+
+            // Continue to the next filter (RateLimiterFilter)
+            return chain.filter(exchange.mutate().request(modifiedRequest).build());
         };
     }
 
-    private Mono<Void> onError(ServerWebExchange exchange, String err, HttpStatus httpStatus) {
-        exchange.getResponse().setStatusCode(httpStatus);
-        exchange.getResponse().getHeaders().add("Content-Type", "text/plain");
-        byte[] bytes = err.getBytes(StandardCharsets.UTF_8);
-        DataBuffer buffer = exchange.getResponse()
-                                   .bufferFactory()
-                                   .wrap(bytes);
-        return exchange.getResponse().writeWith(Mono.just(buffer));
+    private JwtPrincipal tryParse(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            JwtPrincipal principal = tokenCache.verify(authHeader.substring(7));
+            return isRevoked(principal) ? null : principal;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private boolean isRevoked(JwtPrincipal principal) {
+        return principal.getTokenId() != null && revocations.isRevoked(principal.getTokenId());
     }
 }
@@ -0,0 +1,136 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.error.ErrorReason;
+import com.nexus.api_gateway.error.ErrorResponseWriter;
+import com.nexus.api_gateway.error.ErrorResponseWriter.PreparedError;
+import com.nexus.api_gateway.ratelimit.RateLimitBackend;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+
+import static com.nexus.api_gateway.util.Constants.USER_ID_HEADER;
+
+/**
+ * RateLimiterFilter
+ *
+ * Per-route token-bucket rate limiting keyed by caller:
+ *  - Authenticated requests: the X-User-ID header set by JwtAuthFilter.
+ *  - ANONYMOUS requests: the client IP, so anonymous callers do not share one bucket.
+ *
+ * Quotas (capacity = burst, replenish-rate = tokens per second) are set per route in application.yml.
+ * Throttled requests get 429 with Retry-After; counts are published as gateway.ratelimit.requests
+ * tagged by route and outcome.
+ */
+@Component
+public class RateLimiterFilter extends AbstractGatewayFilterFactory<RateLimiterFilter.Config> {
+
+    private static final String ANONYMOUS = "ANONYMOUS";
+
+    private final RateLimitBackend backend;
+    private final MeterRegistry meterRegistry;
+    private final ErrorResponseWriter errors;
+
+    public RateLimiterFilter(RateLimitBackend backend, MeterRegistry meterRegistry, ErrorResponseWriter errors) {
+        super(Config.class);
+        this.backend = backend;
+        this.meterRegistry = meterRegistry;
+        this.errors = errors;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        String keyPrefix = routeId + '|';
+        Counter allowed = Counter.builder("gateway.ratelimit.requests")
+                .tag("route", routeId).tag("outcome", "allowed").register(meterRegistry);
+        Counter throttled = Counter.builder("gateway.ratelimit.requests")
+                .tag("route", routeId).tag("outcome", "throttled").register(meterRegistry);
+        PreparedError tooManyRequests = errors.prepare(ErrorReason.RATE_LIMITED, routeId);
+
+        return (exchange, chain) -> {
+            String key = keyPrefix + resolveKey(exchange.getRequest(), config.isTrustForwardedFor());
+            return backend.tryConsume(key, config.getCapacity(), config.getReplenishRate())
+                    .flatMap(decision -> {
+                        if (decision.isAllowed()) {
+                            allowed.increment();
+                            exchange.getResponse().getHeaders()
+                                    .set("X-RateLimit-Remaining", Long.toString(decision.getRemaining()));
+                            return chain.filter(exchange);
+                        }
+                        throttled.increment();
+                        long retryAfterSeconds = Math.max(1L, (decision.getRetryAfterMillis() + 999) / 1000);
+                        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+                        return tooManyRequests.write(exchange);
+                    });
+        };
+    }
+
+    private String resolveKey(ServerHttpRequest request, boolean trustForwardedFor) {
+        String userId = request.getHeaders().getFirst(USER_ID_HEADER);
+        if (userId != null && !userId.isEmpty() && !ANONYMOUS.equals(userId)) {
+            return "user:" + userId;
+        }
+        return "ip:" + clientIp(request, trustForwardedFor);
+    }
+
+    private String clientIp(ServerHttpRequest request, boolean trustForwardedFor) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) return "unknown";
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private long capacity = 20;          // burst size
+        private double replenishRate = 10;   // tokens per second
+        private boolean trustForwardedFor;   // only behind a trusted proxy
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public boolean isTrustForwardedFor() {
+            return trustForwardedFor;
+        }
+
+        public void setTrustForwardedFor(boolean trustForwardedFor) {
+            this.trustForwardedFor = trustForwardedFor;
+        }
+    }
+}
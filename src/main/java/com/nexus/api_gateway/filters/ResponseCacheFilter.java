@@ -0,0 +1,476 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.cache.CacheDirectives;
+import com.nexus.api_gateway.cache.CacheKey;
+import com.nexus.api_gateway.cache.CachedResponse;
+import com.nexus.api_gateway.cache.ResponseCache;
+import com.nexus.api_gateway.loadbalancer.LoadBalancedCalls;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.nexus.api_gateway.util.Constants.RESPONSE_CACHE_KEY_ATTR;
+import static com.nexus.api_gateway.util.Constants.RESPONSE_CACHE_SERVED_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * ResponseCacheFilter
+ *
+ * Shared cache for GET responses of a route, stored in ResponseCache.
+ *  - Key: method, path, query, Accept-Encoding, the configured vary-headers and (by default) the
+ *    caller's roles, so role-dependent responses are never mixed up.
+ *  - Only responses a shared cache may store are kept: Cache-Control public / s-maxage, or no
+ *    Cache-Control with a route default-max-age. no-store, private and Set-Cookie are never cached.
+ *  - Fresh hits are answered here (304 on a matching If-None-Match) without touching the backend.
+ *  - stale-while-revalidate: a stale entry is served while one background request revalidates it
+ *    with If-None-Match.
+ *  - stale-if-error: a 5xx or a failed call is answered with the stale entry.
+ *  - Concurrent misses for one key share a single upstream request.
+ *
+ * Place it after RouteAuthorizationFilter (hits must still be authorized) and before the
+ * concurrency limit and circuit breaker filters. Responses carry X-Cache: HIT, STALE or MISS.
+ * Metric: gateway.cache.requests (tags: route, result).
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    // Request headers not forwarded on a background revalidation
+    private static final Set<String> NOT_REPLAYED = Set.of(
+            "host", "content-length", "transfer-encoding", "connection", "cache-control",
+            "if-none-match", "if-modified-since", "forwarded", "x-forwarded-for");
+
+    private final ResponseCache cache;
+    private final WebClient revalidationClient;
+    private final LoadBalancedCalls upstream;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheFilter(ResponseCache cache, WebClient.Builder webClientBuilder,
+                               LoadBalancedCalls upstream, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.cache = cache;
+        this.revalidationClient = webClientBuilder.build();
+        this.upstream = upstream;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "default" : config.getRouteId();
+        Counters counters = new Counters(routeId);
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            CacheDirectives requested = CacheDirectives.parse(request.getHeaders().get(HttpHeaders.CACHE_CONTROL));
+            if (requested.isNoStore()) {
+                counters.bypass.increment();
+                return chain.filter(exchange);
+            }
+            String key = CacheKey.of(routeId, exchange, config.getVaryHeaders(), config.isVaryOnRoles());
+            exchange.getAttributes().put(RESPONSE_CACHE_KEY_ATTR, key);
+
+            long now = System.currentTimeMillis();
+            CachedResponse cached = cache.get(key);
+            if (cached != null && !requested.isNoCache()) {
+                if (cached.isFresh(now)) {
+                    counters.hit.increment();
+                    return cache.write(exchange, cached, "HIT");
+                }
+                if (cached.canServeWhileRevalidating(now)) {
+                    counters.stale.increment();
+                    revalidate(key, cached, exchange, config);
+                    return cache.write(exchange, cached, "STALE");
+                }
+            }
+            return fetch(key, cached, exchange, chain, config, counters);
+        };
+    }
+
+    private Mono<Void> fetch(String key, CachedResponse stale, ServerWebExchange exchange,
+                             GatewayFilterChain chain,
+                             Config config, Counters counters) {
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = cache.joinInFlight(key, sink);
+        if (leader != null) {
+            // Another request is already fetching this key: wait for it, fetch ourselves if it yields nothing.
+            // A fetch that yields nothing within collapse-timeout gives up its slot to the next miss.
+            return leader.asMono()
+                    .map(Optional::of)
+                    .timeout(config.getCollapseTimeout(), Mono.fromSupplier(() -> {
+                        cache.leaveInFlight(key, leader);
+                        return Optional.empty();
+                    }))
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(shared -> {
+                        if (shared.isPresent()) {
+                            counters.collapsed.increment();
+                            return cache.write(exchange, shared.get(), "HIT");
+                        }
+                        counters.miss.increment();
+                        return chain.filter(exchange);
+                    });
+        }
+        counters.miss.increment();
+        exchange.getResponse().getHeaders().set("X-Cache", "MISS");
+        AtomicBoolean writing = new AtomicBoolean();
+        return chain.filter(ResponseDecorators.decorate(exchange,
+                        response -> new CapturingResponse(response, exchange, key, stale, config, sink, writing)))
+                .onErrorResume(error -> {
+                    if (stale != null && stale.canServeIfError(System.currentTimeMillis())
+                            && !exchange.getResponse().isCommitted()) {
+                        counters.staleIfError.increment();
+                        return cache.replaceWithStale(exchange, stale);
+                    }
+                    return Mono.error(error);
+                })
+                .doFinally(signal -> {
+                    // A routed body is written after the chain completes (NettyWriteResponseFilter);
+                    // then CapturingResponse ends the fetch once the body does
+                    if (signal != SignalType.ON_COMPLETE
+                            || (!writing.get() && exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR) == null)) {
+                        cache.leaveInFlight(key, sink);
+                    }
+                });
+    }
+
+    /**
+     * Refreshes a stale entry in the background with a conditional GET straight to the route's backend
+     * (for an lb:// route, to an instance chosen by the route's load balancer).
+     */
+    private void revalidate(String key, CachedResponse stale, ServerWebExchange exchange, Config config) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        if (route == null || cache.joinInFlight(key, sink) != null) {
+            return; // not routed, or already being fetched
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        URI uri = UriComponentsBuilder.fromUri(route.getUri())
+                .replacePath(request.getURI().getRawPath())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+        upstream.call(uri, target -> conditionalGet(target, stale, request, config))
+                .timeout(config.getCollapseTimeout())
+                .doOnNext(entry -> {
+                    cache.put(key, entry);
+                    sink.tryEmitValue(entry);
+                })
+                .doFinally(signal -> cache.leaveInFlight(key, sink))
+                .subscribe(null, error -> log.debug("Revalidation of {} failed: {}", uri, error.toString()));
+    }
+
+    private Mono<CachedResponse> conditionalGet(URI uri, CachedResponse stale, ServerHttpRequest request, Config config) {
+        boolean authorized = request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION);
+        return revalidationClient.get().uri(uri)
+                .headers(headers -> {
+                    request.getHeaders().forEach((name, values) -> {
+                        if (!NOT_REPLAYED.contains(name.toLowerCase(Locale.ROOT))) headers.put(name, values);
+                    });
+                    if (stale.getEtag() != null) headers.setIfNoneMatch(stale.getEtag());
+                })
+                .exchangeToMono(response -> {
+                    long now = System.currentTimeMillis();
+                    if (response.statusCode().value() == 304) {
+                        return response.releaseBody().thenReturn(stale.revalidated(now));
+                    }
+                    if (response.statusCode().is5xxServerError()) {
+                        return response.createException().flatMap(error -> Mono.<CachedResponse>error(error));
+                    }
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    Freshness freshness = freshness(response.statusCode(), headers, authorized, config);
+                    if (freshness == null) {
+                        return response.releaseBody().then(Mono.<CachedResponse>empty());
+                    }
+                    return response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(new byte[0])
+                            .filter(body -> body.length <= config.getMaxEntrySize().toBytes())
+                            .map(body -> newEntry(response.statusCode(), headers, body, body.length, now, freshness));
+                });
+    }
+
+    /**
+     * @return freshness limits if a shared cache may store the response, otherwise null.
+     */
+    private static Freshness freshness(HttpStatusCode status, HttpHeaders headers, boolean authorized, Config config) {
+        if (status.value() != 200 || headers.containsKey(HttpHeaders.SET_COOKIE)) return null;
+        if (headers.getVary().contains("*")) return null;
+        long contentLength = headers.getContentLength();
+        if (contentLength > config.getMaxEntrySize().toBytes()) return null;
+
+        CacheDirectives directives = CacheDirectives.parse(headers.get(HttpHeaders.CACHE_CONTROL));
+        long maxAge = directives.freshnessSeconds(authorized, config.getDefaultMaxAge().toSeconds());
+        if (maxAge < 0) return null;
+        long swr = directives.getStaleWhileRevalidate() >= 0
+                ? directives.getStaleWhileRevalidate() * 1000 : config.getStaleWhileRevalidate().toMillis();
+        long sie = directives.getStaleIfError() >= 0
+                ? directives.getStaleIfError() * 1000 : config.getStaleIfError().toMillis();
+        return new Freshness(maxAge * 1000, swr, sie);
+    }
+
+    private CachedResponse newEntry(HttpStatusCode status, HttpHeaders source, byte[] body, int length,
+                                    long now, Freshness freshness) {
+        HttpHeaders headers = new HttpHeaders();
+        source.forEach((name, values) -> {
+            if (!ResponseCache.isGatewayHeader(name) && !isHopByHop(name)) headers.put(name, List.copyOf(values));
+        });
+        ByteBuffer stored = cache.newBody(body, length);
+        return new CachedResponse(status.value(), headers, stored, now,
+                freshness.maxAgeMillis, freshness.staleWhileRevalidateMillis, freshness.staleIfErrorMillis);
+    }
+
+    private static boolean isHopByHop(String name) {
+        return name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)
+                || name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING)
+                || name.equalsIgnoreCase(HttpHeaders.CONNECTION)
+                || name.equalsIgnoreCase("Keep-Alive")
+                || name.equalsIgnoreCase(HttpHeaders.DATE)
+                || name.equalsIgnoreCase(HttpHeaders.AGE);
+    }
+
+    private record Freshness(long maxAgeMillis, long staleWhileRevalidateMillis, long staleIfErrorMillis) {}
+
+    /**
+     * Streams the backend response through unchanged while copying its body; the copy is stored
+     * (and handed to collapsed waiters) once the body completes within max-entry-size.
+     * A 5xx is swapped for the stale entry when stale-if-error allows it. Ends the in-flight fetch
+     * when the body terminates, or as soon as the response turns out not to be cacheable.
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final CachedResponse stale;
+        private final Config config;
+        private final Sinks.One<CachedResponse> sink;
+        private final AtomicBoolean writing;
+
+        CapturingResponse(ServerHttpResponse delegate, ServerWebExchange exchange, String key, CachedResponse stale,
+                          Config config, Sinks.One<CachedResponse> sink, AtomicBoolean writing) {
+            super(delegate);
+            this.exchange = exchange;
+            this.key = key;
+            this.stale = stale;
+            this.config = config;
+            this.sink = sink;
+            this.writing = writing;
+        }
+
+        private void leaveInFlight() {
+            cache.leaveInFlight(key, sink);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            writing.set(true);
+            if (exchange.getAttribute(RESPONSE_CACHE_SERVED_ATTR) != null) {
+                leaveInFlight();
+                return super.writeWith(body); // already answered from the cache (e.g. by the fallback)
+            }
+            HttpStatusCode status = getStatusCode();
+            long now = System.currentTimeMillis();
+            if (status != null && status.is5xxServerError() && stale != null && stale.canServeIfError(now)) {
+                leaveInFlight();
+                return Flux.from(body)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(cache.replaceWithStale(exchange, stale));
+            }
+            boolean authorized = exchange.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION);
+            Freshness freshness = status == null ? null : freshness(status, getHeaders(), authorized, config);
+            if (freshness == null) {
+                leaveInFlight();
+                return super.writeWith(body);
+            }
+            HttpHeaders headers = getHeaders();
+            BodyCopy copy = new BodyCopy((int) config.getMaxEntrySize().toBytes());
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(copy::append)
+                    .doOnComplete(() -> {
+                        if (copy.overflowed) return;
+                        CachedResponse entry = newEntry(status, headers, copy.bytes, copy.length, now, freshness);
+                        cache.put(key, entry);
+                        sink.tryEmitValue(entry);
+                    })
+                    .doFinally(signal -> leaveInFlight()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            writing.set(true);
+            leaveInFlight(); // streamed responses are not cached
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            writing.set(true);
+            leaveInFlight();
+            return super.setComplete();
+        }
+    }
+
+    // Growable copy of a streamed body, abandoned past the limit
+    private static final class BodyCopy {
+        private final int limit;
+        private byte[] bytes = new byte[4096];
+        private int length;
+        private boolean overflowed;
+
+        BodyCopy(int limit) {
+            this.limit = limit;
+        }
+
+        void append(DataBuffer buffer) {
+            if (overflowed) return;
+            int readable = buffer.readableByteCount();
+            if (length + readable > limit) {
+                overflowed = true;
+                bytes = null;
+                return;
+            }
+            if (length + readable > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(limit, Math.max(bytes.length * 2, length + readable)));
+            }
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), length, readable);
+            length += readable;
+        }
+    }
+
+    private final class Counters {
+        final Counter hit;
+        final Counter stale;
+        final Counter staleIfError;
+        final Counter miss;
+        final Counter collapsed;
+        final Counter bypass;
+
+        Counters(String routeId) {
+            hit = counter(routeId, "hit");
+            stale = counter(routeId, "stale");
+            staleIfError = counter(routeId, "stale_if_error");
+            miss = counter(routeId, "miss");
+            collapsed = counter(routeId, "collapsed");
+            bypass = counter(routeId, "bypass");
+        }
+
+        private Counter counter(String routeId, String result) {
+            return Counter.builder("gateway.cache.requests")
+                    .tag("route", routeId).tag("result", result).register(meterRegistry);
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private List<String> varyHeaders = List.of();
+        private boolean varyOnRoles = true;
+        private Duration defaultMaxAge = Duration.ZERO;          // used only without Cache-Control
+        private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+        private Duration staleIfError = Duration.ofMinutes(5);
+        private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+        private Duration collapseTimeout = Duration.ofSeconds(5);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public List<String> getVaryHeaders() {
+            return varyHeaders;
+        }
+
+        public void setVaryHeaders(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+        }
+
+        public boolean isVaryOnRoles() {
+            return varyOnRoles;
+        }
+
+        public void setVaryOnRoles(boolean varyOnRoles) {
+            this.varyOnRoles = varyOnRoles;
+        }
+
+        public Duration getDefaultMaxAge() {
+            return defaultMaxAge;
+        }
+
+        public void setDefaultMaxAge(Duration defaultMaxAge) {
+            this.defaultMaxAge = defaultMaxAge;
+        }
+
+        public Duration getStaleWhileRevalidate() {
+            return staleWhileRevalidate;
+        }
+
+        public void setStaleWhileRevalidate(Duration staleWhileRevalidate) {
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        public Duration getStaleIfError() {
+            return staleIfError;
+        }
+
+        public void setStaleIfError(Duration staleIfError) {
+            this.staleIfError = staleIfError;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public void setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
+
+        public Duration getCollapseTimeout() {
+            return collapseTimeout;
+        }
+
+        public void setCollapseTimeout(Duration collapseTimeout) {
+            this.collapseTimeout = collapseTimeout;
+        }
+    }
+}
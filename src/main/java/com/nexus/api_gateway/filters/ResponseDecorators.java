@@ -0,0 +1,83 @@
+package com.nexus.api_gateway.filters;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Lets route filters decorate the response that is actually written.
+ *
+ * NettyWriteResponseFilter (order -1) writes the upstream body through the exchange it was given,
+ * so a decorator a route filter (order 1..n) puts on its own exchange is never called for a routed
+ * response. This filter runs just before it and hands it a response whose writes go to the latest
+ * decorator registered with {@link #decorate}; each decorator wraps the one registered before it,
+ * so they apply in route order exactly as with a plain exchange.mutate().response(..).
+ */
+@Component
+public class ResponseDecorators implements GlobalFilter, Ordered {
+
+    private static final String TARGET_ATTR = ResponseDecorators.class.getName() + ".target";
+
+    /**
+     * Wraps the current write target in a decorator and returns the exchange to pass down the chain.
+     * The decorator must wrap the response it is given, not exchange.getResponse().
+     */
+    public static ServerWebExchange decorate(ServerWebExchange exchange, UnaryOperator<ServerHttpResponse> decorator) {
+        ServerHttpResponse target = exchange.getAttribute(TARGET_ATTR);
+        ServerHttpResponse decorated = decorator.apply(target == null ? exchange.getResponse() : target);
+        exchange.getAttributes().put(TARGET_ATTR, decorated);
+        return exchange.mutate().response(decorated).build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpResponse response = exchange.getResponse();
+        exchange.getAttributes().put(TARGET_ATTR, response);
+        return chain.filter(exchange.mutate().response(new Forwarding(response, exchange)).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private static final class Forwarding extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        Forwarding(ServerHttpResponse delegate, ServerWebExchange exchange) {
+            super(delegate);
+            this.exchange = exchange;
+        }
+
+        private ServerHttpResponse target() {
+            ServerHttpResponse target = exchange.getAttribute(TARGET_ATTR);
+            return target == null ? getDelegate() : target;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return target().writeWith(body);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return target().writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return target().setComplete();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.nexus.api_gateway.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Wraps the gateway's own filter factories and global filters (those in com.nexus.api_gateway),
+ * plus the stock CircuitBreaker filter, so each filter's self time is recorded per route (see
+ * SelfTimedFilter) and/or each filter runs in its own span (see TracedFilter).
+ *
+ * Timing follows nexus.instrumentation.enabled and spans nexus.tracing.enabled; with both off
+ * the beans are returned as they are and nothing is measured.
+ */
+public class FilterInstrumentation implements BeanPostProcessor {
+
+    private static final String OWN_PACKAGE = "com.nexus.api_gateway.";
+    private static final Set<String> STOCK_FILTERS = Set.of("CircuitBreaker");
+
+    private final boolean timed;
+    private final boolean traced;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+
+    public FilterInstrumentation(boolean timed, boolean traced,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.timed = timed;
+        this.traced = traced;
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!timed && !traced) {
+            return bean;
+        }
+        boolean own = bean.getClass().getName().startsWith(OWN_PACKAGE);
+        if (bean instanceof GatewayFilterFactory factory && (own || STOCK_FILTERS.contains(factory.name()))) {
+            return new InstrumentedGatewayFilterFactory(factory, this);
+        }
+        if (bean instanceof GlobalFilter filter && own) {
+            GatewayFilter wrapped = wrap(filter::filter, beanName);
+            return filter instanceof Ordered ordered
+                    ? new OrderedGlobalFilter(wrapped, ordered.getOrder())
+                    : (GlobalFilter) wrapped::filter;
+        }
+        return bean;
+    }
+
+    /**
+     * Wraps a route filter, keeping its explicit order if it has one (otherwise the route assigns
+     * one by position, as before).
+     */
+    GatewayFilter instrument(GatewayFilter filter, String name) {
+        GatewayFilter wrapped = wrap(filter, name);
+        return filter instanceof Ordered ordered ? new OrderedGatewayFilter(wrapped, ordered.getOrder()) : wrapped;
+    }
+
+    private GatewayFilter wrap(GatewayFilter filter, String name) {
+        GatewayFilter wrapped = filter;
+        if (traced) wrapped = new TracedFilter(wrapped, name, observationRegistry.getObject());
+        if (timed) wrapped = new SelfTimedFilter(wrapped, name, meterRegistry.getObject());
+        return wrapped;
+    }
+
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route == null ? "none" : route.getId();
+    }
+
+    private static final class OrderedGlobalFilter implements GlobalFilter, Ordered {
+        private final GatewayFilter delegate;
+        private final int order;
+
+        OrderedGlobalFilter(GatewayFilter delegate, int order) {
+            this.delegate = delegate;
+            this.order = order;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            return delegate.filter(exchange, chain);
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.nexus.api_gateway.instrumentation;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+
+import java.util.List;
+
+/**
+ * Delegates binding and naming to the wrapped factory, and instruments every filter it builds
+ * (see FilterInstrumentation), so route definitions are unchanged.
+ */
+final class InstrumentedGatewayFilterFactory<C> implements GatewayFilterFactory<C> {
+
+    private final GatewayFilterFactory<C> delegate;
+    private final FilterInstrumentation instrumentation;
+
+    InstrumentedGatewayFilterFactory(GatewayFilterFactory<C> delegate, FilterInstrumentation instrumentation) {
+        this.delegate = delegate;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public GatewayFilter apply(C config) {
+        return instrumentation.instrument(delegate.apply(config), delegate.name());
+    }
+
+    @Override
+    public GatewayFilter apply(String routeId, C config) {
+        return instrumentation.instrument(delegate.apply(routeId, config), delegate.name());
+    }
+
+    @Override
+    public String name() {
+        return delegate.name();
+    }
+
+    @Override
+    public Class<C> getConfigClass() {
+        return delegate.getConfigClass();
+    }
+
+    @Override
+    public C newConfig() {
+        return delegate.newConfig();
+    }
+
+    @Override
+    public ShortcutType shortcutType() {
+        return delegate.shortcutType();
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return delegate.shortcutFieldOrder();
+    }
+
+    @Override
+    public String shortcutFieldPrefix() {
+        return delegate.shortcutFieldPrefix();
+    }
+}
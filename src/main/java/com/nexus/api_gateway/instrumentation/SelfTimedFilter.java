@@ -0,0 +1,87 @@
+package com.nexus.api_gateway.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a filter's self time: the time from entering the filter to its completion, minus the
+ * time spent in the rest of the chain (later filters and the backend). That covers the work a
+ * filter does before passing the request on, after the chain completes (e.g. the CORS header
+ * sanitizer), or instead of passing it on (a rejection).
+ *
+ * Work done while the response body is written (e.g. compression) runs inside the chain and is
+ * therefore not part of any filter's self time.
+ * Metric: gateway.filter.time (tags: filter, route).
+ */
+final class SelfTimedFilter implements GatewayFilter {
+
+    static final String METRIC = "gateway.filter.time";
+
+    private final GatewayFilter delegate;
+    private final String name;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    SelfTimedFilter(GatewayFilter delegate, String name, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Timing timing = new Timing(chain);
+        return delegate.filter(exchange, timing)
+                .doFinally(signal -> timer(exchange).record(timing.selfNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    private Timer timer(ServerWebExchange exchange) {
+        String routeId = FilterInstrumentation.routeId(exchange);
+        Timer timer = timers.get(routeId);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(routeId, id -> Timer.builder(METRIC)
+                    .tag("filter", name)
+                    .tag("route", id)
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    @Override
+    public String toString() {
+        return "SelfTimed[" + delegate + "]";
+    }
+
+    // The chain handed to the delegate; measures how long the rest of the chain took
+    private static final class Timing implements GatewayFilterChain {
+        private final GatewayFilterChain chain;
+        private final long start = System.nanoTime();
+        private long downstreamStart;
+        private long downstreamEnd;
+
+        Timing(GatewayFilterChain chain) {
+            this.chain = chain;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange) {
+            return chain.filter(exchange)
+                    .doOnSubscribe(subscription -> downstreamStart = System.nanoTime())
+                    .doFinally(signal -> downstreamEnd = System.nanoTime());
+        }
+
+        long selfNanos() {
+            long total = System.nanoTime() - start;
+            long downstream = downstreamEnd > downstreamStart ? downstreamEnd - downstreamStart : 0;
+            return Math.max(0, total - downstream);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.nexus.api_gateway.instrumentation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs a filter inside its own span ("filter <name>"), a child of the current observation (the
+ * server request, or the previous filter's span), so later filters and the upstream call nest
+ * below it. Rejections and errors are marked on the span.
+ *
+ * Observation: gateway.filter.span (low-cardinality keys: filter, route). Its meters are denied
+ * (see TracingConfig); timings come from gateway.filter.time.
+ */
+final class TracedFilter implements GatewayFilter {
+
+    static final String OBSERVATION = "gateway.filter.span";
+
+    private final GatewayFilter delegate;
+    private final String name;
+    private final String contextualName;
+    private final ObservationRegistry observationRegistry;
+
+    TracedFilter(GatewayFilter delegate, String name, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.name = name;
+        this.contextualName = "filter " + name;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return Mono.deferContextual(context -> {
+            Observation parent = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+            Observation observation = Observation.createNotStarted(OBSERVATION, observationRegistry)
+                    .contextualName(contextualName)
+                    .lowCardinalityKeyValue("filter", name)
+                    .lowCardinalityKeyValue("route", FilterInstrumentation.routeId(exchange))
+                    .parentObservation(parent)
+                    .start();
+            return delegate.filter(exchange, chain)
+                    .doOnError(observation::error)
+                    .doFinally(signal -> {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        if (status != null) {
+                            observation.highCardinalityKeyValue("http.status_code", Integer.toString(status.value()));
+                        }
+                        observation.stop();
+                    })
+                    .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "Traced[" + delegate + "]";
+    }
+}
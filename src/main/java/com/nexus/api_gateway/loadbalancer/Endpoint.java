@@ -0,0 +1,214 @@
+package com.nexus.api_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One backend instance of a ServicePool, with the state its strategies and health checks use:
+ * requests in flight, peak-EWMA latency, consecutive failures and its circuit state.
+ *
+ * Circuit state: CLOSED (in rotation), OPEN (ejected until a deadline) and HALF_OPEN (deadline
+ * passed: a single probe request decides between CLOSED and another, doubled, ejection).
+ * An instance failing its active health check is out of rotation regardless of the circuit.
+ *
+ * Every choice of an endpoint must be followed by exactly one complete() or cancel() call.
+ */
+public final class Endpoint implements ServiceInstance {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // Cost of an instance with requests in flight but no latency sample yet (nanoseconds)
+    private static final double PENALTY = 1e12;
+
+    private final ServicePool pool;
+    private final URI uri;
+    private final String instanceId;
+    private final int port;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile long ejectedUntil;       // System.nanoTime() deadline; 0 when not ejected
+    private volatile int ejections;           // consecutive ejections without a successful probe
+    private volatile boolean healthy = true;  // active health check verdict
+    private int healthStreak;                 // consecutive check results against the verdict (checker only)
+
+    private double ewma;                      // guarded by this
+    private long lastSample;
+
+    Endpoint(ServicePool pool, URI uri) {
+        this.pool = pool;
+        this.uri = uri;
+        this.port = uri.getPort() >= 0 ? uri.getPort() : defaultPort(uri);
+        this.instanceId = uri.getHost() + ":" + port;
+    }
+
+    private static int defaultPort(URI uri) {
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    /**
+     * Records the end of a request sent to this endpoint.
+     * @param nanos time from the choice of the endpoint to the end of the response.
+     * @param failed a 5xx or an error (e.g. connection refused).
+     */
+    public void complete(long nanos, boolean failed) {
+        outstanding.decrementAndGet();
+        pool.completed(this, nanos, failed);
+    }
+
+    /**
+     * Records the end of a request that was cancelled before its outcome was known (the client went
+     * away, a lost hedge, a timeout): it no longer counts as in flight, and gives no latency sample
+     * and no verdict. A cancelled probe lets the next choice probe again.
+     */
+    public void cancel() {
+        outstanding.decrementAndGet();
+        probing.set(false);
+    }
+
+    /**
+     * Reports a request already ended by cancel() as a failure, once it turns out the circuit
+     * breaker's time limiter cancelled it.
+     */
+    void timedOut(long nanos) {
+        pool.completed(this, nanos, true);
+    }
+
+    State state(long now) {
+        long until = ejectedUntil;
+        if (until == 0) return State.CLOSED;
+        return now - until < 0 ? State.OPEN : State.HALF_OPEN;
+    }
+
+    boolean isHealthy() {
+        return healthy;
+    }
+
+    /** A CLOSED, healthy endpoint; HALF_OPEN ones only receive their probe (see tryProbe). */
+    boolean isAvailable() {
+        return healthy && ejectedUntil == 0;
+    }
+
+    boolean tryProbe(long now) {
+        return healthy && state(now) == State.HALF_OPEN && probing.compareAndSet(false, true);
+    }
+
+    void begin() {
+        outstanding.incrementAndGet();
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    synchronized double cost(long now) {
+        int inFlight = outstanding.get();
+        if (ewma == 0 && inFlight > 0) return PENALTY + inFlight;
+        return ewma * (inFlight + 1);
+    }
+
+    // Peak EWMA: a slower sample is taken as is, faster ones decay the average with elapsed time
+    synchronized void sample(long nanos, long now, double decayNanos) {
+        if (nanos > ewma) {
+            ewma = nanos;
+        } else {
+            double weight = Math.exp(-Math.max(0, now - lastSample) / decayNanos);
+            ewma = ewma * weight + nanos * (1 - weight);
+        }
+        lastSample = now;
+    }
+
+    // ---- passive health, called by ServicePool ----
+
+    int failed() {
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    /** @return true if this was the probe of a HALF_OPEN endpoint, which is now CLOSED. */
+    boolean succeeded() {
+        consecutiveFailures.set(0);
+        if (!probing.compareAndSet(true, false)) return false;
+        ejectedUntil = 0;
+        ejections = 0;
+        return true;
+    }
+
+    boolean isProbing() {
+        return probing.get();
+    }
+
+    void eject(long until) {
+        ejectedUntil = until == 0 ? 1 : until; // 0 means not ejected
+        consecutiveFailures.set(0);
+        probing.set(false);
+        ejections++;
+    }
+
+    int ejections() {
+        return ejections;
+    }
+
+    // ---- active health, called by the health checker only ----
+
+    /** @return true if the verdict changed. */
+    boolean healthCheck(boolean ok, int unhealthyThreshold, int healthyThreshold) {
+        if (ok == healthy) {
+            healthStreak = 0;
+            return false;
+        }
+        if (++healthStreak < (ok ? healthyThreshold : unhealthyThreshold)) return false;
+        healthStreak = 0;
+        healthy = ok;
+        return true;
+    }
+
+    @Override
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @Override
+    public String getServiceId() {
+        return pool.getServiceId();
+    }
+
+    @Override
+    public String getHost() {
+        return uri.getHost();
+    }
+
+    @Override
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return "https".equalsIgnoreCase(uri.getScheme());
+    }
+
+    @Override
+    public URI getUri() {
+        return uri;
+    }
+
+    @Override
+    public String getScheme() {
+        return uri.getScheme();
+    }
+
+    @Override
+    public Map<String, String> getMetadata() {
+        return Map.of();
+    }
+
+    @Override
+    public String toString() {
+        return getServiceId() + "@" + instanceId;
+    }
+}
@@ -0,0 +1,62 @@
+package com.nexus.api_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Runs right after the load balancer client filter and reports how the request to the chosen
+ * Endpoint went: latency for the EWMA, outcome for passive health. A 5xx and an error count as
+ * failures. A cancellation only ends the request, unless the circuit breaker's time limiter
+ * caused it: the limiter cancels the call before its fallback records why, so that is decided
+ * when the fallback's response commits.
+ */
+public class EndpointOutcomeFilter implements GlobalFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> chosen = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !(chosen.getServer() instanceof Endpoint endpoint)) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            long elapsed = System.nanoTime() - start;
+            if (signal == SignalType.CANCEL) {
+                endpoint.cancel();
+                exchange.getResponse().beforeCommit(() -> {
+                    if (isTimeout(exchange)) endpoint.timedOut(elapsed);
+                    return Mono.empty();
+                });
+                return;
+            }
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+            endpoint.complete(elapsed, failed);
+        });
+    }
+
+    // The fallback got the limiter's TimeoutException, or without a fallback the gateway answers 504
+    private static boolean isTimeout(ServerWebExchange exchange) {
+        return exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) instanceof TimeoutException
+                || exchange.getResponse().getStatusCode() == HttpStatus.GATEWAY_TIMEOUT;
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,56 @@
+package com.nexus.api_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.util.function.Function;
+
+/**
+ * Upstream calls that filters make themselves, outside of the routing filters (background
+ * revalidation, hedged attempts). For an lb:// uri every subscription chooses an instance and
+ * reports the outcome to it, like EndpointOutcomeFilter does for routed requests: an error is a
+ * failure (callers turn 5xx responses into errors), a cancellation means the caller gave up
+ * (a lost hedge, its own timeout) and only ends the request (see Endpoint.cancel).
+ */
+@Component
+public class LoadBalancedCalls {
+
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers;
+
+    public LoadBalancedCalls(ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers) {
+        this.loadBalancers = loadBalancers;
+    }
+
+    /**
+     * @param uri the upstream uri, lb://service-id/... or a plain http(s) uri.
+     * @param request the call, given the uri of the chosen instance.
+     */
+    public <T> Mono<T> call(URI uri, Function<URI, Mono<T>> request) {
+        if (!"lb".equalsIgnoreCase(uri.getScheme())) {
+            return Mono.defer(() -> request.apply(uri));
+        }
+        String serviceId = uri.getHost();
+        return Mono.from(loadBalancers.getInstance(serviceId).choose()).flatMap(chosen -> {
+            if (!chosen.hasServer()) {
+                return Mono.error(NotFoundException.create(false, "Unable to find instance for " + serviceId));
+            }
+            ServiceInstance instance = chosen.getServer();
+            long start = System.nanoTime();
+            return request.apply(LoadBalancerUriTools.reconstructURI(instance, uri))
+                    .doFinally(signal -> {
+                        if (!(instance instanceof Endpoint endpoint)) return;
+                        if (signal == SignalType.CANCEL) {
+                            endpoint.cancel();
+                        } else {
+                            endpoint.complete(System.nanoTime() - start, signal == SignalType.ON_ERROR);
+                        }
+                    });
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.nexus.api_gateway.loadbalancer;
+
+import com.nexus.api_gateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The ServicePools of the services configured under nexus.load-balancer.services, with their
+ * background work:
+ *  - instances-file: polled every file-check-interval, re-read when its modification time changes.
+ *    An unreadable file keeps the last good instance list.
+ *  - health-check-path: every health-check-interval each instance gets a GET on the path; a 2xx
+ *    within health-check-timeout passes.
+ */
+@Component
+public class LoadBalancerRegistry implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBalancerRegistry.class);
+
+    private final Map<String, ServicePool> pools = new ConcurrentHashMap<>();
+    private final Disposable.Composite tasks = Disposables.composite();
+    private final WebClient healthClient;
+
+    public LoadBalancerRegistry(LoadBalancerProperties properties, WebClient.Builder webClientBuilder,
+                                MeterRegistry meterRegistry) {
+        this.healthClient = webClientBuilder.clone().build();
+        properties.getServices().keySet().forEach(serviceId -> {
+            LoadBalancerProperties.Service settings = properties.resolve(serviceId);
+            ServicePool pool = new ServicePool(serviceId, settings, meterRegistry);
+            pools.put(serviceId, pool);
+            if (settings.getInstancesFile() != null) {
+                watch(pool, Path.of(settings.getInstancesFile()));
+            } else {
+                pool.update(settings.getInstances());
+            }
+            if (settings.getHealthCheckPath() != null) {
+                checkHealth(pool);
+            }
+        });
+    }
+
+    /**
+     * @return the pool of a configured service, or null for services balanced by the stock round robin.
+     */
+    public ServicePool pool(String serviceId) {
+        return pools.get(serviceId);
+    }
+
+    private void watch(ServicePool pool, Path file) {
+        AtomicReference<FileTime> loaded = new AtomicReference<>();
+        Runnable reload = () -> {
+            try {
+                FileTime modified = Files.getLastModifiedTime(file);
+                if (modified.equals(loaded.get())) return;
+                pool.update(readInstances(file));
+                loaded.set(modified);
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Cannot read instances of {} from {}: {}", pool.getServiceId(), file, e.toString());
+            }
+        };
+        reload.run();
+        tasks.add(Flux.interval(pool.getSettings().getFileCheckInterval(), Schedulers.boundedElastic())
+                .subscribe(tick -> reload.run()));
+    }
+
+    private static List<URI> readInstances(Path file) throws IOException {
+        return Files.readAllLines(file).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(URI::create)
+                .toList();
+    }
+
+    private void checkHealth(ServicePool pool) {
+        LoadBalancerProperties.Service settings = pool.getSettings();
+        tasks.add(Flux.interval(settings.getHealthCheckInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Flux.fromArray(pool.endpoints())
+                        .flatMap(endpoint -> probe(endpoint, settings)
+                                .doOnNext(ok -> pool.healthCheck(endpoint, ok))))
+                .subscribe());
+    }
+
+    private Mono<Boolean> probe(Endpoint endpoint, LoadBalancerProperties.Service settings) {
+        return healthClient.get()
+                .uri(endpoint.getUri().resolve(settings.getHealthCheckPath()))
+                .exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(response.statusCode().is2xxSuccessful()))
+                .timeout(settings.getHealthCheckTimeout())
+                .onErrorReturn(false);
+    }
+
+    @Override
+    public void destroy() {
+        tasks.dispose();
+    }
+}
@@ -0,0 +1,31 @@
+package com.nexus.api_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Cloud LoadBalancer adapter of a ServicePool. The chosen ServiceInstance is the pool's
+ * Endpoint, whose request is completed by EndpointOutcomeFilter once the response is done.
+ */
+public class PoolLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ServicePool pool;
+
+    public PoolLoadBalancer(ServicePool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes") // ReactorLoadBalancer declares choose with the raw Request
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        return Mono.fromSupplier(() -> {
+            Endpoint endpoint = pool.choose();
+            return endpoint == null ? new EmptyResponse() : new DefaultResponse(endpoint);
+        });
+    }
+}
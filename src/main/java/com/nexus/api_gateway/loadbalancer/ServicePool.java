@@ -0,0 +1,194 @@
+package com.nexus.api_gateway.loadbalancer;
+
+import com.nexus.api_gateway.config.LoadBalancerProperties;
+import com.nexus.api_gateway.config.LoadBalancerProperties.Strategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The instances of one service and the choice among them.
+ *
+ * choose() scans the instance array once, allocation free: a HALF_OPEN instance gets its probe
+ * first, otherwise the strategy picks among the available (CLOSED, healthy) ones. When none is
+ * available, every instance is eligible again (panic mode): a guess beats a certain 503.
+ *
+ * Passive health: consecutive-failures failures in a row eject an instance for base-ejection-time,
+ * doubled for every failed probe up to max-ejection-time, as long as no more than
+ * max-ejection-percent of the instances are ejected. A successful probe puts it back.
+ *
+ * Metrics: gateway.loadbalancer.instances (tags: service, state=available|ejected|unhealthy) and
+ * gateway.loadbalancer.ejections (tag: service).
+ */
+public final class ServicePool {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicePool.class);
+
+    private final String serviceId;
+    private final LoadBalancerProperties.Service settings;
+    private final Strategy strategy;
+    private final double decayNanos;
+    private final Counter ejections;
+
+    private volatile Endpoint[] endpoints = new Endpoint[0];
+
+    ServicePool(String serviceId, LoadBalancerProperties.Service settings, MeterRegistry meterRegistry) {
+        this.serviceId = serviceId;
+        this.settings = settings;
+        this.strategy = settings.getStrategy();
+        this.decayNanos = settings.getEwmaDecay().toNanos();
+        this.ejections = Counter.builder("gateway.loadbalancer.ejections").tag("service", serviceId).register(meterRegistry);
+        gauge(meterRegistry, "available");
+        gauge(meterRegistry, "ejected");
+        gauge(meterRegistry, "unhealthy");
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String state) {
+        Gauge.builder("gateway.loadbalancer.instances", this, pool -> pool.count(state))
+                .tag("service", serviceId).tag("state", state)
+                .register(meterRegistry);
+    }
+
+    private double count(String state) {
+        long now = System.nanoTime();
+        int count = 0;
+        for (Endpoint endpoint : endpoints) {
+            boolean matches = switch (state) {
+                case "unhealthy" -> !endpoint.isHealthy();
+                case "ejected" -> endpoint.isHealthy() && endpoint.state(now) != Endpoint.State.CLOSED;
+                default -> endpoint.isAvailable();
+            };
+            if (matches) count++;
+        }
+        return count;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    LoadBalancerProperties.Service getSettings() {
+        return settings;
+    }
+
+    Endpoint[] endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * @return the chosen endpoint, now counting one more request in flight; null if there is none.
+     */
+    Endpoint choose() {
+        Endpoint[] all = endpoints;
+        if (all.length == 0) return null;
+        long now = System.nanoTime();
+        int available = 0;
+        for (Endpoint endpoint : all) {
+            if (endpoint.tryProbe(now)) {
+                endpoint.begin();
+                return endpoint;
+            }
+            if (endpoint.isAvailable()) available++;
+        }
+        boolean panic = available == 0;
+        int eligible = panic ? all.length : available;
+        Endpoint chosen = switch (strategy) {
+            case LEAST_OUTSTANDING -> leastOutstanding(all, panic);
+            case POWER_OF_TWO_CHOICES -> twoChoices(all, eligible, panic, false, now);
+            case PEAK_EWMA -> twoChoices(all, eligible, panic, true, now);
+        };
+        chosen.begin();
+        return chosen;
+    }
+
+    // Starts at a random instance so that ties do not always go to the first one
+    private static Endpoint leastOutstanding(Endpoint[] all, boolean panic) {
+        int start = ThreadLocalRandom.current().nextInt(all.length);
+        Endpoint best = null;
+        for (int i = 0; i < all.length; i++) {
+            Endpoint endpoint = all[(start + i) % all.length];
+            if (!panic && !endpoint.isAvailable()) continue;
+            if (best == null || endpoint.outstanding() < best.outstanding()) best = endpoint;
+        }
+        return best;
+    }
+
+    private static Endpoint twoChoices(Endpoint[] all, int eligible, boolean panic, boolean ewma, long now) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (eligible == 1) return nth(all, 0, panic);
+        int a = random.nextInt(eligible);
+        int b = random.nextInt(eligible - 1);
+        if (b >= a) b++;
+        Endpoint first = nth(all, a, panic);
+        Endpoint second = nth(all, b, panic);
+        if (ewma) return second.cost(now) < first.cost(now) ? second : first;
+        return second.outstanding() < first.outstanding() ? second : first;
+    }
+
+    private static Endpoint nth(Endpoint[] all, int n, boolean panic) {
+        if (panic) return all[n];
+        for (Endpoint endpoint : all) {
+            if (endpoint.isAvailable() && n-- == 0) return endpoint;
+        }
+        return all[0]; // availability changed under us
+    }
+
+    void completed(Endpoint endpoint, long nanos, boolean failed) {
+        long now = System.nanoTime();
+        if (!failed) {
+            endpoint.sample(nanos, now, decayNanos);
+            if (endpoint.succeeded()) log.info("{} passed its probe and is back in rotation", endpoint);
+            return;
+        }
+        boolean probe = endpoint.isProbing();
+        if (probe || endpoint.failed() >= settings.getConsecutiveFailures()) {
+            eject(endpoint, probe, now);
+        }
+    }
+
+    private synchronized void eject(Endpoint endpoint, boolean probe, long now) {
+        Endpoint[] all = endpoints;
+        if (!probe) {
+            if (endpoint.state(now) != Endpoint.State.CLOSED) return; // raced with another failure
+            int ejected = 0;
+            for (Endpoint other : all) {
+                if (other.state(now) != Endpoint.State.CLOSED) ejected++;
+            }
+            if ((ejected + 1) * 100 > settings.getMaxEjectionPercent() * all.length) return;
+        }
+        long base = settings.getBaseEjectionTime().toNanos();
+        long time = Math.min(base << Math.min(endpoint.ejections(), 20), settings.getMaxEjectionTime().toNanos());
+        endpoint.eject(now + time);
+        ejections.increment();
+        log.warn("{} ejected for {} ms ({})", endpoint, time / 1_000_000,
+                probe ? "probe failed" : settings.getConsecutiveFailures() + " consecutive failures");
+    }
+
+    void healthCheck(Endpoint endpoint, boolean ok) {
+        if (endpoint.healthCheck(ok, settings.getUnhealthyThreshold(), settings.getHealthyThreshold())) {
+            if (ok) log.info("{} passed its health checks", endpoint);
+            else log.warn("{} failed its health checks and is out of rotation", endpoint);
+        }
+    }
+
+    /**
+     * Replaces the instance list; instances still listed keep their state and statistics.
+     */
+    synchronized void update(List<URI> uris) {
+        Map<URI, Endpoint> current = new HashMap<>();
+        for (Endpoint endpoint : endpoints) current.put(endpoint.getUri(), endpoint);
+        Endpoint[] next = uris.stream().distinct()
+                .map(uri -> current.getOrDefault(uri, new Endpoint(this, uri)))
+                .toArray(Endpoint[]::new);
+        endpoints = next;
+        log.info("Service {} instances: {}", serviceId, uris);
+    }
+}
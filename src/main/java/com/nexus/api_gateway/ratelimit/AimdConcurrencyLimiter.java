@@ -0,0 +1,93 @@
+package com.nexus.api_gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive in-flight request limit for one backend (AIMD).
+ *
+ * - Additive increase: each fast, successful response while the limit is being used adds 1/limit,
+ *   i.e. about +1 per round trip of a full window.
+ * - Multiplicative decrease: a response slower than the latency threshold, a 5xx or an error
+ *   multiplies the limit by the backoff ratio.
+ *
+ * The limit therefore follows the backend's real capacity: when it slows down, excess requests
+ * are rejected immediately instead of queueing until the circuit breaker trips.
+ *
+ * The limit is a double held as raw bits in an AtomicLong and updated with a CAS loop, so
+ * concurrent samples each apply their increase or decrease.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits = new AtomicLong(); // Double.doubleToRawLongBits of the limit
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                  double backoffRatio, long latencyThresholdNanos) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Expected 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limitBits.set(Double.doubleToRawLongBits(Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+    }
+
+    /**
+     * @return true if the request may proceed; it must then be completed with onSample or onCancel.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) return false;
+            if (inFlight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    /**
+     * Releases a slot and adapts the limit from the observed round trip.
+     * @param rttNanos round-trip time of the request.
+     * @param dropped  true for a 5xx, timeout or error.
+     */
+    public void onSample(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        boolean decrease = dropped || rttNanos > latencyThresholdNanos;
+        while (true) {
+            long currentBits = limitBits.get();
+            double current = Double.longBitsToDouble(currentBits);
+            double next;
+            if (decrease) {
+                next = Math.max(minLimit, current * backoffRatio);
+            } else if (inFlightAtCompletion * 2 >= current) {
+                // Only grow while the limit is actually being used
+                next = Math.min(maxLimit, current + 1.0 / current);
+            } else {
+                return;
+            }
+            if (next == current || limitBits.compareAndSet(currentBits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot without adapting the limit (e.g. the client went away).
+     */
+    public void onCancel() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,60 @@
+package com.nexus.api_gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Node-local token buckets.
+ *
+ * Buckets live in a Caffeine map (lock-free reads, striped writes) and are evicted after
+ * being idle for idleTimeout, so one-off client IPs do not accumulate. Each bucket is only
+ * locked for its own refill-and-take, so different keys never contend.
+ */
+public class InMemoryTokenBucketBackend implements RateLimitBackend {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public InMemoryTokenBucketBackend(Duration idleTimeout, long maximumBuckets) {
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maximumBuckets)
+                .build();
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryConsume(String key, long capacity, double replenishRate) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity));
+        return Mono.just(bucket.tryConsume(capacity, replenishRate, System.nanoTime()));
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(long capacity) {
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        synchronized RateLimitDecision tryConsume(long capacity, double replenishRate, long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+            if (elapsedSeconds > 0) {
+                tokens = Math.min(capacity, tokens + elapsedSeconds * replenishRate);
+                lastRefillNanos = now;
+            }
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return RateLimitDecision.allowed((long) tokens);
+            }
+            long retryAfterMillis = (long) Math.ceil((1.0 - tokens) / replenishRate * 1000.0);
+            return RateLimitDecision.denied(retryAfterMillis);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.nexus.api_gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Storage for token buckets used by RateLimiterFilter.
+ *
+ * The default implementation (InMemoryTokenBucketBackend) is local to one gateway node.
+ * To share quotas across nodes, declare another RateLimitBackend bean backed by a shared store
+ * (e.g. an atomic script in Redis); it replaces the in-memory one.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Takes one token from the bucket identified by key, creating a full bucket if needed.
+     * @param key             bucket key (already scoped to the route).
+     * @param capacity        maximum burst size.
+     * @param replenishRate   tokens added per second.
+     */
+    Mono<RateLimitDecision> tryConsume(String key, long capacity, double replenishRate);
+}
@@ -0,0 +1,43 @@
+package com.nexus.api_gateway.ratelimit;
+
+/**
+ * Outcome of one rate-limit check.
+ */
+public final class RateLimitDecision {
+
+    private final boolean allowed;
+    private final long remaining;
+    private final long retryAfterMillis;
+
+    private RateLimitDecision(boolean allowed, long remaining, long retryAfterMillis) {
+        this.allowed = allowed;
+        this.remaining = remaining;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public static RateLimitDecision allowed(long remaining) {
+        return new RateLimitDecision(true, remaining, 0L);
+    }
+
+    public static RateLimitDecision denied(long retryAfterMillis) {
+        return new RateLimitDecision(false, 0L, retryAfterMillis);
+    }
+
+    public boolean isAllowed() {
+        return allowed;
+    }
+
+    /**
+     * @return whole tokens left in the bucket after this request.
+     */
+    public long getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * @return milliseconds until the next token is available (0 when allowed).
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
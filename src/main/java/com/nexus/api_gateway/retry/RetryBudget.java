@@ -0,0 +1,61 @@
+package com.nexus.api_gateway.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps extra attempts (retries and hedges) at a share of the traffic, so that retrying cannot
+ * multiply the load on a backend that is already struggling.
+ *
+ * An attempt is allowed while the attempts of the current and previous one-second windows stay
+ * within percent of their requests, plus min-per-second. Counters are updated without locks; a
+ * window boundary may let a few attempts more or less through.
+ */
+public final class RetryBudget {
+
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    private final double ratio;
+    private final long minPerSecond;
+
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong attempts = new AtomicLong();
+    private volatile long previousRequests;
+    private volatile long previousAttempts;
+
+    public RetryBudget(double percent, int minPerSecond) {
+        this.ratio = percent / 100.0;
+        this.minPerSecond = minPerSecond;
+    }
+
+    /** Counts a request; each one adds 'percent' of an attempt to the budget. */
+    public void deposit() {
+        roll();
+        requests.incrementAndGet();
+    }
+
+    /** @return true if an extra attempt may be sent (it is then counted against the budget). */
+    public boolean tryWithdraw() {
+        roll();
+        long allowed = minPerSecond + (long) ((requests.get() + previousRequests) * ratio);
+        if (attempts.incrementAndGet() + previousAttempts <= allowed) {
+            return true;
+        }
+        attempts.decrementAndGet();
+        return false;
+    }
+
+    private void roll() {
+        long start = windowStart.get();
+        long now = System.nanoTime();
+        if (now - start < WINDOW || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        boolean idle = now - start >= 2 * WINDOW; // the previous window saw no traffic at all
+        long lastRequests = requests.getAndSet(0);
+        long lastAttempts = attempts.getAndSet(0);
+        previousRequests = idle ? 0 : lastRequests;
+        previousAttempts = idle ? 0 : lastAttempts;
+    }
+}
@@ -0,0 +1,129 @@
+package com.nexus.api_gateway.revocation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deny-list of revoked tokens, keyed by their 'jti' claim, checked by JwtAuthFilter on every
+ * authenticated request.
+ *
+ * - A Bloom filter answers "not revoked" for almost every token without touching the exact set;
+ *   only its hits (revoked tokens and ~false-positive-rate of the others) look up the exact map.
+ * - Each entry is kept until the token's 'exp', after which the token is rejected anyway. Expired
+ *   entries are purged every purge-interval and the filter is rebuilt from what is left (it is
+ *   also rebuilt, twice as large, when the entries outgrow it).
+ * - Revocations go out through RevocationSync, and those of other nodes come in through it.
+ *
+ * Configured with jwt.revocation.expected-revocations, false-positive-rate and purge-interval.
+ * Metrics: gateway.revocations.entries and gateway.revocations.false.positives.
+ */
+@Component
+public final class RevocationStore implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationStore.class);
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>(); // jti -> exp (epoch millis)
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final RevocationSync sync;
+    private final Counter falsePositives;
+    private final Disposable.Composite tasks = Disposables.composite();
+    private volatile BloomFilter filter; // replaced under the lock, read without it
+
+    public RevocationStore(@Value("${jwt.revocation.expected-revocations:100000}") int expectedRevocations,
+                           @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${jwt.revocation.purge-interval:1m}") Duration purgeInterval,
+                           RevocationSync sync,
+                           MeterRegistry meterRegistry) {
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.sync = sync;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        this.falsePositives = Counter.builder("gateway.revocations.false.positives").register(meterRegistry);
+        Gauge.builder("gateway.revocations.entries", revoked, Map::size).register(meterRegistry);
+
+        tasks.add(Flux.interval(purgeInterval, Schedulers.boundedElastic())
+                .subscribe(tick -> purgeExpired()));
+        tasks.add(sync.revocations()
+                .subscribe(revocation -> add(revocation.tokenId(), revocation.expiresAt()),
+                        error -> log.warn("Revocation sync stopped: {}", error.toString())));
+    }
+
+    /**
+     * Revokes a token on this node and publishes the revocation to the others.
+     */
+    public Mono<Void> revoke(String tokenId, Instant expiresAt) {
+        if (!add(tokenId, expiresAt)) {
+            return Mono.empty();
+        }
+        return sync.publish(new RevocationSync.Revocation(tokenId, expiresAt))
+                .doOnError(error -> log.warn("Cannot publish revocation of {}: {}", tokenId, error.toString()))
+                .onErrorResume(error -> Mono.empty()); // still revoked here
+    }
+
+    /**
+     * The hot-path check; a Bloom filter probe for almost every token.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        if (revoked.containsKey(tokenId)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Adds and sets the filter bits under the lock, so a concurrent rebuild cannot lose the entry
+    private synchronized boolean add(String tokenId, Instant expiresAt) {
+        long exp = expiresAt.toEpochMilli();
+        if (exp <= System.currentTimeMillis() || revoked.putIfAbsent(tokenId, exp) != null) {
+            return false;
+        }
+        if (revoked.size() > filter.capacity()) {
+            rebuild(Math.max(expectedRevocations, revoked.size() * 2));
+        } else {
+            filter.add(tokenId);
+        }
+        return true;
+    }
+
+    synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (revoked.values().removeIf(exp -> exp <= now)) {
+            rebuild(Math.max(expectedRevocations, revoked.size() * 2));
+        }
+    }
+
+    private void rebuild(int capacity) {
+        BloomFilter rebuilt = new BloomFilter(capacity, falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    @Override
+    public void destroy() {
+        tasks.dispose();
+    }
+}
@@ -0,0 +1,47 @@
+package com.nexus.api_gateway.revocation;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Shares token revocations between gateway nodes.
+ *
+ * The default implementation (LOCAL) shares nothing, so a logout only takes effect on the node
+ * that served it. To share revocations, declare a RevocationSync bean backed by a shared channel
+ * (e.g. Redis pub/sub plus a sorted set of unexpired entries for nodes that start later); it
+ * replaces the local one.
+ */
+public interface RevocationSync {
+
+    RevocationSync LOCAL = new RevocationSync() {
+        @Override
+        public Mono<Void> publish(Revocation revocation) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Flux<Revocation> revocations() {
+            return Flux.never();
+        }
+    };
+
+    /**
+     * Sends a revocation made on this node to the others.
+     */
+    Mono<Void> publish(Revocation revocation);
+
+    /**
+     * Revocations made on other nodes, starting with those still in force when subscribed.
+     * Subscribed once, for the lifetime of the RevocationStore.
+     */
+    Flux<Revocation> revocations();
+
+    /**
+     * @param tokenId   the token's 'jti' claim.
+     * @param expiresAt the token's 'exp'; the revocation is dropped after it.
+     */
+    record Revocation(String tokenId, Instant expiresAt) {
+    }
+}
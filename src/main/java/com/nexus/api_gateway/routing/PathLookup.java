@@ -0,0 +1,63 @@
+package com.nexus.api_gateway.routing;
+
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Result of one trie walk over a request path: every pattern entry that matched, plus the segment
+ * bounds needed to extract variables and strip prefixes without re-parsing the path.
+ */
+final class PathLookup {
+
+    final String path;
+    private final int[] starts;
+    private final int[] ends;
+    private final int count;
+    private final List<PathTrie.Entry> matched;
+
+    PathLookup(String path, int[] starts, int[] ends, int count, List<PathTrie.Entry> matched) {
+        this.path = path;
+        this.starts = starts;
+        this.ends = ends;
+        this.count = count;
+        this.matched = matched;
+    }
+
+    boolean matches(int group) {
+        for (int i = 0; i < matched.size(); i++) {
+            if (matched.get(i).group == group) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Variables (decoded, as with the Path predicate) come from the first pattern of the group, in
+     * declaration order, that matched. The stripped path stays raw.
+     */
+    RouteMatch resolve(int group, int stripParts) {
+        PathTrie.Entry best = null;
+        for (int i = 0; i < matched.size(); i++) {
+            PathTrie.Entry entry = matched.get(i);
+            if (entry.group == group && (best == null || entry.patternIndex < best.patternIndex)) best = entry;
+        }
+        Map<String, String> variables;
+        if (best == null || best.varNames.length == 0) {
+            variables = Map.of();
+        } else {
+            variables = new LinkedHashMap<>(best.varNames.length * 2);
+            for (int i = 0; i < best.varNames.length; i++) {
+                int segment = best.varSegments[i];
+                String value = path.substring(starts[segment], ends[segment]);
+                variables.put(best.varNames[i], value.indexOf('%') < 0 ? value : StringUtils.uriDecode(value, UTF_8));
+            }
+        }
+        String strippedPath = stripParts <= 0 ? path
+                : stripParts >= count ? "/" : "/" + path.substring(starts[stripParts]);
+        return new RouteMatch(strippedPath, variables);
+    }
+}
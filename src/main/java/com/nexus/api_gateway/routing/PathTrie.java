@@ -0,0 +1,186 @@
+package com.nexus.api_gateway.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Path-segment trie over the path patterns of all routes, matched in a single walk.
+ *
+ * Supported segments: literals, '*' and '{name}' (exactly one segment) and a trailing '**'
+ * (zero or more segments). Other PathPattern features (partial wildcards, regex variables,
+ * '{*rest}') are rejected at startup; such routes should keep the stock Path predicate.
+ * Empty segments are ignored, so '/a//b/' matches like '/a/b'.
+ *
+ * Literal children are kept in an open-addressing table keyed by the segment's hash, computed
+ * over the request path in place, so matching allocates nothing but the result list.
+ */
+final class PathTrie {
+
+    /**
+     * A pattern's terminal: which group (pattern list of one predicate) it belongs to, its position
+     * in that list, and where its variables are.
+     */
+    static final class Entry {
+        final int group;
+        final int patternIndex;
+        final String[] varNames;
+        final int[] varSegments;
+
+        Entry(int group, int patternIndex, String[] varNames, int[] varSegments) {
+            this.group = group;
+            this.patternIndex = patternIndex;
+            this.varNames = varNames;
+            this.varSegments = varSegments;
+        }
+    }
+
+    private final Node root = new Node();
+
+    void add(String pattern, int group, int patternIndex) {
+        Node node = root;
+        List<String> names = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        String[] segments = segmentsOf(pattern);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' must be the last segment: " + pattern);
+                }
+                node.catchAll.add(new Entry(group, patternIndex, toArray(names), toInts(positions)));
+                return;
+            }
+            if (segment.equals("*") || isVariable(segment)) {
+                if (isVariable(segment)) {
+                    names.add(segment.substring(1, segment.length() - 1));
+                    positions.add(i);
+                }
+                if (node.wildcard == null) node.wildcard = new Node();
+                node = node.wildcard;
+                continue;
+            }
+            if (segment.indexOf('*') >= 0 || segment.indexOf('{') >= 0 || segment.indexOf('}') >= 0) {
+                throw new IllegalArgumentException("Unsupported segment '" + segment + "' in " + pattern
+                        + "; use the Path predicate for this route");
+            }
+            node = node.literals.getOrCreate(segment);
+        }
+        node.exact.add(new Entry(group, patternIndex, toArray(names), toInts(positions)));
+    }
+
+    /**
+     * Adds every entry matching the path (given as segment bounds) to 'out'.
+     */
+    void match(String path, int[] starts, int[] ends, int count, List<Entry> out) {
+        walk(root, path, starts, ends, count, 0, out);
+    }
+
+    private static void walk(Node node, String path, int[] starts, int[] ends, int count, int index, List<Entry> out) {
+        out.addAll(node.catchAll);
+        if (index == count) {
+            out.addAll(node.exact);
+            return;
+        }
+        Node literal = node.literals.get(path, starts[index], ends[index]);
+        if (literal != null) walk(literal, path, starts, ends, count, index + 1, out);
+        if (node.wildcard != null) walk(node.wildcard, path, starts, ends, count, index + 1, out);
+    }
+
+    /**
+     * Splits a path into segment bounds, skipping empty segments.
+     * @return the number of segments (arrays must hold path.length() / 2 + 1 entries).
+     */
+    static int split(String path, int[] starts, int[] ends) {
+        int count = 0;
+        int length = path.length();
+        int pos = 0;
+        while (pos < length) {
+            while (pos < length && path.charAt(pos) == '/') pos++;
+            if (pos == length) break;
+            int end = path.indexOf('/', pos);
+            if (end < 0) end = length;
+            starts[count] = pos;
+            ends[count] = end;
+            count++;
+            pos = end;
+        }
+        return count;
+    }
+
+    private static String[] segmentsOf(String pattern) {
+        return Arrays.stream(pattern.split("/")).filter(s -> !s.isEmpty()).toArray(String[]::new);
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}'
+                && segment.indexOf('*') < 0 && segment.indexOf(':') < 0;
+    }
+
+    private static String[] toArray(List<String> list) {
+        return list.toArray(new String[0]);
+    }
+
+    private static int[] toInts(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static final class Node {
+        final LiteralTable literals = new LiteralTable();
+        Node wildcard;
+        final List<Entry> exact = new ArrayList<>(1);
+        final List<Entry> catchAll = new ArrayList<>(1);
+    }
+
+    // Open addressing on String.hashCode; lookups hash the path range without creating a substring
+    private static final class LiteralTable {
+        private String[] keys = new String[4];
+        private Node[] nodes = new Node[4];
+        private int size;
+
+        Node get(String path, int start, int end) {
+            if (size == 0) return null;
+            int hash = 0;
+            for (int i = start; i < end; i++) hash = 31 * hash + path.charAt(i);
+            int length = end - start;
+            int mask = keys.length - 1;
+            for (int i = spread(hash) & mask; keys[i] != null; i = (i + 1) & mask) {
+                String key = keys[i];
+                if (key.length() == length && path.regionMatches(start, key, 0, length)) return nodes[i];
+            }
+            return null;
+        }
+
+        Node getOrCreate(String segment) {
+            Node existing = get(segment, 0, segment.length());
+            if (existing != null) return existing;
+            if ((size + 1) * 2 > keys.length) resize();
+            Node node = new Node();
+            insert(segment, node);
+            size++;
+            return node;
+        }
+
+        private void insert(String key, Node node) {
+            int mask = keys.length - 1;
+            int i = spread(key.hashCode()) & mask;
+            while (keys[i] != null) i = (i + 1) & mask;
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            Node[] oldNodes = nodes;
+            keys = new String[oldKeys.length * 2];
+            nodes = new Node[oldNodes.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) insert(oldKeys[i], oldNodes[i]);
+            }
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
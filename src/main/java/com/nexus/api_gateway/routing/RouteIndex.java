@@ -0,0 +1,150 @@
+package com.nexus.api_gateway.routing;
+
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route table shared by all IndexedPath predicates.
+ *
+ * Each predicate registers its pattern list once, as a group. The patterns of every group are
+ * compiled into one PathTrie, so a request is matched against all routes in a single walk, the
+ * first time any IndexedPath predicate is evaluated; the other routes' predicates reuse that walk
+ * (cached on the exchange) and only test their group. Route order still decides between routes,
+ * exactly as with the stock Path predicate.
+ *
+ * The StripPrefix of each route is read from the route definitions so the matched route's
+ * stripped path can be resolved together with its variables (see RouteMatch).
+ */
+@Component
+public class RouteIndex {
+
+    private static final String LOOKUP_ATTR = RouteIndex.class.getName() + ".lookup";
+    private static final String PREDICATE_NAME = "IndexedPath";
+
+    private final GatewayProperties gatewayProperties;
+
+    private final Map<String, Integer> groups = new HashMap<>();
+    private final List<List<String>> groupPatterns = new ArrayList<>();
+    private volatile Compiled compiled;
+
+    public RouteIndex(GatewayProperties gatewayProperties) {
+        this.gatewayProperties = gatewayProperties;
+    }
+
+    /**
+     * Registers a predicate's patterns, validating them up front.
+     * @return the group to test lookups against; equal pattern lists share a group.
+     */
+    public synchronized int register(List<String> patterns) {
+        String key = key(patterns);
+        Integer existing = groups.get(key);
+        if (existing != null) return existing;
+        int group = groupPatterns.size();
+        PathTrie check = new PathTrie();
+        for (int i = 0; i < patterns.size(); i++) {
+            check.add(patterns.get(i), group, i);   // fails fast on unsupported patterns
+        }
+        groups.put(key, group);
+        groupPatterns.add(List.copyOf(patterns));
+        compiled = null;
+        return group;
+    }
+
+    /**
+     * @return the lookup of the exchange's path, computed once per path and exchange.
+     */
+    PathLookup lookup(ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        PathLookup lookup = exchange.getAttribute(LOOKUP_ATTR);
+        // A forwarded exchange (e.g. to a fallback) is routed again with a different path
+        if (lookup != null && lookup.path.equals(path)) return lookup;
+        lookup = lookup(path);
+        exchange.getAttributes().put(LOOKUP_ATTR, lookup);
+        return lookup;
+    }
+
+    PathLookup lookup(String path) {
+        Compiled table = compiled();
+        int[] starts = new int[path.length() / 2 + 1];
+        int[] ends = new int[starts.length];
+        int count = PathTrie.split(path, starts, ends);
+        List<PathTrie.Entry> matched = new ArrayList<>(2);
+        table.trie.match(path, starts, ends, count, matched);
+        return new PathLookup(path, starts, ends, count, matched);
+    }
+
+    RouteMatch resolve(PathLookup lookup, int group) {
+        return lookup.resolve(group, compiled().stripParts[group]);
+    }
+
+    @EventListener(RefreshRoutesEvent.class)
+    public void onRefreshRoutes() {
+        // Route definitions (and their StripPrefix) may have changed; recompile lazily
+        compiled = null;
+    }
+
+    private Compiled compiled() {
+        Compiled table = compiled;
+        if (table == null) {
+            synchronized (this) {
+                table = compiled;
+                if (table == null) {
+                    table = compile();
+                    compiled = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    private Compiled compile() {
+        PathTrie trie = new PathTrie();
+        for (int group = 0; group < groupPatterns.size(); group++) {
+            List<String> patterns = groupPatterns.get(group);
+            for (int i = 0; i < patterns.size(); i++) {
+                trie.add(patterns.get(i), group, i);
+            }
+        }
+        int[] stripParts = new int[groupPatterns.size()];
+        for (RouteDefinition route : gatewayProperties.getRoutes()) {
+            Integer group = groupOf(route);
+            if (group != null) stripParts[group] = stripPrefixOf(route);
+        }
+        return new Compiled(trie, stripParts);
+    }
+
+    private Integer groupOf(RouteDefinition route) {
+        for (PredicateDefinition predicate : route.getPredicates()) {
+            if (PREDICATE_NAME.equals(predicate.getName())) {
+                return groups.get(key(new ArrayList<>(predicate.getArgs().values())));
+            }
+        }
+        return null;
+    }
+
+    private static int stripPrefixOf(RouteDefinition route) {
+        for (FilterDefinition filter : route.getFilters()) {
+            if ("StripPrefix".equals(filter.getName()) && !filter.getArgs().isEmpty()) {
+                return Integer.parseInt(filter.getArgs().values().iterator().next().trim());
+            }
+        }
+        return 0;
+    }
+
+    private static String key(List<String> patterns) {
+        return String.join("\n", patterns.stream().map(String::trim).toList());
+    }
+
+    private record Compiled(PathTrie trie, int[] stripParts) {}
+}
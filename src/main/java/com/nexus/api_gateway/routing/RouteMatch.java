@@ -0,0 +1,36 @@
+package com.nexus.api_gateway.routing;
+
+import java.util.Map;
+
+/**
+ * What the route lookup resolved for a request, stored in the exchange attributes
+ * (Constants.ROUTE_MATCH_ATTR) by the IndexedPath predicate of the matched route.
+ */
+public final class RouteMatch {
+
+    private final String strippedPath;
+    private final Map<String, String> variables;
+
+    RouteMatch(String strippedPath, Map<String, String> variables) {
+        this.strippedPath = strippedPath;
+        this.variables = variables;
+    }
+
+    /**
+     * @return the raw path as the backend will see it, i.e. after the route's StripPrefix.
+     */
+    public String getStrippedPath() {
+        return strippedPath;
+    }
+
+    /**
+     * @return path variables of the matched pattern, e.g. {userId=...}; read-only.
+     */
+    public Map<String, String> getVariables() {
+        return variables;
+    }
+
+    public String getVariable(String name) {
+        return variables.get(name);
+    }
+}
@@ -0,0 +1,313 @@
+package com.nexus.api_gateway.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Declarative route authorization rules compiled into a path-segment trie.
+ *
+ * A rule is: HTTP methods + path template => required roles / forbidden roles / ownership.
+ * Templates support literal segments, variables ({orderId}) and a trailing catch-all (**).
+ * Trailing and duplicate slashes are ignored, so /api/v1/orders and /api/v1/orders/ are the same.
+ *
+ * Compilation happens once (when the route is built). A check walks the request path in place,
+ * compares role bitmasks (see Roles) and does not allocate. Ownership compares the path segment at
+ * the owner variable's position in the rule's template with the token 'id'.
+ */
+public final class AuthorizationRules {
+
+    private static final int ALL_METHODS = -1;
+    private static final Node EMPTY_NODE = new Node();
+
+    private final Node root;
+
+    private AuthorizationRules(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles the given rules. Invalid templates or unknown roles fail fast at startup.
+     */
+    public static AuthorizationRules compile(List<Rule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            return new AuthorizationRules(EMPTY_NODE);
+        }
+        Node root = new Node();
+        for (Rule rule : rules) {
+            insert(root, rule);
+        }
+        return new AuthorizationRules(root);
+    }
+
+    /**
+     * Evaluates every rule matching the request.
+     * @param method    the HTTP method name (GET, POST, ...).
+     * @param path      the request path as seen by the route filter (after StripPrefix).
+     * @param principal the verified principal, or null for anonymous requests.
+     * @return the first violated rule, or null if the request is allowed. When the principal is null,
+     *         any matching rule is returned since it cannot be satisfied.
+     */
+    public CompiledRule check(String method, String path, JwtPrincipal principal) {
+        if (root == EMPTY_NODE) return null;
+        return walk(root, path, 0, methodBit(method), principal);
+    }
+
+    // ---- Matching ----
+
+    private static CompiledRule walk(Node node, String path, int pos, int methodBit, JwtPrincipal principal) {
+        // Catch-all rules apply to this node and everything below it
+        CompiledRule violated = evaluate(node.catchAllRules, path, methodBit, principal);
+        if (violated != null) return violated;
+
+        int start = skipSlashes(path, pos);
+        if (start >= path.length()) {
+            return evaluate(node.exactRules, path, methodBit, principal);
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0) end = path.length();
+        int length = end - start;
+
+        for (int i = 0; i < node.literals.length; i++) {
+            String literal = node.literals[i];
+            if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                violated = walk(node.literalChildren[i], path, end, methodBit, principal);
+                if (violated != null) return violated;
+            }
+        }
+        if (node.variableChild != null) {
+            return walk(node.variableChild, path, end, methodBit, principal);
+        }
+        return null;
+    }
+
+    private static CompiledRule evaluate(CompiledRule[] rules, String path, int methodBit, JwtPrincipal principal) {
+        for (CompiledRule rule : rules) {
+            if ((rule.methodMask & methodBit) == 0) continue;
+            if (principal == null) return rule;
+            long roleMask = principal.getRoleMask();
+            if ((roleMask & rule.denyMask) != 0) return rule;
+            if (rule.anyOfMask != 0 && (roleMask & rule.anyOfMask) == 0) return rule;
+            if (rule.ownerSegment >= 0 && !segmentEquals(path, rule.ownerSegment, principal.getId())) return rule;
+        }
+        return null;
+    }
+
+    private static boolean segmentEquals(String path, int segmentIndex, String expected) {
+        if (expected == null || expected.isEmpty()) return false;
+        int pos = 0;
+        for (int i = 0; ; i++) {
+            int start = skipSlashes(path, pos);
+            if (start >= path.length()) return false;
+            int end = path.indexOf('/', start);
+            if (end < 0) end = path.length();
+            if (i == segmentIndex) {
+                return end - start == expected.length() && path.regionMatches(start, expected, 0, expected.length());
+            }
+            pos = end;
+        }
+    }
+
+    private static int skipSlashes(String path, int pos) {
+        while (pos < path.length() && path.charAt(pos) == '/') pos++;
+        return pos;
+    }
+
+    private static int methodBit(String method) {
+        return switch (method) {
+            case "GET" -> 1;
+            case "HEAD" -> 1 << 1;
+            case "POST" -> 1 << 2;
+            case "PUT" -> 1 << 3;
+            case "PATCH" -> 1 << 4;
+            case "DELETE" -> 1 << 5;
+            case "OPTIONS" -> 1 << 6;
+            case "TRACE" -> 1 << 7;
+            default -> 1 << 8;
+        };
+    }
+
+    // ---- Compilation ----
+
+    private static void insert(Node root, Rule rule) {
+        String template = rule.getPath();
+        if (template == null || !template.startsWith("/")) {
+            throw new IllegalArgumentException("Authorization rule path must start with '/': " + template);
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : template.split("/")) {
+            if (!segment.isEmpty()) segments.add(segment);
+        }
+
+        Node node = root;
+        int ownerSegment = -1;
+        boolean catchAll = false;
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (segment.equals("**")) {
+                if (i != segments.size() - 1) {
+                    throw new IllegalArgumentException("'**' is only allowed at the end of a path: " + template);
+                }
+                catchAll = true;
+            } else if (segment.startsWith("{") && segment.endsWith("}")) {
+                if (segment.substring(1, segment.length() - 1).equals(rule.getOwner())) {
+                    ownerSegment = i;
+                }
+                if (node.variableChild == null) node.variableChild = new Node();
+                node = node.variableChild;
+            } else {
+                node = node.literalChild(segment);
+            }
+        }
+        if (rule.getOwner() != null && ownerSegment < 0) {
+            throw new IllegalArgumentException("Owner variable {" + rule.getOwner() + "} not found in " + template);
+        }
+
+        CompiledRule compiled = new CompiledRule(
+                template,
+                methodMask(rule.getMethods()),
+                Roles.requireMaskOf(rule.getRoles()),
+                Roles.requireMaskOf(rule.getDenyRoles()),
+                ownerSegment,
+                rule.getMessage() == null ? "Access denied" : rule.getMessage());
+        if (catchAll) {
+            node.catchAllRules = append(node.catchAllRules, compiled);
+        } else {
+            node.exactRules = append(node.exactRules, compiled);
+        }
+    }
+
+    private static int methodMask(List<String> methods) {
+        if (methods == null || methods.isEmpty()) return ALL_METHODS;
+        int mask = 0;
+        for (String method : methods) {
+            mask |= methodBit(method.trim().toUpperCase());
+        }
+        return mask;
+    }
+
+    private static CompiledRule[] append(CompiledRule[] rules, CompiledRule rule) {
+        CompiledRule[] copy = Arrays.copyOf(rules, rules.length + 1);
+        copy[rules.length] = rule;
+        return copy;
+    }
+
+    private static final class Node {
+        String[] literals = new String[0];
+        Node[] literalChildren = new Node[0];
+        Node variableChild;
+        CompiledRule[] exactRules = new CompiledRule[0];
+        CompiledRule[] catchAllRules = new CompiledRule[0];
+
+        Node literalChild(String literal) {
+            for (int i = 0; i < literals.length; i++) {
+                if (literals[i].equals(literal)) return literalChildren[i];
+            }
+            Node child = new Node();
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            literals[literals.length - 1] = literal;
+            literalChildren = Arrays.copyOf(literalChildren, literalChildren.length + 1);
+            literalChildren[literalChildren.length - 1] = child;
+            return child;
+        }
+    }
+
+    /**
+     * A rule after compilation: method and role sets are bitmasks.
+     */
+    public static final class CompiledRule {
+        private final String path;
+        private final int methodMask;
+        private final long anyOfMask;
+        private final long denyMask;
+        private final int ownerSegment;
+        private final String message;
+
+        CompiledRule(String path, int methodMask, long anyOfMask, long denyMask, int ownerSegment, String message) {
+            this.path = path;
+            this.methodMask = methodMask;
+            this.anyOfMask = anyOfMask;
+            this.denyMask = denyMask;
+            this.ownerSegment = ownerSegment;
+            this.message = message;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public boolean isOwnerRule() {
+            return ownerSegment >= 0;
+        }
+    }
+
+    /**
+     * Declarative rule as bound from application.yml, e.g.
+     * <pre>
+     * - methods: [PUT]
+     *   path: /api/v1/orders/{orderId}/status
+     *   roles: [SUPPLIER, FUNDER]
+     *   message: Only suppliers or funders can update order status
+     * </pre>
+     */
+    public static class Rule {
+        private List<String> methods = new ArrayList<>();  // empty = all methods
+        private String path;
+        private List<String> roles = new ArrayList<>();    // any of these is required
+        private List<String> denyRoles = new ArrayList<>(); // none of these is allowed
+        private String owner;                               // path variable that must equal the token 'id'
+        private String message;
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(List<String> roles) {
+            this.roles = roles;
+        }
+
+        public List<String> getDenyRoles() {
+            return denyRoles;
+        }
+
+        public void setDenyRoles(List<String> denyRoles) {
+            this.denyRoles = denyRoles;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public void setOwner(String owner) {
+            this.owner = owner;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
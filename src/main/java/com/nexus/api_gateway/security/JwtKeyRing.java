@@ -0,0 +1,186 @@
+package com.nexus.api_gateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signing and verification keys, resolved once at startup from JwtProperties.
+ *
+ * - HS*: one shared HMAC key from jwt.secret (no kid).
+ * - RS*, PS*, ES*: the active key signs and its kid goes into the token header; every configured
+ *   public key verifies, so tokens signed before a rotation stay valid until they expire.
+ *   If no keys are configured an ephemeral key pair is generated (development only).
+ *
+ * When jwt.secret is set alongside asymmetric keys, HS-signed tokens are still accepted,
+ * which lets a deployment move from the shared secret to asymmetric keys without a forced logout.
+ */
+@Component
+public class JwtKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private final SignatureAlgorithm algorithm;
+    private final Key signingKey;
+    private final String signingKid;
+    private final Key hmacKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final SigningKeyResolver keyResolver;
+
+    public JwtKeyRing(JwtProperties properties) {
+        this.algorithm = algorithmFor(properties.getAlgorithm());
+        this.hmacKey = properties.getSecret() == null || properties.getSecret().isBlank()
+                ? null
+                : Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getSecret()));
+
+        if (algorithm.isHmac()) {
+            if (hmacKey == null) {
+                throw new IllegalStateException("jwt.secret is required for " + algorithm.getValue());
+            }
+            this.signingKey = hmacKey;
+            this.signingKid = null;
+            this.verificationKeys = Map.of();
+        } else {
+            Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+            PrivateKey activePrivateKey = null;
+            String activeKid = properties.getActiveKid();
+
+            for (JwtProperties.KeyEntry entry : properties.getKeys()) {
+                if (entry.getKid() == null || entry.getPublicKey() == null) {
+                    throw new IllegalStateException("Every jwt.keys entry needs a kid and a public-key");
+                }
+                publicKeys.put(entry.getKid(), decodePublicKey(algorithm, entry.getPublicKey()));
+                boolean active = activeKid == null ? activePrivateKey == null : activeKid.equals(entry.getKid());
+                if (active && entry.getPrivateKey() != null) {
+                    activePrivateKey = decodePrivateKey(algorithm, entry.getPrivateKey());
+                    activeKid = entry.getKid();
+                }
+            }
+
+            if (publicKeys.isEmpty()) {
+                KeyPair pair = Keys.keyPairFor(algorithm);
+                activeKid = "ephemeral-" + UUID.randomUUID();
+                activePrivateKey = pair.getPrivate();
+                publicKeys.put(activeKid, pair.getPublic());
+                log.warn("No jwt.keys configured for {}; generated an ephemeral key pair (kid={}). "
+                        + "Tokens will not survive a restart.", algorithm.getValue(), activeKid);
+            }
+            if (activePrivateKey == null) {
+                throw new IllegalStateException("No private key found for the active kid '" + activeKid + "'");
+            }
+            this.signingKey = activePrivateKey;
+            this.signingKid = activeKid;
+            this.verificationKeys = Collections.unmodifiableMap(publicKeys);
+        }
+        this.keyResolver = new SigningKeyResolverAdapter() {
+            @Override
+            @SuppressWarnings("rawtypes") // jjwt 0.11 declares the resolver with the raw JwsHeader
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return resolve(header);
+            }
+        };
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * @return the kid written into token headers, or null for HMAC signing.
+     */
+    public String getSigningKid() {
+        return signingKid;
+    }
+
+    /**
+     * @return public keys by kid, in configuration order (empty for HMAC).
+     */
+    public Map<String, PublicKey> getVerificationKeys() {
+        return verificationKeys;
+    }
+
+    /**
+     * Resolver for a JwtParser; the parser checks that the key type matches the token's 'alg'.
+     */
+    public SigningKeyResolver keyResolver() {
+        return keyResolver;
+    }
+
+    private Key resolve(JwsHeader<?> header) {
+        SignatureAlgorithm tokenAlgorithm = SignatureAlgorithm.forName(header.getAlgorithm());
+        if (tokenAlgorithm.isHmac()) {
+            if (hmacKey == null) throw new UnsupportedJwtException("HMAC-signed tokens are not accepted");
+            return hmacKey;
+        }
+        String kid = header.getKeyId();
+        if (kid == null && verificationKeys.size() == 1) {
+            return verificationKeys.values().iterator().next();
+        }
+        PublicKey key = kid == null ? null : verificationKeys.get(kid);
+        if (key == null) throw new UnsupportedJwtException("Unknown key id: " + kid);
+        return key;
+    }
+
+    private static SignatureAlgorithm algorithmFor(String name) {
+        if ("EdDSA".equalsIgnoreCase(name) || "Ed25519".equalsIgnoreCase(name)) {
+            throw new IllegalStateException("EdDSA is not supported by jjwt 0.11; use RS256, PS256 or ES256");
+        }
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forName(name == null ? "HS256" : name);
+        if (algorithm == SignatureAlgorithm.NONE) {
+            throw new IllegalStateException("Unsigned tokens (alg=none) are not allowed");
+        }
+        return algorithm;
+    }
+
+    private static PublicKey decodePublicKey(SignatureAlgorithm algorithm, String value) {
+        try {
+            return keyFactory(algorithm).generatePublic(new X509EncodedKeySpec(derBytes(value)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid " + algorithm.getFamilyName() + " public key", e);
+        }
+    }
+
+    private static PrivateKey decodePrivateKey(SignatureAlgorithm algorithm, String value) {
+        try {
+            return keyFactory(algorithm).generatePrivate(new PKCS8EncodedKeySpec(derBytes(value)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid " + algorithm.getFamilyName() + " private key", e);
+        }
+    }
+
+    private static KeyFactory keyFactory(SignatureAlgorithm algorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(algorithm.isEllipticCurve() ? "EC" : "RSA");
+    }
+
+    // Accepts PEM (with BEGIN/END lines) or bare Base64 DER
+    private static byte[] derBytes(String value) {
+        String base64 = value.replaceAll("-----(BEGIN|END)[A-Z ]*-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -0,0 +1,101 @@
+package com.nexus.api_gateway.security;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable view of a verified JWT.
+ * Produced once per request by JwtAuthFilter and stored in the exchange attributes
+ * (see Constants.JWT_PRINCIPAL_ATTR) so route filters never re-parse the token.
+ *
+ * Roles are interned at parse time: known roles (see Roles) become bits of a mask, so a role
+ * check is one AND; roles outside the registry are kept upper-cased in a small overflow set.
+ */
+public final class JwtPrincipal {
+
+    private final String subject;
+    private final String id;
+    private final long roleMask;          // known roles as bits, see Roles
+    private final Set<String> extraRoles; // unknown roles, upper-cased
+    private final Instant expiration;
+    private final String tokenId;         // 'jti', null for tokens issued without one
+
+    public JwtPrincipal(String subject, String id, long roleMask, Set<String> extraRoles, Instant expiration) {
+        this(subject, id, roleMask, extraRoles, expiration, null);
+    }
+
+    public JwtPrincipal(String subject, String id, long roleMask, Set<String> extraRoles, Instant expiration,
+                        String tokenId) {
+        this.subject = subject;
+        this.id = id;
+        this.roleMask = roleMask;
+        this.extraRoles = extraRoles == null ? Set.of() : Set.copyOf(extraRoles);
+        this.expiration = expiration;
+        this.tokenId = tokenId;
+    }
+
+    /**
+     * Builds a principal from a plain list of role names (e.g. the 'roles' claim).
+     */
+    public static JwtPrincipal of(String subject, String id, List<String> roles, Instant expiration) {
+        return new JwtPrincipal(subject, id, Roles.maskOf(roles), Roles.unknownOf(roles), expiration);
+    }
+
+    /**
+     * @return the token subject (the user's email).
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * @return the custom 'id' claim (the user's id), may be null.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public long getRoleMask() {
+        return roleMask;
+    }
+
+    public Set<String> getExtraRoles() {
+        return extraRoles;
+    }
+
+    /**
+     * @return all role names; builds a new list, meant for logging and token issuing, not for checks.
+     */
+    public List<String> getRoles() {
+        List<String> roles = new ArrayList<>(Roles.namesOf(roleMask));
+        roles.addAll(extraRoles);
+        return roles;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * @return the 'jti' claim, the key of a revocation (see RevocationStore); null if the token has none.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * Case-insensitive role check: a mask test for known roles, a set lookup otherwise.
+     */
+    public boolean hasRole(String role) {
+        int index = Roles.indexOf(role);
+        if (index >= 0) return (roleMask & (1L << index)) != 0;
+        return role != null && !extraRoles.isEmpty() && extraRoles.contains(role.toUpperCase(Locale.ROOT));
+    }
+
+    public boolean hasAnyRole(long mask) {
+        return (roleMask & mask) != 0;
+    }
+}
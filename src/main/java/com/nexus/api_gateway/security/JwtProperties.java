@@ -0,0 +1,89 @@
+package com.nexus.api_gateway.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Signing configuration from the 'jwt' section of application.yml.
+ *
+ * HS* algorithms sign with the shared Base64 'secret'.
+ * RS*, PS* and ES* algorithms sign with the key whose kid is 'active-kid' (default: the first key)
+ * and verify with every listed key, which allows rotation: add the new key, switch active-kid,
+ * and remove the old key once its tokens have expired.
+ */
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    private String algorithm = "HS256";
+    private String secret;
+    private String activeKid;
+    private List<KeyEntry> keys = new ArrayList<>();
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public void setActiveKid(String activeKid) {
+        this.activeKid = activeKid;
+    }
+
+    public List<KeyEntry> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<KeyEntry> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * One asymmetric key. Keys are PEM or plain Base64 DER (PKCS#8 private, X.509 public).
+     * A key without a private part is verify-only (e.g. the previous key during rotation).
+     */
+    public static class KeyEntry {
+        private String kid;
+        private String privateKey;
+        private String publicKey;
+
+        public String getKid() {
+            return kid;
+        }
+
+        public void setKid(String kid) {
+            this.kid = kid;
+        }
+
+        public String getPrivateKey() {
+            return privateKey;
+        }
+
+        public void setPrivateKey(String privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        public String getPublicKey() {
+            return publicKey;
+        }
+
+        public void setPublicKey(String publicKey) {
+            this.publicKey = publicKey;
+        }
+    }
+}
@@ -1,17 +1,19 @@
 package com.nexus.api_gateway.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
@@ -23,18 +25,24 @@ import java.util.function.Function;
 public class JwtUtil {
 
     // These values are loaded from the 'jwt' section of application.yml
-    @Value("${jwt.secret}")
-    private String secret;
-
+    // (algorithm, secret and asymmetric keys are resolved by JwtKeyRing)
     @Value("${jwt.expiration}")
     private long expiration; // milliseconds
 
-    @Value("${jwt.algorithm}")
-    private String algorithm; // Not strictly used by JJWT, but good practice
+    // When true, known roles are issued as a bitmask claim ("rm") instead of a list of names
+    @Value("${jwt.compact-roles:false}")
+    private boolean compactRoles;
+
+    private static final String ROLES_CLAIM = "roles";
+    private static final String ROLE_MASK_CLAIM = "rm";
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Built once at startup; keys and JwtParser are immutable and thread-safe
+    private final JwtKeyRing keyRing;
+    private final JwtParser jwtParser;
+
+    public JwtUtil(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        this.jwtParser = Jwts.parserBuilder().setSigningKeyResolver(keyRing.keyResolver()).build();
     }
 
     /**
@@ -45,20 +53,61 @@ public class JwtUtil {
      */
     public String generateToken(String username, List<String> roles, String id) {
         Map<String, Object> claims = new HashMap<>();
-        // Store roles as a list in the token payload
-        claims.put("roles", roles);
+        if (compactRoles) {
+            // Known roles as a bitmask (see Roles); only roles outside the registry are listed by name
+            claims.put(ROLE_MASK_CLAIM, Roles.maskOf(roles));
+            Set<String> unknown = Roles.unknownOf(roles);
+            if (!unknown.isEmpty()) {
+                claims.put(ROLES_CLAIM, List.copyOf(unknown));
+            }
+        } else {
+            // Store roles as a list in the token payload
+            claims.put(ROLES_CLAIM, roles);
+        }
         claims.put("id", id);
 
         // Note: 'sub' (subject) is set to the username/email here, which serves as the ID
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (keyRing.getSigningKid() != null) {
+            // Lets verifiers (this gateway or a service using /.well-known/jwks.json) pick the key
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyRing.getSigningKid());
+        }
+        return builder
                 .setClaims(claims)
                 .setSubject(username)
+                .setId(UUID.randomUUID().toString()) // 'jti', the key for revoking this token on logout
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(keyRing.getSigningKey(), keyRing.getAlgorithm())
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of the token and reads all claims in a single parse.
+     * @param token The JWT string.
+     * @return The verified principal.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired.
+     */
+    @SuppressWarnings("unchecked")
+    public JwtPrincipal parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        Date exp = claims.getExpiration();
+        List<String> roleNames = claims.get(ROLES_CLAIM, List.class);
+        // Roles are interned here, once per token: mask for known roles, overflow set for the rest
+        long roleMask = Roles.maskOf(roleNames);
+        Object compactMask = claims.get(ROLE_MASK_CLAIM);
+        if (compactMask instanceof Number number) {
+            roleMask |= number.longValue();
+        }
+        return new JwtPrincipal(
+                claims.getSubject(),
+                claims.get("id", String.class),
+                roleMask,
+                Roles.unknownOf(roleNames),
+                exp == null ? null : exp.toInstant(),
+                claims.getId());
+    }
+
     public Boolean validateToken(String token) {
         try {
             return !isTokenExpired(token);
@@ -76,13 +125,12 @@ public class JwtUtil {
     }
 
     /**
-     * Extracts the list of roles from the JWT claims.
+     * Extracts the list of roles from the JWT claims (both list and compact encodings).
      * @param token The JWT string.
      * @return List of roles.
      */
-    @SuppressWarnings("unchecked")
     public List<String> extractRoles(String token) {
-        return extractClaim(token, claims -> claims.get("roles", List.class));
+        return parseToken(token).getRoles();
     }
 
     public Date extractExpiration(String token) {
@@ -99,6 +147,6 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,91 @@
+package com.nexus.api_gateway.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Registry of the roles known to the gateway.
+ * Each known role owns one bit, so a set of roles is a single long and a role check is one AND.
+ */
+public final class Roles {
+
+    public static final String SUPPLIER = "SUPPLIER";
+    public static final String FUNDER = "FUNDER";
+    public static final String INVESTOR = "INVESTOR";
+    public static final String ADMIN = "ADMIN";
+
+    // Index in this list == bit position. Append only: the order is part of the mask encoding.
+    private static final List<String> KNOWN = List.of(SUPPLIER, FUNDER, INVESTOR, ADMIN);
+
+    private Roles() {}
+
+    /**
+     * @return the bit index of the role (case-insensitive), or -1 if it is not a known role.
+     */
+    public static int indexOf(String role) {
+        if (role == null) return -1;
+        for (int i = 0; i < KNOWN.size(); i++) {
+            if (KNOWN.get(i).equalsIgnoreCase(role)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the bitmask of the known roles in the collection; unknown roles are ignored.
+     */
+    public static long maskOf(Collection<String> roles) {
+        if (roles == null) return 0L;
+        long mask = 0L;
+        for (String role : roles) {
+            int index = indexOf(role);
+            if (index >= 0) mask |= 1L << index;
+        }
+        return mask;
+    }
+
+    /**
+     * @return the roles of the collection that are not in the registry, upper-cased.
+     */
+    public static Set<String> unknownOf(Collection<String> roles) {
+        if (roles == null) return Set.of();
+        Set<String> unknown = null;
+        for (String role : roles) {
+            if (role != null && indexOf(role) < 0) {
+                if (unknown == null) unknown = new HashSet<>();
+                unknown.add(role.toUpperCase(Locale.ROOT));
+            }
+        }
+        return unknown == null ? Set.of() : unknown;
+    }
+
+    /**
+     * @return the names of the known roles set in the mask, in registry order.
+     */
+    public static List<String> namesOf(long mask) {
+        List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (int i = 0; i < KNOWN.size(); i++) {
+            if ((mask & (1L << i)) != 0) names.add(KNOWN.get(i));
+        }
+        return names;
+    }
+
+    /**
+     * Same as maskOf but rejects unknown roles; used when compiling configuration.
+     */
+    public static long requireMaskOf(Collection<String> roles) {
+        if (roles == null) return 0L;
+        long mask = 0L;
+        for (String role : roles) {
+            int index = indexOf(role);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown role '" + role + "', expected one of " + KNOWN);
+            }
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,153 @@
+package com.nexus.api_gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Optional cache of already verified tokens in front of JwtUtil.parseToken.
+ *
+ * - Keyed by the SHA-256 digest of the token (the bearer token itself is never kept).
+ * - Each entry expires at the token's 'exp' claim, and the cache is size bounded (W-TinyLFU).
+ * - Backed by Caffeine, which is lock-free on reads, so Netty event-loop threads do not contend.
+ * - Hit/miss/eviction statistics are published as 'cache.*' metrics (name=jwt.verified-tokens).
+ *
+ * Every call is counted in gateway.jwt.verifications (result=cached|verified|failed) unless
+ * nexus.instrumentation.enabled is false; 'verified' and 'failed' are full parses with a signature
+ * check, so their rate over the request rate is the number of signature checks per request.
+ *
+ * Configured with jwt.cache.enabled and jwt.cache.maximum-size.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, JwtPrincipal> cache; // null when disabled
+    private final Counter cached;                    // counters are null when instrumentation is disabled
+    private final Counter verified;
+    private final Counter failed;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${jwt.cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.cache.maximum-size:100000}") long maximumSize,
+                              @Value("${nexus.instrumentation.enabled:true}") boolean instrumented,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        MeterRegistry counters = instrumented ? meterRegistry.getIfAvailable() : null;
+        this.cached = counter(counters, "cached");
+        this.verified = counter(counters, "verified");
+        this.failed = counter(counters, "failed");
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    /**
+     * Returns the verified principal for the token, checking the signature only on a cache miss.
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired.
+     */
+    public JwtPrincipal verify(String token) {
+        if (cache == null) {
+            return parse(token);
+        }
+        String key = digest(token);
+        JwtPrincipal principal = cache.getIfPresent(key);
+        if (principal != null) {
+            if (cached != null) cached.increment();
+            return principal;
+        }
+        // Parse outside of the cache's compute lock; a duplicate parse on a race is harmless
+        principal = parse(token);
+        cache.put(key, principal);
+        return principal;
+    }
+
+    private JwtPrincipal parse(String token) {
+        try {
+            JwtPrincipal principal = jwtUtil.parseToken(token);
+            if (verified != null) verified.increment();
+            return principal;
+        } catch (RuntimeException e) {
+            if (failed != null) failed.increment();
+            throw e;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return registry == null ? null
+                : Counter.builder("gateway.jwt.verifications").tag("result", result).register(registry);
+    }
+
+    /**
+     * Drops a token (e.g. a revoked one) so the next request re-verifies it.
+     */
+    public void invalidate(String token) {
+        if (cache != null) {
+            cache.invalidate(digest(token));
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    /**
+     * Evicts each entry exactly when the token it was built from expires.
+     */
+    private static final class ExpireAtTokenExpiry implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal value, long currentTime) {
+            Instant exp = value.getExpiration();
+            if (exp == null) {
+                return 0L; // tokens without 'exp' are never cached
+            }
+            long millis = exp.toEpochMilli() - System.currentTimeMillis();
+            return millis <= 0 ? 0L : millis * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,28 +1,77 @@
 package com.nexus.api_gateway.service;
 
-import com.nexus.api_gateway.util.Constants;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nexus.api_gateway.config.UserServiceClientProperties;
+import com.nexus.api_gateway.dto.LoginRequest;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import reactor.core.publisher.Mono;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for communicating with the remote User Service.
  * Handles user validation and response parsing.
+ *
+ * Identical logins that are already in flight share one upstream call (single-flight), and
+ * credentials rejected by the user service are remembered for a few seconds (negative cache).
+ * Both are keyed by an HMAC of the credentials with a random per-process salt; the plaintext
+ * password is never used as a map key or stored.
  */
 @Service
 public class UserServiceClient {
 
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
     private final WebClient webClient;
+    private final String validateUri;
+    private final boolean coalesceRequests;
+    private final Map<String, Mono<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> rejectedCredentials; // null when disabled
+    private final ThreadLocal<Mac> credentialMac;
 
     /**
      * Constructor for dependency injection of WebClient.
-     * @param webClient the WebClient bean used for HTTP requests
+     * @param webClient the WebClient bean used for HTTP requests (pooled, see WebClientConfig)
+     * @param properties the user service client settings
+     * @throws IllegalStateException if nexus.user-service.validate-uri is not configured.
      */
-    public UserServiceClient(WebClient webClient) {
+    public UserServiceClient(WebClient webClient, UserServiceClientProperties properties) {
+        if (properties.getValidateUri() == null || properties.getValidateUri().isBlank()) {
+            throw new IllegalStateException("nexus.user-service.validate-uri is required");
+        }
         this.webClient = webClient;
+        this.validateUri = properties.getValidateUri();
+        this.coalesceRequests = properties.isCoalesceRequests();
+        this.rejectedCredentials = properties.getNegativeCacheTtl().isZero()
+                ? null
+                : Caffeine.newBuilder()
+                        .expireAfterWrite(properties.getNegativeCacheTtl())
+                        .maximumSize(properties.getNegativeCacheMaximumSize())
+                        .build();
+
+        byte[] salt = new byte[32];
+        new SecureRandom().nextBytes(salt);
+        SecretKeySpec saltKey = new SecretKeySpec(salt, HMAC_ALGORITHM);
+        this.credentialMac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(saltKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+            }
+        });
     }
 
     /**
@@ -30,9 +79,34 @@ public class UserServiceClient {
      * @param request the login request payload (email and password)
      * @return Mono emitting the response map from user service
      */
-    public Mono<Map<String, Object>> validateUser(Object request) {
+    public Mono<Map<String, Object>> validateUser(LoginRequest request) {
+        if (!coalesceRequests && rejectedCredentials == null) {
+            return callUserService(request);
+        }
+        return Mono.defer(() -> {
+            String key = credentialKey(request);
+            if (rejectedCredentials != null && rejectedCredentials.getIfPresent(key) != null) {
+                return Mono.error(new InvalidCredentialsException());
+            }
+            Mono<Map<String, Object>> upstream = callUserService(request);
+            Mono<Map<String, Object>> call = rejectedCredentials == null
+                    ? upstream
+                    : upstream.doOnError(InvalidCredentialsException.class, e -> rejectedCredentials.put(key, Boolean.TRUE));
+            if (!coalesceRequests) {
+                return call;
+            }
+            // Later subscribers for the same key join the first call until it terminates
+            return inFlight.computeIfAbsent(key, k -> callWithCleanup(k, call));
+        });
+    }
+
+    private Mono<Map<String, Object>> callWithCleanup(String key, Mono<Map<String, Object>> call) {
+        return call.doFinally(signal -> inFlight.remove(key)).cache();
+    }
+
+    private Mono<Map<String, Object>> callUserService(LoginRequest request) {
         // Build the POST request
-        WebClient.RequestBodySpec requestSpec = webClient.post().uri(Constants.USER_SERVICE_URI);
+        WebClient.RequestBodySpec requestSpec = webClient.post().uri(validateUri);
 
         // Set the request body
         WebClient.RequestHeadersSpec<?> headersSpec = requestSpec.bodyValue(request);
@@ -40,15 +114,42 @@ public class UserServiceClient {
         // Retrieve the response
         WebClient.ResponseSpec responseSpec = headersSpec.retrieve();
 
-        // Handle error status
-        WebClient.ResponseSpec errorHandledSpec = responseSpec.onStatus(
-                status -> status.isError(),
-                clientResponse -> Mono.error(new RuntimeException("Invalid credentials"))
-        );
+        // Handle error status: only 4xx means the credentials were rejected
+        WebClient.ResponseSpec errorHandledSpec = responseSpec
+                .onStatus(status -> status.is4xxClientError(),
+                        clientResponse -> Mono.error(new InvalidCredentialsException()))
+                .onStatus(status -> status.isError(),
+                        clientResponse -> Mono.error(new RuntimeException("Invalid credentials")));
 
         // Convert response body to Map<String, Object>
         Mono<Map<String, Object>> responseMono = errorHandledSpec.bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {});
 
         return responseMono;
     }
+
+    private String credentialKey(LoginRequest request) {
+        Mac mac = credentialMac.get();
+        mac.update(request.getEmail().getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return HexFormat.of().formatHex(mac.doFinal(request.getPassword().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return true if the call never got a response: connection pool exhausted, connect or
+     *         response timeout. The caller should answer 503 rather than blame the credentials.
+     */
+    public static boolean isUnavailable(Throwable error) {
+        return error instanceof WebClientRequestException;
+    }
+
+    /**
+     * The user service rejected the credentials (4xx), or they were rejected moments ago.
+     */
+    public static class InvalidCredentialsException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public InvalidCredentialsException() {
+            super("Invalid credentials");
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package com.nexus.api_gateway.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Head sampler that keeps the number of sampled traces near a target rate.
+ *
+ * New traces are counted per one-second window; at the end of each window the probability
+ * becomes target / (smoothed traces per second), bounded below by a minimum. A decision costs a
+ * counter increment and a random number. Children follow their parent's decision.
+ *
+ * Traces that are not sampled are still recorded (not exported) while the tail-sampling
+ * processor has room, so it can keep the slow and failed ones; otherwise they are dropped.
+ */
+public final class AdaptiveSampler implements Sampler {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final double targetPerSecond;
+    private final double minimumProbability;
+    private final TailSamplingSpanProcessor tail;    // null when tail sampling is disabled
+
+    private final LongAdder traces = new LongAdder();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private volatile double tracesPerSecond;
+    private volatile double probability = 1.0;
+
+    public AdaptiveSampler(double targetPerSecond, double minimumProbability, TailSamplingSpanProcessor tail) {
+        this.targetPerSecond = targetPerSecond;
+        this.minimumProbability = minimumProbability;
+        this.tail = tail;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        Span parentSpan = Span.fromContext(parentContext);
+        SpanContext parent = parentSpan.getSpanContext();
+        if (parent.isValid()) {
+            if (parent.isSampled()) {
+                return SamplingResult.recordAndSample();
+            }
+            if (!parent.isRemote()) {
+                return parentSpan.isRecording() ? SamplingResult.recordOnly() : SamplingResult.drop();
+            }
+            // An unsampled caller: the gateway is the edge, so it may still keep the trace if slow
+            return recordForTail();
+        }
+        traces.increment();
+        adjust();
+        if (ThreadLocalRandom.current().nextDouble() < probability) {
+            return SamplingResult.recordAndSample();
+        }
+        return recordForTail();
+    }
+
+    private SamplingResult recordForTail() {
+        return tail != null && tail.hasCapacity() ? SamplingResult.recordOnly() : SamplingResult.drop();
+    }
+
+    private void adjust() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start < WINDOW_NANOS || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        double measured = traces.sumThenReset() * 1e9 / (now - start);
+        double smoothed = tracesPerSecond == 0 ? measured : 0.5 * tracesPerSecond + 0.5 * measured;
+        tracesPerSecond = smoothed;
+        probability = smoothed <= targetPerSecond ? 1.0 : Math.max(minimumProbability, targetPerSecond / smoothed);
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    @Override
+    public String getDescription() {
+        return "AdaptiveSampler{targetPerSecond=" + targetPerSecond + ", minimumProbability=" + minimumProbability + "}";
+    }
+}
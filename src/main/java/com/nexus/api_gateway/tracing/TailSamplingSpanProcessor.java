@@ -0,0 +1,157 @@
+package com.nexus.api_gateway.tracing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tail sampling for traces the head sampler did not sample.
+ *
+ * Their spans are recorded (AdaptiveSampler returns RECORD_ONLY) and held per trace until the
+ * trace's local root span (the gateway's server span) ends. The trace is then exported if it
+ * took at least 'slow-threshold' or any span failed (error status or a 5xx outcome), and
+ * dropped otherwise. Sampled spans are left to the regular batch processor.
+ *
+ * Memory is bounded: at most 'max-traces' traces of 'max-spans-per-trace' spans, and traces whose
+ * root never ends are evicted after 'trace-timeout'. Export runs on a single background thread
+ * with a bounded queue, never on the event loop.
+ * Metric: gateway.tracing.tail (tag: decision=kept|dropped).
+ */
+public final class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+
+    private final Cache<String, TraceBuffer> traces;
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    private final long slowNanos;
+    private final ObjectProvider<SpanExporter> exporters;
+    private final ThreadPoolExecutor executor;
+    private final Counter kept;
+    private final Counter dropped;
+    private volatile SpanExporter exporter;
+
+    public TailSamplingSpanProcessor(int maxTraces, int maxSpansPerTrace, Duration slowThreshold, Duration traceTimeout,
+                                     ObjectProvider<SpanExporter> exporters, MeterRegistry meterRegistry) {
+        this.traces = Caffeine.newBuilder()
+                .maximumSize(maxTraces)
+                .expireAfterWrite(traceTimeout)
+                .build();
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.slowNanos = slowThreshold.toNanos();
+        this.exporters = exporters;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1024), runnable -> {
+            Thread thread = new Thread(runnable, "tail-sampling-export");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardOldestPolicy());
+        this.kept = Counter.builder("gateway.tracing.tail").tag("decision", "kept").register(meterRegistry);
+        this.dropped = Counter.builder("gateway.tracing.tail").tag("decision", "dropped").register(meterRegistry);
+    }
+
+    /**
+     * @return whether another trace can be held; checked by the sampler before recording one.
+     */
+    public boolean hasCapacity() {
+        return traces.estimatedSize() < maxTraces;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        if (!span.getSpanContext().isSampled() && isLocalRoot(span)) {
+            traces.put(span.getSpanContext().getTraceId(), new TraceBuffer());
+        }
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return true;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (span.getSpanContext().isSampled()) {
+            return;
+        }
+        String traceId = span.getSpanContext().getTraceId();
+        TraceBuffer buffer = traces.getIfPresent(traceId);
+        if (buffer == null) {
+            return;
+        }
+        SpanData data = span.toSpanData();
+        buffer.add(data, maxSpansPerTrace);
+        if (!isLocalRoot(span)) {
+            return;
+        }
+        traces.invalidate(traceId);
+        if (buffer.failed || span.getLatencyNanos() >= slowNanos) {
+            kept.increment();
+            List<SpanData> spans = buffer.spans();
+            executor.execute(() -> exporter().export(spans));
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        executor.shutdown();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private SpanExporter exporter() {
+        SpanExporter current = exporter;
+        if (current == null) {
+            current = SpanExporter.composite(exporters.orderedStream().toList());
+            exporter = current;
+        }
+        return current;
+    }
+
+    private static boolean isLocalRoot(ReadableSpan span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private static final class TraceBuffer {
+        private final List<SpanData> spans = new ArrayList<>();
+        private volatile boolean failed;
+
+        synchronized void add(SpanData span, int max) {
+            if (span.getStatus().getStatusCode() == StatusCode.ERROR
+                    || "SERVER_ERROR".equals(span.getAttributes().get(OUTCOME))) {
+                failed = true;
+            }
+            if (spans.size() < max) spans.add(span);
+        }
+
+        synchronized List<SpanData> spans() {
+            return new ArrayList<>(spans);
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.nexus.api_gateway.util;
 
 public final class Constants {
-    public static final String USER_SERVICE_URI = "http://localhost:3000/api/v1/auth/user/validate";
     public static final String USER_ID_HEADER = "X-User-ID";
+    // Exchange attribute holding the JwtPrincipal verified by JwtAuthFilter
+    public static final String JWT_PRINCIPAL_ATTR = "nexus.jwtPrincipal";
+    // Exchange attributes set by ResponseCacheFilter: the request's cache key, and how the response was served from the cache
+    public static final String RESPONSE_CACHE_KEY_ATTR = "nexus.responseCacheKey";
+    public static final String RESPONSE_CACHE_SERVED_ATTR = "nexus.responseCacheServed";
+    // Exchange attribute holding the RouteMatch (stripped path, path variables) set by the IndexedPath predicate
+    public static final String ROUTE_MATCH_ATTR = "nexus.routeMatch";
 }
@@ -0,0 +1,58 @@
+package com.nexus.api_gateway.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheDirectivesTests {
+
+    @Test
+    void usesTheRouteDefaultWithoutCacheControl() {
+        assertThat(CacheDirectives.parse(null).freshnessSeconds(false, 30)).isEqualTo(30);
+        assertThat(CacheDirectives.parse(List.of()).freshnessSeconds(true, 30)).isEqualTo(30);
+        assertThat(CacheDirectives.parse(null).freshnessSeconds(false, 0)).isEqualTo(-1);
+    }
+
+    @Test
+    void neverStoresNoStoreNoCacheOrPrivate() {
+        assertThat(CacheDirectives.parse(List.of("no-store")).freshnessSeconds(false, 30)).isEqualTo(-1);
+        assertThat(CacheDirectives.parse(List.of("no-cache, max-age=60")).freshnessSeconds(false, 30)).isEqualTo(-1);
+        assertThat(CacheDirectives.parse(List.of("private, max-age=60")).freshnessSeconds(false, 30)).isEqualTo(-1);
+    }
+
+    @Test
+    void prefersSharedMaxAgeOverMaxAge() {
+        CacheDirectives directives = CacheDirectives.parse(List.of("max-age=60", "s-maxage=10"));
+
+        assertThat(directives.freshnessSeconds(false, 0)).isEqualTo(10);
+        assertThat(directives.freshnessSeconds(true, 0)).isEqualTo(10);
+    }
+
+    @Test
+    void storesAuthorizedResponsesOnlyWhenMarkedPublic() {
+        assertThat(CacheDirectives.parse(List.of("max-age=60")).freshnessSeconds(true, 30)).isEqualTo(-1);
+        assertThat(CacheDirectives.parse(List.of("public, max-age=60")).freshnessSeconds(true, 30)).isEqualTo(60);
+        assertThat(CacheDirectives.parse(List.of("max-age=60")).freshnessSeconds(false, 30)).isEqualTo(60);
+    }
+
+    @Test
+    void ignoresUnknownDirectivesButNotTheirPresence() {
+        CacheDirectives directives = CacheDirectives.parse(List.of("must-revalidate"));
+
+        assertThat(directives.freshnessSeconds(false, 30)).isEqualTo(-1);
+        assertThat(CacheDirectives.parse(List.of("public")).freshnessSeconds(false, 30)).isEqualTo(30);
+    }
+
+    @Test
+    void parsesStaleExtensionsQuotedAndInvalidValues() {
+        CacheDirectives directives = CacheDirectives.parse(List.of(
+                " Max-Age=\"60\" , stale-while-revalidate=30,stale-if-error=abc"));
+
+        assertThat(directives.freshnessSeconds(false, 0)).isEqualTo(60);
+        assertThat(directives.getStaleWhileRevalidate()).isEqualTo(30);
+        assertThat(directives.getStaleIfError()).isEqualTo(-1);
+        assertThat(CacheDirectives.parse(List.of("max-age=-5")).freshnessSeconds(false, 0)).isZero();
+    }
+}
@@ -0,0 +1,58 @@
+package com.nexus.api_gateway.cache;
+
+import com.nexus.api_gateway.security.JwtPrincipal;
+import com.nexus.api_gateway.security.Roles;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+
+import static com.nexus.api_gateway.util.Constants.JWT_PRINCIPAL_ATTR;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheKeyTests {
+
+    private static ServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, List<String> roles) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        if (roles != null) {
+            exchange.getAttributes().put(JWT_PRINCIPAL_ATTR, JwtPrincipal.of("a@nexus.com", "u-1", roles, null));
+        }
+        return exchange;
+    }
+
+    @Test
+    void keysOnRouteMethodPathQueryAndAcceptEncoding() {
+        String key = CacheKey.of("product-service", exchange(MockServerHttpRequest.get("/api/v1/products?page=2")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"), null), List.of(), false);
+
+        assertThat(key).isEqualTo("product-service GET /api/v1/products?page=2|ae=gzip");
+    }
+
+    @Test
+    void separatesVaryHeaders() {
+        String english = CacheKey.of("r", exchange(MockServerHttpRequest.get("/p")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "en"), null), List.of(HttpHeaders.ACCEPT_LANGUAGE), false);
+        String french = CacheKey.of("r", exchange(MockServerHttpRequest.get("/p")
+                .header(HttpHeaders.ACCEPT_LANGUAGE, "fr"), null), List.of(HttpHeaders.ACCEPT_LANGUAGE), false);
+
+        assertThat(english).isNotEqualTo(french);
+    }
+
+    @Test
+    void sharesEntriesBetweenCallersWithTheSameRoles() {
+        String first = CacheKey.of("r", exchange(MockServerHttpRequest.get("/p"),
+                List.of(Roles.FUNDER, "AUDITOR", "BETA")), List.of(), true);
+        String second = CacheKey.of("r", exchange(MockServerHttpRequest.get("/p"),
+                List.of("BETA", Roles.FUNDER, "AUDITOR")), List.of(), true);
+        String supplier = CacheKey.of("r", exchange(MockServerHttpRequest.get("/p"),
+                List.of(Roles.SUPPLIER)), List.of(), true);
+        String anonymous = CacheKey.of("r", exchange(MockServerHttpRequest.get("/p"), null), List.of(), true);
+
+        assertThat(first).isEqualTo(second).endsWith(",AUDITOR,BETA");
+        assertThat(supplier).isNotEqualTo(first);
+        assertThat(anonymous).endsWith("|anonymous");
+    }
+}
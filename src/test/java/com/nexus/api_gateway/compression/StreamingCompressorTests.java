@@ -0,0 +1,158 @@
+package com.nexus.api_gateway.compression;
+
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import com.github.luben.zstd.ZstdInputStream;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StreamingCompressorTests {
+
+    private static final int CHUNK = 64 * 1024;
+
+    // Records every buffer it allocates (input chunks and compressed output) to check they were released
+    private final List<NettyDataBuffer> allocated = new ArrayList<>();
+    private final NettyDataBufferFactory buffers = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT) {
+        @Override
+        public NettyDataBuffer allocateBuffer(int initialCapacity) {
+            NettyDataBuffer buffer = super.allocateBuffer(initialCapacity);
+            allocated.add(buffer);
+            return buffer;
+        }
+    };
+    private final Random random = new Random(42);
+
+    private DataBuffer chunk(byte[] bytes) {
+        return buffers.allocateBuffer(bytes.length).write(bytes);
+    }
+
+    // Random bytes do not compress, so the encoder emits output for every chunk
+    private Flux<DataBuffer> incompressible(int chunks) {
+        return Flux.range(0, chunks).map(i -> {
+            byte[] bytes = new byte[CHUNK];
+            random.nextBytes(bytes);
+            return chunk(bytes);
+        });
+    }
+
+    private static byte[] text() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            body.append("{\"id\":").append(i).append(",\"status\":\"SHIPPED\"},");
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] compress(CompressionCodec codec, byte[] body, AtomicLong in, AtomicLong out) {
+        Flux<DataBuffer> chunks = Flux.range(0, (body.length + 999) / 1000)
+                .map(i -> chunk(Arrays.copyOfRange(body, i * 1000, Math.min(body.length, (i + 1) * 1000))));
+        StreamingCompressor compressor = new StreamingCompressor(codec, codec.defaultLevel(), buffers);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        compressor.compress(chunks, in::addAndGet, out::addAndGet)
+                .doOnNext(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    compressed.writeBytes(bytes);
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+        return compressed.toByteArray();
+    }
+
+    private void assertRoundTrip(CompressionCodec codec, DecoderFactory decoder) throws IOException {
+        byte[] body = text();
+        AtomicLong in = new AtomicLong();
+        AtomicLong out = new AtomicLong();
+
+        byte[] compressed = compress(codec, body, in, out);
+
+        try (InputStream decoded = decoder.open(new ByteArrayInputStream(compressed))) {
+            assertThat(decoded.readAllBytes()).isEqualTo(body);
+        }
+        assertThat(compressed.length).isLessThan(body.length / 4);
+        assertThat(in.get()).isEqualTo(body.length);
+        assertThat(out.get()).isEqualTo(compressed.length);
+        assertAllReleased();
+    }
+
+    private void assertAllReleased() {
+        assertThat(allocated).isNotEmpty()
+                .allSatisfy(buffer -> assertThat(buffer.getNativeBuffer().refCnt()).isZero());
+    }
+
+    @Test
+    void roundTripsGzip() throws IOException {
+        assertRoundTrip(new GzipCodec(), GZIPInputStream::new);
+    }
+
+    @Test
+    void roundTripsDeflate() throws IOException {
+        assertRoundTrip(new DeflateCodec(), InflaterInputStream::new);
+    }
+
+    @Test
+    void roundTripsBrotli() throws IOException {
+        BrotliCodec codec = new BrotliCodec();
+        assumeTrue(codec.isAvailable(), "brotli4j native library not available");
+        assertRoundTrip(codec, BrotliInputStream::new);
+    }
+
+    @Test
+    void roundTripsZstd() throws IOException {
+        ZstdCodec codec = new ZstdCodec();
+        assumeTrue(codec.isAvailable(), "zstd-jni native library not available");
+        assertRoundTrip(codec, ZstdInputStream::new);
+    }
+
+    @Test
+    void releasesEveryBufferWhenTheResponseIsCancelled() {
+        StreamingCompressor compressor = new StreamingCompressor(new GzipCodec(), 6, buffers);
+
+        StepVerifier.create(compressor.compress(incompressible(100), n -> { }, n -> { })
+                        .doOnNext(DataBufferUtils::release), 1)
+                .expectNextCount(1)
+                .thenCancel()
+                .verify();
+
+        assertAllReleased();
+    }
+
+    @Test
+    void releasesEveryBufferWhenTheBodyFails() {
+        StreamingCompressor compressor = new StreamingCompressor(new GzipCodec(), 6, buffers);
+        Flux<DataBuffer> failing = incompressible(3).concatWith(Flux.error(new IOException("Connection reset")));
+
+        StepVerifier.create(compressor.compress(failing, n -> { }, n -> { }).doOnNext(DataBufferUtils::release))
+                .expectNextCount(3)
+                .expectErrorMessage("Connection reset")
+                .verify();
+
+        assertAllReleased();
+    }
+
+    @FunctionalInterface
+    private interface DecoderFactory {
+        InputStream open(InputStream compressed) throws IOException;
+    }
+}
@@ -0,0 +1,104 @@
+package com.nexus.api_gateway.error;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ErrorResponseWriterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ErrorResponseWriter errors = new ErrorResponseWriter(meterRegistry);
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders"));
+    }
+
+    private static MockServerWebExchange routedToOrders() {
+        MockServerWebExchange exchange = get();
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async().id("orders")
+                .uri("http://localhost:8083").predicate(e -> true).build());
+        return exchange;
+    }
+
+    private double rejections(String reason, String route) {
+        return meterRegistry.get("gateway.rejections").tag("reason", reason).tag("route", route).counter().count();
+    }
+
+    @Test
+    void writesAProblemDocumentWithTheReasonsCodeAndDetail() throws IOException {
+        MockServerWebExchange exchange = get();
+
+        errors.prepare(ErrorReason.FORBIDDEN, "orders", "Only suppliers can update orders").write(exchange).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON);
+        String body = exchange.getResponse().getBodyAsString().block();
+        JsonNode problem = new ObjectMapper().readTree(body);
+        assertThat(problem.get("status").asInt()).isEqualTo(403);
+        assertThat(problem.get("title").asText()).isEqualTo("Forbidden");
+        assertThat(problem.get("code").asText()).isEqualTo("forbidden");
+        assertThat(problem.get("detail").asText()).isEqualTo("Only suppliers can update orders");
+        assertThat(exchange.getResponse().getHeaders().getContentLength()).isEqualTo(body.length());
+    }
+
+    @Test
+    void countsEveryRejectionByReasonAndRoute() {
+        ErrorResponseWriter.PreparedError limited = errors.prepare(ErrorReason.RATE_LIMITED, "orders");
+
+        limited.write(get()).block();
+        limited.write(get()).block();
+
+        assertThat(rejections("rate_limited", "orders")).isEqualTo(2);
+    }
+
+    @Test
+    void sendsTheSameBodyOnEveryWrite() {
+        ErrorResponseWriter.PreparedError unauthenticated = errors.prepare(ErrorReason.UNAUTHENTICATED, "orders");
+        MockServerWebExchange first = get();
+        MockServerWebExchange second = get();
+
+        unauthenticated.write(first).block();
+        unauthenticated.write(second).block();
+
+        String body = first.getResponse().getBodyAsString().block();
+        assertThat(body).contains("\"detail\":\"Missing or invalid Authorization header\"");
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(body);
+    }
+
+    @Test
+    void answersHeadWithTheHeadersOnly() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.head("/api/v1/orders"));
+
+        errors.prepare(ErrorReason.MISSING_TOKEN, "orders").write(exchange).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(exchange.getResponse().getHeaders().getContentLength()).isPositive();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEmpty();
+    }
+
+    @Test
+    void writesForTheRouteTheExchangeWasMatchedTo() {
+        MockServerWebExchange routed = routedToOrders();
+        errors.write(routed, ErrorReason.SERVICE_UNAVAILABLE).block();
+        errors.write(routedToOrders(), ErrorReason.SERVICE_UNAVAILABLE).block();
+        errors.write(get(), ErrorReason.SERVICE_UNAVAILABLE).block();
+
+        assertThat(routed.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(routed.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_TYPE))
+                .isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        assertThat(rejections("service_unavailable", "orders")).isEqualTo(2);
+        assertThat(rejections("service_unavailable", "default")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,91 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.error.ErrorResponseWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimitFilter factory =
+            new AdaptiveConcurrencyLimitFilter(meterRegistry, new ErrorResponseWriter(meterRegistry));
+    // Requests that reach the backend stay in flight until it answers
+    private final Sinks.Empty<Void> backend = Sinks.empty();
+    private final GatewayFilterChain chain = exchange -> backend.asMono();
+
+    private static AdaptiveConcurrencyLimitFilter.Config config(int initialLimit) {
+        AdaptiveConcurrencyLimitFilter.Config config = new AdaptiveConcurrencyLimitFilter.Config();
+        config.setRouteId("orders");
+        config.setInitialLimit(initialLimit);
+        config.setMinLimit(1);
+        config.setLatencyThreshold(Duration.ofSeconds(10));
+        return config;
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/orders"));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("route", "orders").gauge().value();
+    }
+
+    @Test
+    void shedsRequestsOverTheLimitWith503() {
+        GatewayFilter filter = factory.apply(config(2));
+
+        filter.filter(get(), chain).subscribe();
+        filter.filter(get(), chain).subscribe();
+        MockServerWebExchange shed = get();
+        filter.filter(shed, chain).block();
+
+        assertThat(shed.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(shed.getResponse().getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(gauge("gateway.concurrency.inflight")).isEqualTo(2);
+
+        backend.tryEmitEmpty();
+        assertThat(gauge("gateway.concurrency.inflight")).isZero();
+        assertThat(meterRegistry.get("gateway.concurrency.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheLimiterWhenARefreshKeepsTheSettings() {
+        GatewayFilter before = factory.apply(config(2));
+        before.filter(get(), chain).subscribe();
+
+        GatewayFilter after = factory.apply(config(2));
+        after.filter(get(), chain).subscribe();
+
+        assertThat(gauge("gateway.concurrency.inflight")).isEqualTo(2);
+        MockServerWebExchange shed = get();
+        after.filter(shed, chain).block();
+        assertThat(shed.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void rebuildsTheLimiterUnderTheSameMetersWhenTheSettingsChange() {
+        factory.apply(config(2));
+        assertThat(gauge("gateway.concurrency.limit")).isEqualTo(2);
+
+        GatewayFilter changed = factory.apply(config(5));
+
+        assertThat(gauge("gateway.concurrency.limit")).isEqualTo(5);
+        for (int i = 0; i < 5; i++) {
+            changed.filter(get(), chain).subscribe();
+        }
+        assertThat(gauge("gateway.concurrency.inflight")).isEqualTo(5);
+        assertThat(meterRegistry.find("gateway.concurrency.limit").gauges()).hasSize(1);
+        backend.tryEmitEmpty();
+    }
+}
@@ -0,0 +1,136 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.error.BodyTooLargeException;
+import com.nexus.api_gateway.error.ErrorResponseWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BodySizeLimitFilterTests {
+
+    private static final int CHUNK = 1024 * 1024;
+    private static final int PREFETCH = 8;
+    // Well past what the JVM could ever hold on its heap, so nothing may be aggregated
+    private static final long HEAP_CHUNKS = Runtime.getRuntime().maxMemory() / CHUNK;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BodySizeLimitFilter factory = new BodySizeLimitFilter(meterRegistry, new ErrorResponseWriter(meterRegistry));
+    // Every chunk of a body is a retained duplicate of this one buffer: nothing is allocated per
+    // chunk, and each chunk handed out and not yet released still counts in its reference count
+    private final ByteBuf shared = Unpooled.directBuffer(CHUNK).writerIndex(CHUNK);
+    private final AtomicInteger maxOutstanding = new AtomicInteger();
+
+    @AfterEach
+    void releaseShared() {
+        shared.release(shared.refCnt());
+    }
+
+    private Flux<DataBuffer> body(long chunks) {
+        NettyDataBufferFactory buffers = new NettyDataBufferFactory(shared.alloc());
+        return Flux.<DataBuffer, Long>generate(() -> 0L, (sent, sink) -> {
+            if (sent == chunks) {
+                sink.complete();
+                return sent;
+            }
+            maxOutstanding.accumulateAndGet(shared.refCnt() - 1, Math::max);
+            sink.next(buffers.wrap(shared.retainedDuplicate()));
+            return sent + 1;
+        }).hide(); // no fusion, like the inbound connection
+    }
+
+    private GatewayFilter filter(long maxRequestBytes) {
+        BodySizeLimitFilter.Config config = new BodySizeLimitFilter.Config();
+        config.setRouteId("upload");
+        config.setMaxRequestSize(DataSize.ofBytes(maxRequestBytes));
+        config.setPrefetch(PREFETCH);
+        return factory.apply(config);
+    }
+
+    private static GatewayFilterChain consuming(AtomicLong received) {
+        return exchange -> exchange.getRequest().getBody()
+                .doOnNext(buffer -> {
+                    received.addAndGet(buffer.readableByteCount());
+                    DataBufferUtils.release(buffer);
+                })
+                .then();
+    }
+
+    @Test
+    void streamsABodyLargerThanTheHeapThroughUnderTheLimit() {
+        long chunks = HEAP_CHUNKS * 2 + 1;
+        AtomicLong received = new AtomicLong();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/upload")
+                .contentLength(chunks * CHUNK)
+                .body(body(chunks)));
+
+        StepVerifier.create(filter(chunks * CHUNK).filter(exchange, consuming(received))).verifyComplete();
+
+        assertThat(received.get()).isEqualTo(chunks * CHUNK);
+        assertThat(maxOutstanding.get()).isLessThanOrEqualTo(PREFETCH);
+        assertThat(shared.refCnt()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.body.bytes").tag("direction", "request").counter().count())
+                .isEqualTo((double) chunks * CHUNK);
+        assertThat(meterRegistry.get("gateway.body.streams").tag("direction", "request").gauge().value()).isZero();
+        assertThat(meterRegistry.get("gateway.body.inflight.bytes").tag("direction", "request").gauge().value()).isZero();
+    }
+
+    @Test
+    void answers413BeforeReadingABodyWhoseContentLengthIsOverTheLimit() {
+        AtomicBoolean subscribed = new AtomicBoolean();
+        AtomicBoolean forwarded = new AtomicBoolean();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/upload")
+                .contentLength(HEAP_CHUNKS * 2 * CHUNK)
+                .body(body(HEAP_CHUNKS * 2).doOnSubscribe(s -> subscribed.set(true))));
+
+        StepVerifier.create(filter(HEAP_CHUNKS * CHUNK).filter(exchange, e -> {
+            forwarded.set(true);
+            return e.getResponse().setComplete();
+        })).verifyComplete();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+        assertThat(forwarded).isFalse();
+        assertThat(subscribed).isFalse();
+        assertThat(shared.refCnt()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.body.rejected").tag("direction", "request").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failsAChunkedBodyAsSoonAsItCrossesTheLimit() {
+        long max = HEAP_CHUNKS * CHUNK + CHUNK / 2;
+        AtomicLong received = new AtomicLong();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/upload")
+                .body(body(HEAP_CHUNKS * 4)));
+
+        StepVerifier.create(filter(max).filter(exchange, consuming(received)))
+                .expectErrorSatisfies(error -> {
+                    assertThat(error).isInstanceOf(BodyTooLargeException.class);
+                    assertThat(((BodyTooLargeException) error).getStatusCode()).isEqualTo(HttpStatus.PAYLOAD_TOO_LARGE);
+                })
+                .verify();
+
+        assertThat(received.get()).isEqualTo(HEAP_CHUNKS * CHUNK);
+        assertThat(maxOutstanding.get()).isLessThanOrEqualTo(PREFETCH);
+        // The chunk that crossed the limit and any prefetched after it are released too
+        assertThat(shared.refCnt()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.body.streams").tag("direction", "request").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,57 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.compression.DeflateCodec;
+import com.nexus.api_gateway.compression.GzipCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressionFilterTests {
+
+    private static final String BODY = "{\"status\":\"SHIPPED\"}".repeat(100);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GatewayFilter filter = new CompressionFilter(List.of(new GzipCodec(), new DeflateCodec()), meterRegistry)
+            .apply(new CompressionFilter.Config());
+
+    private MockServerWebExchange respond(MediaType contentType) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/orders")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        new ResponseDecorators().filter(exchange, forwarded -> filter.filter(forwarded, routed -> {
+            routed.getResponse().setStatusCode(HttpStatus.OK);
+            routed.getResponse().getHeaders().setContentType(contentType);
+            return routed.getResponse().writeWith(Flux.just(DefaultDataBufferFactory.sharedInstance
+                    .wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        })).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    @Test
+    void compressesAnAllowedContentType() {
+        MockServerWebExchange exchange = respond(MediaType.APPLICATION_JSON);
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(exchange.getResponse().getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void leavesServerSentEventsUncompressedAlthoughTextIsAllowed() {
+        MockServerWebExchange exchange = respond(MediaType.TEXT_EVENT_STREAM);
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+    }
+}
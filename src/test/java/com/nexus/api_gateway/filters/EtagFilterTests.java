@@ -0,0 +1,180 @@
+package com.nexus.api_gateway.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+
+class EtagFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EtagFilter factory = new EtagFilter(meterRegistry);
+    private final NettyDataBufferFactory buffers = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+    // Every body chunk the backend sent, to check what was released
+    private final List<NettyDataBuffer> sent = new ArrayList<>();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private GatewayFilter filter(DataSize maxBufferSize) {
+        EtagFilter.Config config = new EtagFilter.Config();
+        config.setRouteId("products");
+        config.setVaryOnRoles(false);
+        config.setMaxBufferSize(maxBufferSize);
+        return factory.apply(config);
+    }
+
+    private GatewayFilter filter() {
+        return filter(DataSize.ofKilobytes(1));
+    }
+
+    // Routes the request like NettyRoutingFilter: answers the status and headers, leaves the body to
+    // the write filter
+    private GatewayFilterChain backend(String etag) {
+        return exchange -> Mono.fromRunnable(() -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            if (etag != null) exchange.getResponse().getHeaders().setETag(etag);
+            exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, mock(Connection.class));
+        });
+    }
+
+    // ResponseDecorators, then NettyWriteResponseFilter writing the upstream body chunks once the
+    // route filters complete
+    private Mono<Void> handle(MockServerWebExchange exchange, GatewayFilter filter, GatewayFilterChain backend,
+                              String... chunks) {
+        return new ResponseDecorators().filter(exchange, forwarded -> filter.filter(forwarded, backend)
+                .then(Mono.defer(() -> {
+                    if (forwarded.getAttribute(CLIENT_RESPONSE_CONN_ATTR) == null) return Mono.empty();
+                    return forwarded.getResponse().writeWith(Flux.fromArray(chunks).map(this::chunk));
+                })));
+    }
+
+    private DataBuffer chunk(String text) {
+        NettyDataBuffer buffer = buffers.wrap(Unpooled.wrappedBuffer(text.getBytes(StandardCharsets.UTF_8)));
+        sent.add(buffer);
+        return buffer;
+    }
+
+    private static MockServerWebExchange get(String ifNoneMatch) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/products/7");
+        if (ifNoneMatch != null) request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return MockServerWebExchange.from(request);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("gateway.etag.requests").tag("result", result).counter().count();
+    }
+
+    private String etagOf(GatewayFilter filter) {
+        MockServerWebExchange exchange = get(null);
+        handle(exchange, filter, backend(null), "{\"id\":", "7}").block(Duration.ofSeconds(5));
+        return exchange.getResponse().getHeaders().getETag();
+    }
+
+    @Test
+    void sendsAStrongEtagComputedOverTheWholeBody() {
+        MockServerWebExchange exchange = get(null);
+
+        handle(exchange, filter(), backend(null), "{\"id\":", "7}").block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().getETag()).matches("\"[A-Za-z0-9_-]{22}\"");
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":7}");
+        assertThat(requests("full")).isEqualTo(1);
+    }
+
+    @Test
+    void answers304FromTheBackendBodyAndReleasesIt() {
+        String etag = etagOf(filter());
+        sent.clear();
+        MockServerWebExchange exchange = get(etag);
+
+        // A second route: its index has not seen the ETag, so the request reaches the backend
+        handle(exchange, filter(), backend(null), "{\"id\":", "7}").block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo(etag);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEmpty();
+        assertThat(sent).hasSize(2).allSatisfy(buffer -> assertThat(buffer.getNativeBuffer().refCnt()).isZero());
+        assertThat(requests("not_modified")).isEqualTo(1);
+    }
+
+    @Test
+    void answers304FromTheIndexWithoutReachingTheBackend() {
+        GatewayFilter filter = filter();
+        String etag = etagOf(filter);
+        MockServerWebExchange exchange = get(etag);
+
+        handle(exchange, filter, backend(null), "{\"id\":", "7}").block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(requests("not_modified_index")).isEqualTo(1);
+    }
+
+    @Test
+    void forgetsTheRoutesEtagsAfterASuccessfulUnsafeRequest() {
+        GatewayFilter filter = filter();
+        String etag = etagOf(filter);
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.POST, "/products"));
+        handle(post, filter, backend(null), "{}").block(Duration.ofSeconds(5));
+
+        MockServerWebExchange exchange = get(etag);
+        handle(exchange, filter, backend(null), "{\"id\":", "8}").block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(3);
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(requests("not_modified_index")).isZero();
+    }
+
+    @Test
+    void streamsABodyOverTheBufferLimitWithoutAnEtag() {
+        MockServerWebExchange exchange = get(null);
+
+        handle(exchange, filter(DataSize.ofBytes(8)), backend(null), "aaaaa", "bbbbb", "ccccc", "ddddd")
+                .block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getHeaders().getETag()).isNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("aaaaabbbbbcccccddddd");
+        assertThat(requests("full")).isEqualTo(1);
+    }
+
+    @Test
+    void passesABackendEtagThroughAndRemembersIt() {
+        GatewayFilter filter = filter();
+        MockServerWebExchange first = get(null);
+        handle(first, filter, backend("\"v1\""), "{\"id\":7}").block(Duration.ofSeconds(5));
+
+        MockServerWebExchange second = get("\"v1\"");
+        handle(second, filter, backend("\"v1\""), "{\"id\":7}").block(Duration.ofSeconds(5));
+
+        assertThat(first.getResponse().getHeaders().getETag()).isEqualTo("\"v1\"");
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(upstreamCalls).hasValue(1);
+    }
+}
@@ -0,0 +1,168 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.loadbalancer.LoadBalancedCalls;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class HedgingFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HedgingFilter factory = new HedgingFilter(WebClient.builder(), HttpClient.create(),
+            new LoadBalancedCalls(null), noHeaderFilters(), meterRegistry);
+    // How the backend answers its 1st, 2nd, ... call: status, delay and body
+    private final List<Answer> answers = new ArrayList<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final DisposableServer backend = HttpServer.create().port(0)
+            .handle((request, response) -> {
+                int call = calls.getAndIncrement();
+                Answer answer = answers.get(Math.min(call, answers.size() - 1));
+                return Mono.delay(answer.delay)
+                        .then(response.status(answer.status.value()).sendString(Mono.just(answer.body)).then());
+            })
+            .bindNow();
+
+    private record Answer(HttpStatus status, Duration delay, String body) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<List<HttpHeadersFilter>> noHeaderFilters() {
+        return mock(ObjectProvider.class);
+    }
+
+    @AfterEach
+    void stopBackend() {
+        backend.disposeNow();
+    }
+
+    private void answer(HttpStatus status, long delayMillis, String body) {
+        answers.add(new Answer(status, Duration.ofMillis(delayMillis), body));
+    }
+
+    private static HedgingFilter.Config config() {
+        HedgingFilter.Config config = new HedgingFilter.Config();
+        config.setRouteId("products");
+        config.setDelay(Duration.ofMillis(50));
+        config.setPercentile(0);
+        config.setRetryBackoff(Duration.ofMillis(1));
+        return config;
+    }
+
+    private MockServerWebExchange send(GatewayFilter filter, MockServerHttpRequest request, AtomicBoolean chained) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async().id("products")
+                .uri("http://localhost:" + backend.port()).predicate(e -> true).build());
+        filter.filter(exchange, e -> {
+            chained.set(true);
+            return e.getResponse().setComplete();
+        }).block(Duration.ofSeconds(5));
+        return exchange;
+    }
+
+    private MockServerWebExchange get(GatewayFilter filter) {
+        return send(filter, MockServerHttpRequest.get("/products/7").build(), new AtomicBoolean());
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    @Test
+    void aHedgeAnswersWhenThePrimaryIsSlowerThanTheDelay() {
+        answer(HttpStatus.OK, 2_000, "primary");
+        answer(HttpStatus.OK, 0, "hedge");
+
+        MockServerWebExchange exchange = get(factory.apply(config()));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("hedge");
+        assertThat(calls).hasValue(2);
+        assertThat(count("gateway.hedging.wins", "winner", "hedge")).isEqualTo(1);
+        // The cancelled primary has no latency to report
+        assertThat(meterRegistry.get("gateway.hedging.primary.time").timer().count()).isZero();
+    }
+
+    @Test
+    void thePrimaryAnswersAloneWhenFasterThanTheDelay() {
+        answer(HttpStatus.OK, 0, "primary");
+
+        MockServerWebExchange exchange = get(factory.apply(config()));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("primary");
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.get("gateway.hedging.primary.time").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesA5xx() {
+        answer(HttpStatus.SERVICE_UNAVAILABLE, 0, "down");
+        answer(HttpStatus.OK, 0, "up");
+        HedgingFilter.Config config = config();
+        config.setHedges(0);
+
+        MockServerWebExchange exchange = get(factory.apply(config));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("up");
+        assertThat(count("gateway.hedging.attempts", "kind", "retry")).isEqualTo(1);
+    }
+
+    @Test
+    void answersTheBackends5xxWhenEveryAttemptFails() {
+        answer(HttpStatus.BAD_GATEWAY, 0, "down");
+        HedgingFilter.Config config = config();
+        config.setHedges(0);
+
+        MockServerWebExchange exchange = get(factory.apply(config));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.BAD_GATEWAY);
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("down");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void sendsNoExtraAttemptOnceTheBudgetIsSpent() {
+        answer(HttpStatus.OK, 200, "primary");
+        HedgingFilter.Config config = config();
+        config.setBudgetPercent(0);
+        config.setMinRetriesPerSecond(0);
+
+        MockServerWebExchange exchange = get(factory.apply(config));
+
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("primary");
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.get("gateway.hedging.budget.exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void passesOtherMethodsDownTheChainUntouched() {
+        answer(HttpStatus.OK, 0, "created");
+        AtomicBoolean chained = new AtomicBoolean();
+
+        send(factory.apply(config()), MockServerHttpRequest.post("/api/v1/orders").build(), chained);
+
+        assertThat(chained).isTrue();
+        assertThat(calls).hasValue(0);
+    }
+}
@@ -0,0 +1,122 @@
+package com.nexus.api_gateway.filters;
+
+import com.nexus.api_gateway.cache.ResponseCache;
+import com.nexus.api_gateway.loadbalancer.LoadBalancedCalls;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+
+class ResponseCacheFilterTests {
+
+    private static final String BODY = "{\"id\":42}";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCache cache = new ResponseCache(DataSize.ofMegabytes(1), false,
+            new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class));
+    private final ResponseCacheFilter factory = new ResponseCacheFilter(cache, WebClient.builder(),
+            new LoadBalancedCalls(null), meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private GatewayFilter filter() {
+        ResponseCacheFilter.Config config = new ResponseCacheFilter.Config();
+        config.setRouteId("orders");
+        config.setVaryOnRoles(false);
+        return factory.apply(config);
+    }
+
+    // Routes the request like NettyRoutingFilter: answers the status and headers, leaves the body to
+    // the write filter
+    private GatewayFilterChain backend(String cacheControl) {
+        return exchange -> Mono.delay(Duration.ofMillis(20)).then(Mono.fromRunnable(() -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setCacheControl(cacheControl);
+            exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, mock(Connection.class));
+        }));
+    }
+
+    // ResponseDecorators, then NettyWriteResponseFilter writing the upstream body (a little later)
+    // once the route filters complete
+    private Mono<Void> handle(MockServerWebExchange exchange, GatewayFilter filter, GatewayFilterChain backend) {
+        return new ResponseDecorators().filter(exchange, forwarded -> filter.filter(forwarded, backend)
+                .then(Mono.defer(() -> {
+                    if (forwarded.getAttribute(CLIENT_RESPONSE_CONN_ATTR) == null) return Mono.empty();
+                    return forwarded.getResponse().writeWith(Mono.delay(Duration.ofMillis(50))
+                            .thenMany(Flux.just(DefaultDataBufferFactory.sharedInstance
+                                    .wrap(BODY.getBytes(StandardCharsets.UTF_8)))));
+                })));
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/orders/42"));
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamCallUntilTheBodyIsWritten() {
+        GatewayFilter filter = filter();
+        GatewayFilterChain backend = backend("public, max-age=60");
+        MockServerWebExchange first = get();
+        MockServerWebExchange second = get();
+
+        Mono.when(handle(first, filter, backend),
+                Mono.delay(Duration.ofMillis(5)).then(handle(second, filter, backend))).block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(meterRegistry.get("gateway.cache.requests").tag("result", "collapsed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void waitersFetchThemselvesWhenTheResponseIsNotCacheable() {
+        GatewayFilter filter = filter();
+        GatewayFilterChain backend = backend("private");
+        MockServerWebExchange first = get();
+        MockServerWebExchange second = get();
+
+        Mono.when(handle(first, filter, backend),
+                Mono.delay(Duration.ofMillis(5)).then(handle(second, filter, backend))).block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(second.getResponse().getHeaders().getFirst(HttpHeaders.CACHE_CONTROL)).isEqualTo("private");
+    }
+
+    @Test
+    void servesTheStoredCopyWithoutTheBackendOnceFetched() {
+        GatewayFilter filter = filter();
+        GatewayFilterChain backend = backend("public, max-age=60");
+        handle(get(), filter, backend).block(Duration.ofSeconds(5));
+
+        MockServerWebExchange again = get();
+        handle(again, filter, backend).block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(again.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        assertThat(again.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+    }
+}
@@ -0,0 +1,120 @@
+package com.nexus.api_gateway.loadbalancer;
+
+import com.nexus.api_gateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+class EndpointOutcomeFilterTests {
+
+    private static final URI A = URI.create("http://a:8080");
+    private static final URI B = URI.create("http://b:8080");
+
+    private final EndpointOutcomeFilter filter = new EndpointOutcomeFilter();
+    private final ServicePool pool = pool();
+    private final Endpoint a = pool.endpoints()[0];
+
+    private static ServicePool pool() {
+        LoadBalancerProperties.Service service = new LoadBalancerProperties.Service();
+        service.setConsecutiveFailures(2);
+        service.setBaseEjectionTime(Duration.ofMinutes(1));
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.getServices().put("svc", service);
+        ServicePool pool = new ServicePool("svc", properties.resolve("svc"), new SimpleMeterRegistry());
+        pool.update(List.of(A, B));
+        return pool;
+    }
+
+    // A request routed to 'a' by the load balancer client filter
+    private MockServerWebExchange routedToA() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/products"));
+        a.begin();
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(a));
+        return exchange;
+    }
+
+    private void respond(HttpStatus status) {
+        MockServerWebExchange exchange = routedToA();
+        filter.filter(exchange, routed -> {
+            routed.getResponse().setStatusCode(status);
+            return Mono.empty();
+        }).block();
+    }
+
+    // The chain is cancelled mid-request; then whoever answers instead commits the response
+    private void cancelThenAnswer(HttpStatus status, Throwable circuitBreakerError) {
+        MockServerWebExchange exchange = routedToA();
+        GatewayFilterChain pending = routed -> Mono.never();
+        Disposable request = filter.filter(exchange, pending).subscribe();
+        request.dispose();
+        assertThat(a.outstanding()).isZero();
+
+        if (circuitBreakerError != null) {
+            exchange.getAttributes().put(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR, circuitBreakerError);
+        }
+        exchange.getResponse().setStatusCode(status);
+        exchange.getResponse().setComplete().block();
+    }
+
+    private Endpoint.State state() {
+        return a.state(System.nanoTime());
+    }
+
+    @Test
+    void countsConsecutive5xxAsFailures() {
+        respond(HttpStatus.BAD_GATEWAY);
+        respond(HttpStatus.BAD_GATEWAY);
+
+        assertThat(state()).isEqualTo(Endpoint.State.OPEN);
+        assertThat(a.outstanding()).isZero();
+    }
+
+    @Test
+    void aCancelledRequestIsNeitherAFailureNorALatencySample() {
+        cancelThenAnswer(HttpStatus.OK, null);
+        cancelThenAnswer(HttpStatus.SERVICE_UNAVAILABLE, new IllegalStateException("client went away"));
+        cancelThenAnswer(HttpStatus.OK, null);
+
+        assertThat(state()).isEqualTo(Endpoint.State.CLOSED);
+        assertThat(a.cost(System.nanoTime())).isZero();
+    }
+
+    @Test
+    void aRequestCancelledByTheTimeLimiterIsAFailure() {
+        cancelThenAnswer(HttpStatus.SERVICE_UNAVAILABLE, new TimeoutException("TimeLimiter"));
+        assertThat(state()).isEqualTo(Endpoint.State.CLOSED);
+
+        cancelThenAnswer(HttpStatus.GATEWAY_TIMEOUT, null); // no fallback configured
+
+        assertThat(state()).isEqualTo(Endpoint.State.OPEN);
+    }
+
+    @Test
+    void aCancelledProbeLetsTheNextChoiceProbe() throws InterruptedException {
+        ServicePool pool = pool();
+        Endpoint b = pool.endpoints()[1];
+        b.eject(System.nanoTime() + Duration.ofMillis(10).toNanos());
+        Thread.sleep(20);
+        assertThat(b.tryProbe(System.nanoTime())).isTrue();
+
+        b.begin();
+        b.cancel();
+
+        assertThat(b.tryProbe(System.nanoTime())).isTrue();
+    }
+}
@@ -0,0 +1,97 @@
+package com.nexus.api_gateway.loadbalancer;
+
+import com.nexus.api_gateway.config.LoadBalancerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoadBalancedCallsTests {
+
+    private static final URI A = URI.create("http://a:8080");
+
+    private ServicePool pool;
+    private Endpoint a;
+    private LoadBalancedCalls calls;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        LoadBalancerProperties.Service service = new LoadBalancerProperties.Service();
+        service.setConsecutiveFailures(2);
+        service.setBaseEjectionTime(Duration.ofMinutes(1));
+        service.setMaxEjectionPercent(100);
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.getServices().put("svc", service);
+        pool = new ServicePool("svc", properties.resolve("svc"), new SimpleMeterRegistry());
+        pool.update(List.of(A));
+        a = pool.endpoints()[0];
+        ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancers = mock(ReactiveLoadBalancer.Factory.class);
+        when(loadBalancers.getInstance("svc")).thenReturn(new PoolLoadBalancer(pool));
+        calls = new LoadBalancedCalls(loadBalancers);
+    }
+
+    @Test
+    void sendsAnLbCallToTheChosenInstance() {
+        AtomicReference<URI> target = new AtomicReference<>();
+
+        calls.call(URI.create("lb://svc/products/7?x=1"), uri -> {
+            target.set(uri);
+            return Mono.just("ok");
+        }).block();
+
+        assertThat(target.get()).isEqualTo(URI.create("http://a:8080/products/7?x=1"));
+        assertThat(a.outstanding()).isZero();
+        assertThat(a.cost(System.nanoTime())).isPositive();
+    }
+
+    @Test
+    void countsErrorsAsFailures() {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> calls.call(URI.create("lb://svc/products"),
+                    uri -> Mono.error(new IllegalStateException("503"))).block())
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(a.state(System.nanoTime())).isEqualTo(Endpoint.State.OPEN);
+    }
+
+    @Test
+    void aCancelledCallOnlyStopsCountingAsInFlight() {
+        for (int i = 0; i < 2; i++) {
+            Disposable call = calls.call(URI.create("lb://svc/products"), uri -> Mono.never()).subscribe();
+            assertThat(a.outstanding()).isEqualTo(1);
+            call.dispose();
+        }
+
+        assertThat(a.outstanding()).isZero();
+        assertThat(a.state(System.nanoTime())).isEqualTo(Endpoint.State.CLOSED);
+        assertThat(a.cost(System.nanoTime())).isZero(); // no latency sample either
+    }
+
+    @Test
+    void callsAPlainUriDirectly() {
+        AtomicReference<URI> target = new AtomicReference<>();
+
+        calls.call(URI.create("http://other:9090/x"), uri -> {
+            target.set(uri);
+            return Mono.just("ok");
+        }).block();
+
+        assertThat(target.get()).isEqualTo(URI.create("http://other:9090/x"));
+        assertThat(a.outstanding()).isZero();
+    }
+}
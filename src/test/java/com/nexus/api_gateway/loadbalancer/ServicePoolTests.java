@@ -0,0 +1,183 @@
+package com.nexus.api_gateway.loadbalancer;
+
+import com.nexus.api_gateway.config.LoadBalancerProperties;
+import com.nexus.api_gateway.config.LoadBalancerProperties.Strategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ServicePoolTests {
+
+    private static final URI A = URI.create("http://a:8080");
+    private static final URI B = URI.create("http://b:8080");
+    private static final URI C = URI.create("http://c:8080");
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private ServicePool pool(Strategy strategy, URI... instances) {
+        LoadBalancerProperties.Service service = new LoadBalancerProperties.Service();
+        service.setStrategy(strategy);
+        service.setConsecutiveFailures(2);
+        service.setBaseEjectionTime(Duration.ofMillis(100));
+        service.setMaxEjectionTime(Duration.ofMillis(400));
+        service.setMaxEjectionPercent(50);
+        LoadBalancerProperties properties = new LoadBalancerProperties();
+        properties.getServices().put("svc", service);
+        ServicePool pool = new ServicePool("svc", properties.resolve("svc"), registry);
+        pool.update(List.of(instances));
+        return pool;
+    }
+
+    private static Endpoint endpoint(ServicePool pool, URI uri) {
+        for (Endpoint endpoint : pool.endpoints()) {
+            if (endpoint.getUri().equals(uri)) return endpoint;
+        }
+        throw new IllegalArgumentException(uri.toString());
+    }
+
+    // Sends one request to the instance and completes it
+    private static void request(ServicePool pool, URI uri, long nanos, boolean failed) {
+        Endpoint target = endpoint(pool, uri);
+        target.begin();
+        target.complete(nanos, failed);
+    }
+
+    private double instances(String state) {
+        return registry.get("gateway.loadbalancer.instances").tag("state", state).gauge().value();
+    }
+
+    @Test
+    void peakEwmaPrefersTheFasterInstance() {
+        ServicePool pool = pool(Strategy.PEAK_EWMA, A, B);
+        request(pool, A, 100 * MS, false);
+        request(pool, B, MS, false);
+
+        for (int i = 0; i < 20; i++) {
+            Endpoint chosen = pool.choose();
+            assertThat(chosen.getUri()).isEqualTo(B);
+            chosen.complete(MS, false);
+        }
+    }
+
+    @Test
+    void peakEwmaTakesSlowSamplesAtOnceAndDecaysFastOnes() {
+        Endpoint endpoint = pool(Strategy.PEAK_EWMA, A).endpoints()[0];
+        long now = System.nanoTime();
+
+        endpoint.sample(10 * MS, now, 1_000 * MS);
+        endpoint.sample(100 * MS, now, 1_000 * MS);
+        assertThat(endpoint.cost(now)).isEqualTo(100.0 * MS);
+
+        endpoint.sample(10 * MS, now + 1_000 * MS, 1_000 * MS); // weight 1/e for the old average
+        assertThat(endpoint.cost(now)).isCloseTo(100 * MS / Math.E + 10 * MS * (1 - 1 / Math.E), within(1.0));
+    }
+
+    @Test
+    void peakEwmaAvoidsBusyInstancesWithoutSamples() {
+        ServicePool pool = pool(Strategy.PEAK_EWMA, A, B);
+        request(pool, B, 50 * MS, false);
+        endpoint(pool, A).begin(); // in flight, no latency known yet
+
+        for (int i = 0; i < 20; i++) {
+            Endpoint chosen = pool.choose();
+            assertThat(chosen.getUri()).isEqualTo(B);
+            chosen.complete(50 * MS, false);
+        }
+    }
+
+    @Test
+    void leastOutstandingPicksTheLeastBusyInstance() {
+        ServicePool pool = pool(Strategy.LEAST_OUTSTANDING, A, B, C);
+        endpoint(pool, A).begin();
+        endpoint(pool, C).begin();
+
+        Endpoint chosen = pool.choose();
+
+        assertThat(chosen.getUri()).isEqualTo(B);
+        assertThat(chosen.outstanding()).isEqualTo(1);
+    }
+
+    @Test
+    void ejectsAfterConsecutiveFailuresUpToTheMaxPercent() {
+        ServicePool pool = pool(Strategy.POWER_OF_TWO_CHOICES, A, B);
+        request(pool, A, MS, true);
+        request(pool, A, MS, false); // a success resets the count
+        request(pool, A, MS, true);
+        assertThat(endpoint(pool, A).state(System.nanoTime())).isEqualTo(Endpoint.State.CLOSED);
+
+        request(pool, A, MS, true);
+        request(pool, B, MS, true);
+        request(pool, B, MS, true);
+
+        assertThat(endpoint(pool, A).state(System.nanoTime())).isEqualTo(Endpoint.State.OPEN);
+        assertThat(endpoint(pool, B).state(System.nanoTime())).isEqualTo(Endpoint.State.CLOSED); // 50% cap
+        assertThat(instances("ejected")).isEqualTo(1);
+        assertThat(registry.get("gateway.loadbalancer.ejections").counter().count()).isEqualTo(1);
+        for (int i = 0; i < 10; i++) {
+            Endpoint chosen = pool.choose();
+            assertThat(chosen.getUri()).isEqualTo(B);
+            chosen.complete(MS, false);
+        }
+    }
+
+    @Test
+    void probesOnceAfterTheEjectionAndDoublesItOnFailure() throws InterruptedException {
+        ServicePool pool = pool(Strategy.POWER_OF_TWO_CHOICES, A, B);
+        Endpoint a = endpoint(pool, A);
+        request(pool, A, MS, true);
+        request(pool, A, MS, true);
+        Thread.sleep(120);
+
+        Endpoint probe = pool.choose();
+        assertThat(probe).isSameAs(a);
+        assertThat(pool.choose().getUri()).isEqualTo(B); // one probe at a time
+        probe.complete(MS, true);
+
+        assertThat(a.state(System.nanoTime())).isEqualTo(Endpoint.State.OPEN);
+        assertThat(a.ejections()).isEqualTo(2);
+        Thread.sleep(50);
+        assertThat(a.state(System.nanoTime())).isEqualTo(Endpoint.State.OPEN); // 200ms this time
+        Thread.sleep(170);
+
+        probe = pool.choose();
+        assertThat(probe).isSameAs(a);
+        probe.complete(MS, false);
+        assertThat(a.state(System.nanoTime())).isEqualTo(Endpoint.State.CLOSED);
+        assertThat(a.ejections()).isZero();
+    }
+
+    @Test
+    void fallsBackToAllInstancesWhenNoneIsAvailable() {
+        ServicePool pool = pool(Strategy.PEAK_EWMA, A, B);
+        for (Endpoint endpoint : pool.endpoints()) {
+            pool.healthCheck(endpoint, false);
+            pool.healthCheck(endpoint, false); // unhealthy-threshold 2
+        }
+        assertThat(instances("unhealthy")).isEqualTo(2);
+
+        assertThat(pool.choose()).isNotNull();
+    }
+
+    @Test
+    void keepsTheStateOfInstancesThatStayListed() {
+        ServicePool pool = pool(Strategy.PEAK_EWMA, A, B);
+        Endpoint a = endpoint(pool, A);
+        a.begin();
+
+        pool.update(List.of(A, C));
+
+        assertThat(endpoint(pool, A)).isSameAs(a);
+        assertThat(endpoint(pool, A).outstanding()).isEqualTo(1);
+        assertThat(pool.endpoints()).extracting(Endpoint::getUri).containsExactly(A, C);
+        assertThat(pool(Strategy.PEAK_EWMA).choose()).isNull();
+    }
+}
@@ -0,0 +1,59 @@
+package com.nexus.api_gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTokenBucketBackendTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsABurstOfCapacityThenDenies() {
+        InMemoryTokenBucketBackend.TokenBucket bucket = new InMemoryTokenBucketBackend.TokenBucket(3);
+        long now = System.nanoTime();
+
+        assertThat(bucket.tryConsume(3, 1.0, now).getRemaining()).isEqualTo(2);
+        assertThat(bucket.tryConsume(3, 1.0, now).getRemaining()).isEqualTo(1);
+        assertThat(bucket.tryConsume(3, 1.0, now).getRemaining()).isZero();
+
+        RateLimitDecision denied = bucket.tryConsume(3, 1.0, now);
+        assertThat(denied.isAllowed()).isFalse();
+        assertThat(denied.getRetryAfterMillis()).isBetween(1L, 1_000L);
+    }
+
+    @Test
+    void refillsAtTheReplenishRate() {
+        InMemoryTokenBucketBackend.TokenBucket bucket = new InMemoryTokenBucketBackend.TokenBucket(2);
+        long now = System.nanoTime();
+        bucket.tryConsume(2, 4.0, now);
+        bucket.tryConsume(2, 4.0, now);
+        assertThat(bucket.tryConsume(2, 4.0, now).isAllowed()).isFalse();
+
+        // 4 tokens/s: one token after 250ms
+        assertThat(bucket.tryConsume(2, 4.0, now + SECOND / 4).isAllowed()).isTrue();
+        assertThat(bucket.tryConsume(2, 4.0, now + SECOND / 4).isAllowed()).isFalse();
+    }
+
+    @Test
+    void neverRefillsBeyondCapacity() {
+        InMemoryTokenBucketBackend.TokenBucket bucket = new InMemoryTokenBucketBackend.TokenBucket(2);
+        long later = System.nanoTime() + 60 * SECOND;
+
+        assertThat(bucket.tryConsume(2, 10.0, later).getRemaining()).isEqualTo(1);
+        assertThat(bucket.tryConsume(2, 10.0, later).getRemaining()).isZero();
+        assertThat(bucket.tryConsume(2, 10.0, later).isAllowed()).isFalse();
+    }
+
+    @Test
+    void keepsOneBucketPerKey() {
+        InMemoryTokenBucketBackend backend = new InMemoryTokenBucketBackend(Duration.ofMinutes(1), 100);
+
+        assertThat(backend.tryConsume("route|user:1", 1, 0.001).block().isAllowed()).isTrue();
+        assertThat(backend.tryConsume("route|user:1", 1, 0.001).block().isAllowed()).isFalse();
+        assertThat(backend.tryConsume("route|user:2", 1, 0.001).block().isAllowed()).isTrue();
+        assertThat(backend.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,64 @@
+package com.nexus.api_gateway.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTests {
+
+    private static int withdrawals(RetryBudget budget, int tries) {
+        int allowed = 0;
+        for (int i = 0; i < tries; i++) {
+            if (budget.tryWithdraw()) allowed++;
+        }
+        return allowed;
+    }
+
+    @Test
+    void allowsTheMinimumWithoutTraffic() {
+        RetryBudget budget = new RetryBudget(10, 3);
+
+        assertThat(withdrawals(budget, 10)).isEqualTo(3);
+    }
+
+    @Test
+    void allowsAPercentOfTheRequestsOnTopOfTheMinimum() {
+        RetryBudget budget = new RetryBudget(10, 2);
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+
+        assertThat(withdrawals(budget, 50)).isEqualTo(12);
+    }
+
+    @Test
+    void refusedAttemptsDoNotConsumeTheBudget() {
+        RetryBudget budget = new RetryBudget(50, 0);
+        budget.deposit();
+        budget.deposit();
+
+        assertThat(withdrawals(budget, 5)).isEqualTo(1);
+
+        budget.deposit();
+        budget.deposit();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void carriesThePreviousWindowOverAndForgetsIdlePeriods() throws InterruptedException {
+        RetryBudget budget = new RetryBudget(10, 0);
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertThat(withdrawals(budget, 5)).isEqualTo(5);
+
+        Thread.sleep(1_100);
+        // New window: the previous one's 100 requests and 5 attempts still count
+        assertThat(withdrawals(budget, 10)).isEqualTo(5);
+
+        Thread.sleep(2_100);
+        // Two idle seconds: nothing is carried over
+        assertThat(withdrawals(budget, 10)).isZero();
+    }
+}
@@ -0,0 +1,122 @@
+package com.nexus.api_gateway.revocation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationStoreTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RevocationSync.Revocation> published = new CopyOnWriteArrayList<>();
+    private final Sinks.Many<RevocationSync.Revocation> incoming = Sinks.many().multicast().directBestEffort();
+    private final RevocationSync sync = new RevocationSync() {
+        @Override
+        public Mono<Void> publish(Revocation revocation) {
+            return Mono.fromRunnable(() -> published.add(revocation));
+        }
+
+        @Override
+        public Flux<Revocation> revocations() {
+            return incoming.asFlux();
+        }
+    };
+    private final RevocationStore store = new RevocationStore(4, 0.01, Duration.ofHours(1), sync, meterRegistry);
+
+    @AfterEach
+    void destroy() {
+        store.destroy();
+    }
+
+    private static Instant inMinutes(int minutes) {
+        return Instant.now().plus(Duration.ofMinutes(minutes));
+    }
+
+    @Test
+    void revokesAndPublishesOnce() {
+        Instant exp = inMinutes(5);
+
+        store.revoke("jti-1", exp).block();
+        store.revoke("jti-1", exp).block();
+
+        assertThat(store.isRevoked("jti-1")).isTrue();
+        assertThat(store.isRevoked("jti-2")).isFalse();
+        assertThat(published).containsExactly(new RevocationSync.Revocation("jti-1", exp));
+        assertThat(meterRegistry.get("gateway.revocations.entries").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresTokensThatHaveAlreadyExpired() {
+        store.revoke("jti-1", Instant.now().minusSeconds(1)).block();
+
+        assertThat(store.isRevoked("jti-1")).isFalse();
+        assertThat(store.size()).isZero();
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void appliesRevocationsFromOtherNodesWithoutRepublishing() {
+        incoming.tryEmitNext(new RevocationSync.Revocation("jti-remote", inMinutes(5)));
+
+        assertThat(store.isRevoked("jti-remote")).isTrue();
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void purgesEntriesOnceTheirTokensExpire() throws InterruptedException {
+        store.revoke("jti-short", Instant.now().plusMillis(200)).block();
+        store.revoke("jti-long", inMinutes(5)).block();
+        assertThat(store.isRevoked("jti-short")).isTrue();
+
+        Thread.sleep(300);
+        store.purgeExpired();
+
+        assertThat(store.isRevoked("jti-short")).isFalse();
+        assertThat(store.isRevoked("jti-long")).isTrue();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void growsBeyondTheExpectedRevocations() {
+        for (int i = 0; i < 100; i++) {
+            store.revoke("jti-" + i, inMinutes(5)).block();
+        }
+
+        assertThat(store.size()).isEqualTo(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(store.isRevoked("jti-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void keepsTheRevocationWhenPublishingFails() {
+        RevocationSync failing = new RevocationSync() {
+            @Override
+            public Mono<Void> publish(Revocation revocation) {
+                return Mono.error(new IllegalStateException("channel down"));
+            }
+
+            @Override
+            public Flux<Revocation> revocations() {
+                return Flux.never();
+            }
+        };
+        RevocationStore local = new RevocationStore(4, 0.01, Duration.ofHours(1), failing, new SimpleMeterRegistry());
+        try {
+            local.revoke("jti-1", inMinutes(5)).block();
+
+            assertThat(local.isRevoked("jti-1")).isTrue();
+        } finally {
+            local.destroy();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.nexus.api_gateway.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathTrieTests {
+
+    private static List<PathTrie.Entry> match(PathTrie trie, String path) {
+        int[] starts = new int[path.length() / 2 + 1];
+        int[] ends = new int[starts.length];
+        int count = PathTrie.split(path, starts, ends);
+        List<PathTrie.Entry> matched = new ArrayList<>();
+        trie.match(path, starts, ends, count, matched);
+        return matched;
+    }
+
+    @Test
+    void splitsPathsIntoNonEmptySegments() {
+        String path = "//a/bc///d/";
+        int[] starts = new int[path.length() / 2 + 1];
+        int[] ends = new int[starts.length];
+
+        int count = PathTrie.split(path, starts, ends);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(path.substring(starts[1], ends[1])).isEqualTo("bc");
+        assertThat(PathTrie.split("/", starts, ends)).isZero();
+    }
+
+    @Test
+    void matchesLiteralsWildcardsAndCatchAllsTogether() {
+        PathTrie trie = new PathTrie();
+        trie.add("/a/b", 0, 0);
+        trie.add("/a/{id}", 1, 0);
+        trie.add("/a/**", 2, 0);
+        trie.add("/a/*/c", 3, 0);
+
+        assertThat(match(trie, "/a/b")).extracting(e -> e.group).containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(match(trie, "/a/x/c")).extracting(e -> e.group).containsExactlyInAnyOrder(2, 3);
+        assertThat(match(trie, "/a")).extracting(e -> e.group).containsExactly(2);
+        assertThat(match(trie, "/b")).isEmpty();
+    }
+
+    @Test
+    void recordsWhereEachVariableIs() {
+        PathTrie trie = new PathTrie();
+        trie.add("/orders/{orderId}/items/{itemId}", 0, 0);
+
+        PathTrie.Entry entry = match(trie, "/orders/1/items/2").get(0);
+
+        assertThat(entry.varNames).containsExactly("orderId", "itemId");
+        assertThat(entry.varSegments).containsExactly(1, 3);
+    }
+
+    @Test
+    void keepsManyLiteralSiblingsApart() {
+        PathTrie trie = new PathTrie();
+        for (int i = 0; i < 100; i++) {
+            trie.add("/api/resource-" + i, i, 0);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(match(trie, "/api/resource-" + i)).extracting(e -> e.group).containsExactly(i);
+        }
+        assertThat(match(trie, "/api/resource-100")).isEmpty();
+    }
+}
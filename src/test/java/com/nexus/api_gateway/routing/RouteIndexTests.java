@@ -0,0 +1,113 @@
+package com.nexus.api_gateway.routing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteIndexTests {
+
+    private static final List<String> USERS = List.of("/nexus/api/v1/user", "/nexus/api/v1/users/{userId}", "/nexus/api/v1/users/**");
+    private static final List<String> ORDERS = List.of("/nexus/api/v1/orders/{orderId}/status", "/nexus/api/v1/orders/*/items/{itemId}");
+
+    private static RouteDefinition route(String id, List<String> patterns, int stripPrefix) {
+        RouteDefinition route = new RouteDefinition();
+        route.setId(id);
+        route.setUri(URI.create("lb://" + id));
+        route.setPredicates(List.of(new PredicateDefinition("IndexedPath=" + String.join(",", patterns))));
+        route.setFilters(List.of(new FilterDefinition("StripPrefix=" + stripPrefix)));
+        return route;
+    }
+
+    private static RouteIndex index() {
+        GatewayProperties properties = new GatewayProperties();
+        properties.setRoutes(List.of(route("user-service", USERS, 1), route("order-service", ORDERS, 3)));
+        RouteIndex index = new RouteIndex(properties);
+        index.register(USERS);
+        index.register(ORDERS);
+        return index;
+    }
+
+    @Test
+    void matchesEveryRouteInOneWalk() {
+        RouteIndex index = index();
+
+        PathLookup users = index.lookup("/nexus/api/v1/users/42");
+        PathLookup orders = index.lookup("/nexus/api/v1/orders/7/items/3");
+
+        assertThat(users.matches(0)).isTrue();
+        assertThat(users.matches(1)).isFalse();
+        assertThat(orders.matches(0)).isFalse();
+        assertThat(orders.matches(1)).isTrue();
+        assertThat(index.lookup("/nexus/api/v1/products/1").matches(0)).isFalse();
+    }
+
+    @Test
+    void resolvesVariablesFromTheFirstListedMatchingPattern() {
+        RouteIndex index = index();
+
+        RouteMatch byId = index.resolve(index.lookup("/nexus/api/v1/users/42"), 0);
+        RouteMatch nested = index.resolve(index.lookup("/nexus/api/v1/users/42/wallet"), 0);
+        RouteMatch unnamed = index.resolve(index.lookup("/nexus/api/v1/orders/7/items/3"), 1);
+
+        assertThat(byId.getVariables()).isEqualTo(Map.of("userId", "42"));
+        assertThat(nested.getVariables()).isEmpty();
+        assertThat(unnamed.getVariables()).isEqualTo(Map.of("itemId", "3"));
+    }
+
+    @Test
+    void decodesVariablesButKeepsTheStrippedPathRaw() {
+        RouteIndex index = index();
+
+        RouteMatch match = index.resolve(index.lookup("/nexus/api/v1/users/a%20b"), 0);
+
+        assertThat(match.getVariable("userId")).isEqualTo("a b");
+        assertThat(match.getStrippedPath()).isEqualTo("/api/v1/users/a%20b");
+    }
+
+    @Test
+    void stripsTheRoutesPrefixAndIgnoresEmptySegments() {
+        RouteIndex index = index();
+
+        assertThat(index.resolve(index.lookup("//nexus/api//v1/users/42/"), 0).getStrippedPath())
+                .isEqualTo("/api//v1/users/42/");
+        assertThat(index.resolve(index.lookup("/nexus/api/v1/orders/7/status"), 1).getStrippedPath())
+                .isEqualTo("/orders/7/status");
+    }
+
+    @Test
+    void matchesACatchAllOnItsOwnPrefix() {
+        RouteIndex index = index();
+
+        assertThat(index.lookup("/nexus/api/v1/users").matches(0)).isTrue();
+        assertThat(index.lookup("/nexus/api/v1/user").matches(0)).isTrue();
+        assertThat(index.lookup("/nexus/api/v1/user/1").matches(0)).isFalse();
+    }
+
+    @Test
+    void sharesAGroupBetweenEqualPatternLists() {
+        RouteIndex index = index();
+
+        assertThat(index.register(List.of(" /nexus/api/v1/user", "/nexus/api/v1/users/{userId}", "/nexus/api/v1/users/**")))
+                .isZero();
+        assertThat(index.register(List.of("/nexus/api/v1/products/**"))).isEqualTo(2);
+        assertThat(index.lookup("/nexus/api/v1/products/9").matches(2)).isTrue();
+    }
+
+    @Test
+    void rejectsPatternsTheTrieDoesNotSupport() {
+        RouteIndex index = index();
+
+        assertThatThrownBy(() -> index.register(List.of("/nexus/**/users"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.register(List.of("/nexus/user-*"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.register(List.of("/nexus/{*rest}"))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
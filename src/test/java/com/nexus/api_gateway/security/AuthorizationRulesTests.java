@@ -0,0 +1,138 @@
+package com.nexus.api_gateway.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthorizationRulesTests {
+
+    private static final JwtPrincipal SUPPLIER = principal("u-1", Roles.SUPPLIER);
+    private static final JwtPrincipal FUNDER = principal("u-2", Roles.FUNDER);
+    private static final JwtPrincipal ADMIN = principal("u-3", Roles.ADMIN);
+
+    private static JwtPrincipal principal(String id, String... roles) {
+        return new JwtPrincipal(id + "@nexus.com", id, Roles.maskOf(List.of(roles)), Set.of(),
+                Instant.now().plusSeconds(60));
+    }
+
+    private static AuthorizationRules.Rule rule(List<String> methods, String path, List<String> roles,
+                                                List<String> denyRoles, String owner) {
+        AuthorizationRules.Rule rule = new AuthorizationRules.Rule();
+        rule.setMethods(methods);
+        rule.setPath(path);
+        rule.setRoles(roles);
+        rule.setDenyRoles(denyRoles);
+        rule.setOwner(owner);
+        return rule;
+    }
+
+    @Test
+    void allowsEverythingWithoutRules() {
+        AuthorizationRules rules = AuthorizationRules.compile(List.of());
+
+        assertThat(rules.check("DELETE", "/api/v1/orders/1", null)).isNull();
+    }
+
+    @Test
+    void requiresAnyOfTheRolesForMatchingMethodsOnly() {
+        AuthorizationRules rules = AuthorizationRules.compile(List.of(
+                rule(List.of("PUT"), "/api/v1/orders/{orderId}/status", List.of(Roles.SUPPLIER, Roles.FUNDER), List.of(), null)));
+
+        assertThat(rules.check("PUT", "/api/v1/orders/42/status", SUPPLIER)).isNull();
+        assertThat(rules.check("PUT", "/api/v1/orders/42/status", FUNDER)).isNull();
+        assertThat(rules.check("PUT", "/api/v1/orders/42/status", ADMIN)).isNotNull();
+        assertThat(rules.check("GET", "/api/v1/orders/42/status", ADMIN)).isNull();
+    }
+
+    @Test
+    void rejectsDeniedRoles() {
+        AuthorizationRules rules = AuthorizationRules.compile(List.of(
+                rule(List.of("POST"), "/api/v1/products", List.of(), List.of(Roles.FUNDER), null)));
+
+        assertThat(rules.check("POST", "/api/v1/products", SUPPLIER)).isNull();
+        assertThat(rules.check("POST", "/api/v1/products", FUNDER)).isNotNull();
+    }
+
+    @Test
+    void ignoresTrailingAndDuplicateSlashes() {
+        AuthorizationRules rules = AuthorizationRules.compile(List.of(
+                rule(List.of(), "/api/v1/products", List.of(Roles.SUPPLIER), List.of(), null)));
+
+        assertThat(rules.check("POST", "/api/v1/products/", FUNDER)).isNotNull();
+        assertThat(rules.check("POST", "//api//v1/products", FUNDER)).isNotNull();
+        assertThat(rules.check("POST", "/api/v1/products/7", FUNDER)).isNull();
+    }
+
+    @Test
+    void appliesCatchAllRulesToTheNodeAndEverythingBelow() {
+        AuthorizationRules rules = AuthorizationRules.compile(List.of(
+                rule(List.of(), "/api/v1/admin/**", List.of(Roles.ADMIN), List.of(), null)));
+
+        assertThat(rules.check("GET", "/api/v1/admin", SUPPLIER)).isNotNull();
+        assertThat(rules.check("GET", "/api/v1/admin/users/1", SUPPLIER)).isNotNull();
+        assertThat(rules.check("GET", "/api/v1/admin/users/1", ADMIN)).isNull();
+        assertThat(rules.check("GET", "/api/v1/other", SUPPLIER)).isNull();
+    }
+
+    @Test
+    void matchesTheOwnerVariableAgainstTheTokenId() {
+        AuthorizationRules rules = AuthorizationRules.compile(List.of(
+                rule(List.of(), "/api/v1/users/{userId}", List.of(), List.of(), "userId")));
+
+        AuthorizationRules.CompiledRule violated = rules.check("GET", "/api/v1/users/u-2", SUPPLIER);
+        assertThat(violated).isNotNull();
+        assertThat(violated.isOwnerRule()).isTrue();
+        assertThat(rules.check("GET", "/api/v1/users/u-1", SUPPLIER)).isNull();
+        assertThat(rules.check("GET", "/api/v1/users/u-1x", SUPPLIER)).isNotNull();
+    }
+
+    @Test
+    void comparesTheOwnerAtTheVariablesOwnSegment() {
+        AuthorizationRules rules = AuthorizationRules.compile(List.of(
+                rule(List.of(), "/api/v1/users/{userId}/orders/{orderId}", List.of(), List.of(), "userId")));
+
+        assertThat(rules.check("GET", "/api/v1/users/u-1/orders/42", SUPPLIER)).isNull();
+        // The token id in another variable's segment does not make the caller the owner
+        assertThat(rules.check("GET", "/api/v1/users/u-2/orders/u-1", SUPPLIER)).isNotNull();
+    }
+
+    @Test
+    void prefersLiteralsButStillChecksVariableSiblings() {
+        AuthorizationRules rules = AuthorizationRules.compile(List.of(
+                rule(List.of(), "/api/v1/orders/search", List.of(), List.of(), null),
+                rule(List.of(), "/api/v1/orders/{orderId}", List.of(Roles.ADMIN), List.of(), null)));
+
+        assertThat(rules.check("GET", "/api/v1/orders/search", SUPPLIER)).isNotNull();
+        assertThat(rules.check("GET", "/api/v1/orders/search", ADMIN)).isNull();
+    }
+
+    @Test
+    void rejectsAnonymousRequestsOnAnyMatchingRule() {
+        AuthorizationRules rules = AuthorizationRules.compile(List.of(
+                rule(List.of(), "/api/v1/orders", List.of(), List.of(Roles.FUNDER), null)));
+
+        assertThat(rules.check("GET", "/api/v1/orders", null)).isNotNull();
+        assertThat(rules.check("GET", "/api/v1/products", null)).isNull();
+    }
+
+    @Test
+    void failsFastOnInvalidRules() {
+        assertThatThrownBy(() -> AuthorizationRules.compile(List.of(
+                rule(List.of(), "api/v1/orders", List.of(), List.of(), null))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AuthorizationRules.compile(List.of(
+                rule(List.of(), "/api/**/orders", List.of(), List.of(), null))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AuthorizationRules.compile(List.of(
+                rule(List.of(), "/api/v1/users/{id}", List.of(), List.of(), "userId"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AuthorizationRules.compile(List.of(
+                rule(List.of(), "/api/v1/users", List.of("SUPERUSER"), List.of(), null))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
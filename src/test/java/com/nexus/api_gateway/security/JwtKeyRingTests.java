@@ -0,0 +1,103 @@
+package com.nexus.api_gateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyRingTests {
+
+    private static final String SECRET = VerifiedTokenCacheTests.SECRET;
+    private static final KeyPair FIRST = Keys.keyPairFor(SignatureAlgorithm.RS256);
+    private static final KeyPair SECOND = Keys.keyPairFor(SignatureAlgorithm.RS256);
+
+    private static JwtProperties.KeyEntry key(String kid, KeyPair pair, boolean withPrivateKey) {
+        JwtProperties.KeyEntry entry = new JwtProperties.KeyEntry();
+        entry.setKid(kid);
+        entry.setPublicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            entry.setPrivateKey(Base64.getMimeEncoder().encodeToString(pair.getPrivate().getEncoded()));
+        }
+        return entry;
+    }
+
+    private static JwtKeyRing ring(String algorithm, String secret, String activeKid, JwtProperties.KeyEntry... keys) {
+        JwtProperties properties = new JwtProperties();
+        properties.setAlgorithm(algorithm);
+        properties.setSecret(secret);
+        properties.setActiveKid(activeKid);
+        properties.setKeys(List.of(keys));
+        return new JwtKeyRing(properties);
+    }
+
+    private static String sign(JwtKeyRing ring, String subject) {
+        var builder = Jwts.builder().setSubject(subject);
+        if (ring.getSigningKid() != null) builder.setHeaderParam("kid", ring.getSigningKid());
+        return builder.signWith(ring.getSigningKey(), ring.getAlgorithm()).compact();
+    }
+
+    private static Claims verify(JwtKeyRing ring, String token) {
+        return Jwts.parserBuilder().setSigningKeyResolver(ring.keyResolver()).build().parseClaimsJws(token).getBody();
+    }
+
+    @Test
+    void signsWithTheSharedSecretForHmac() {
+        JwtKeyRing ring = ring("HS256", SECRET, null);
+
+        assertThat(ring.getSigningKid()).isNull();
+        assertThat(ring.getVerificationKeys()).isEmpty();
+        assertThat(verify(ring, sign(ring, "a@nexus.com")).getSubject()).isEqualTo("a@nexus.com");
+    }
+
+    @Test
+    void keepsVerifyingTokensOfThePreviousKeyAfterARotation() {
+        JwtKeyRing before = ring("RS256", null, "k1", key("k1", FIRST, true));
+        String oldToken = sign(before, "old@nexus.com");
+
+        JwtKeyRing after = ring("RS256", null, "k2", key("k1", FIRST, false), key("k2", SECOND, true));
+        String newToken = sign(after, "new@nexus.com");
+
+        assertThat(after.getSigningKid()).isEqualTo("k2");
+        assertThat(after.getVerificationKeys()).containsOnlyKeys("k1", "k2");
+        assertThat(verify(after, oldToken).getSubject()).isEqualTo("old@nexus.com");
+        assertThat(verify(after, newToken).getSubject()).isEqualTo("new@nexus.com");
+        assertThatThrownBy(() -> verify(before, newToken)).isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    @Test
+    void signsWithTheFirstKeyHoldingAPrivateKeyWithoutAnActiveKid() {
+        JwtKeyRing ring = ring("RS256", null, null, key("k1", FIRST, false), key("k2", SECOND, true));
+
+        assertThat(ring.getSigningKid()).isEqualTo("k2");
+    }
+
+    @Test
+    void acceptsHmacTokensDuringAMigrationOnlyWhileTheSecretIsSet() {
+        String hmacToken = sign(ring("HS256", SECRET, null), "a@nexus.com");
+
+        JwtKeyRing migrating = ring("RS256", SECRET, "k1", key("k1", FIRST, true));
+        JwtKeyRing migrated = ring("RS256", null, "k1", key("k1", FIRST, true));
+
+        assertThat(verify(migrating, hmacToken).getSubject()).isEqualTo("a@nexus.com");
+        assertThatThrownBy(() -> verify(migrated, hmacToken)).isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    @Test
+    void failsFastOnUnusableConfiguration() {
+        assertThatThrownBy(() -> ring("HS256", null, null)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ring("none", SECRET, null)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ring("RS256", null, "k1", key("k1", FIRST, false)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ring("RS256", null, null, key("k1", FIRST, true), key(null, SECOND, false)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,46 @@
+package com.nexus.api_gateway.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RolesTests {
+
+    @Test
+    void internsKnownRolesIntoOneBitEach() {
+        long mask = Roles.maskOf(List.of("supplier", Roles.ADMIN, "AUDITOR"));
+
+        assertThat(mask).isEqualTo((1L << Roles.indexOf(Roles.SUPPLIER)) | (1L << Roles.indexOf(Roles.ADMIN)));
+        assertThat(Roles.namesOf(mask)).containsExactly(Roles.SUPPLIER, Roles.ADMIN);
+        assertThat(Roles.unknownOf(List.of("supplier", "auditor"))).containsExactly("AUDITOR");
+        assertThat(Roles.maskOf(null)).isZero();
+    }
+
+    @Test
+    void checksKnownAndUnknownRolesCaseInsensitively() {
+        JwtPrincipal principal = JwtPrincipal.of("a@nexus.com", "u-1", List.of("FUNDER", "Auditor"), null);
+
+        assertThat(principal.hasRole("funder")).isTrue();
+        assertThat(principal.hasRole("AUDITOR")).isTrue();
+        assertThat(principal.hasRole(Roles.ADMIN)).isFalse();
+        assertThat(principal.hasAnyRole(Roles.maskOf(List.of(Roles.SUPPLIER, Roles.FUNDER)))).isTrue();
+        assertThat(principal.getRoles()).containsExactly(Roles.FUNDER, "AUDITOR");
+    }
+
+    @Test
+    void readsTheSameRolesFromListAndCompactClaims() {
+        List<String> roles = List.of(Roles.SUPPLIER, Roles.INVESTOR, "AUDITOR");
+        JwtUtil listed = VerifiedTokenCacheTests.newJwtUtil(60_000L);
+        JwtUtil compact = VerifiedTokenCacheTests.newJwtUtil(60_000L);
+        ReflectionTestUtils.setField(compact, "compactRoles", true);
+
+        JwtPrincipal fromList = listed.parseToken(listed.generateToken("a@nexus.com", roles, "u-1"));
+        JwtPrincipal fromMask = compact.parseToken(compact.generateToken("a@nexus.com", roles, "u-1"));
+
+        assertThat(fromMask.getRoleMask()).isEqualTo(fromList.getRoleMask());
+        assertThat(fromMask.getExtraRoles()).isEqualTo(fromList.getExtraRoles()).containsExactly("AUDITOR");
+    }
+}
@@ -0,0 +1,110 @@
+package com.nexus.api_gateway.security;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTests {
+
+    static final String SECRET = "dGhpcy1pcy1hLXZlcnktbG9uZy1zZWNyZXQta2V5LWV4YW1wbGUtMTIzNDU2Nzg5MA==";
+
+    private JwtUtil jwtUtil;
+    private MeterRegistry registry;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newJwtUtil(3_600_000L);
+        registry = new SimpleMeterRegistry();
+        token = jwtUtil.generateToken("user@nexus.com", List.of(Roles.SUPPLIER), "u-1");
+    }
+
+    static JwtUtil newJwtUtil(long expirationMillis) {
+        JwtProperties properties = new JwtProperties();
+        properties.setAlgorithm("HS256");
+        properties.setSecret(SECRET);
+        JwtUtil util = new JwtUtil(new JwtKeyRing(properties));
+        ReflectionTestUtils.setField(util, "expiration", expirationMillis);
+        return util;
+    }
+
+    private VerifiedTokenCache cache(boolean enabled) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("meterRegistry", registry));
+        return new VerifiedTokenCache(jwtUtil, enabled, 1000, true, beans.getBeanProvider(MeterRegistry.class));
+    }
+
+    private double verifications(String result) {
+        return registry.get("gateway.jwt.verifications").tag("result", result).counter().count();
+    }
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromTheCache() {
+        VerifiedTokenCache cache = cache(true);
+
+        JwtPrincipal first = cache.verify(token);
+        JwtPrincipal second = cache.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getSubject()).isEqualTo("user@nexus.com");
+        assertThat(verifications("verified")).isEqualTo(1);
+        assertThat(verifications("cached")).isEqualTo(1);
+    }
+
+    @Test
+    void verifiesEveryCallWhenDisabled() {
+        VerifiedTokenCache cache = cache(false);
+
+        cache.verify(token);
+        cache.verify(token);
+
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(verifications("verified")).isEqualTo(2);
+        assertThat(verifications("cached")).isZero();
+    }
+
+    @Test
+    void neverCachesATokenThatFailsVerification() {
+        VerifiedTokenCache cache = cache(true);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+        assertThat(verifications("failed")).isEqualTo(2);
+    }
+
+    @Test
+    void reverifiesAnInvalidatedToken() {
+        VerifiedTokenCache cache = cache(true);
+        cache.verify(token);
+
+        cache.invalidate(token);
+        cache.verify(token);
+
+        assertThat(verifications("verified")).isEqualTo(2);
+    }
+
+    @Test
+    void evictsAnEntryWhenItsTokenExpires() throws InterruptedException {
+        // 'exp' is truncated to whole seconds: 2.5s leaves at least 1.5s to verify before it passes
+        jwtUtil = newJwtUtil(2_500L);
+        token = jwtUtil.generateToken("user@nexus.com", List.of(Roles.SUPPLIER), "u-1");
+        VerifiedTokenCache cache = cache(true);
+        cache.verify(token);
+
+        Thread.sleep(2_600L);
+
+        // Served from the cache it would pass; re-verified it fails on 'exp'
+        assertThatThrownBy(() -> cache.verify(token)).isInstanceOf(JwtException.class);
+        assertThat(verifications("cached")).isZero();
+    }
+}
@@ -0,0 +1,120 @@
+package com.nexus.api_gateway.service;
+
+import com.nexus.api_gateway.config.UserServiceClientProperties;
+import com.nexus.api_gateway.dto.LoginRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserServiceClientTests {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private static UserServiceClientProperties properties(boolean coalesce, Duration negativeCacheTtl) {
+        UserServiceClientProperties properties = new UserServiceClientProperties();
+        properties.setValidateUri("http://user-service/api/v1/users/validate");
+        properties.setCoalesceRequests(coalesce);
+        properties.setNegativeCacheTtl(negativeCacheTtl);
+        return properties;
+    }
+
+    // A user service answering every call with 'status' once 'answer' completes
+    private WebClient userService(HttpStatus status, Mono<Void> answer) {
+        return WebClient.builder().exchangeFunction(request -> {
+            calls.incrementAndGet();
+            ClientResponse response = ClientResponse.create(status)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(status.is2xxSuccessful() ? "{\"email\":\"a@nexus.com\"}" : "{}")
+                    .build();
+            return answer.thenReturn(response);
+        }).build();
+    }
+
+    private static LoginRequest login(String email, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+
+    @Test
+    void sharesOneUpstreamCallBetweenIdenticalLoginsInFlight() {
+        Sinks.Empty<Void> answer = Sinks.empty();
+        UserServiceClient client = new UserServiceClient(userService(HttpStatus.OK, answer.asMono()),
+                properties(true, Duration.ZERO));
+
+        Mono<Map<String, Object>> first = client.validateUser(login("a@nexus.com", "secret"));
+        Mono<Map<String, Object>> second = client.validateUser(login("a@nexus.com", "secret"));
+        Mono<Map<String, Object>> other = client.validateUser(login("a@nexus.com", "other"));
+        Mono<Void> all = Mono.when(first, second, other).cache();
+        all.subscribe();
+        answer.tryEmitEmpty();
+        all.block(Duration.ofSeconds(5));
+
+        assertThat(calls).hasValue(2);
+        assertThat(first.block()).containsEntry("email", "a@nexus.com");
+        assertThat(calls).hasValue(3); // once done, the next login calls again
+    }
+
+    @Test
+    void callsForEveryLoginWhenCoalescingIsOff() {
+        UserServiceClient client = new UserServiceClient(userService(HttpStatus.OK, Mono.empty()),
+                properties(false, Duration.ZERO));
+
+        Mono.when(client.validateUser(login("a@nexus.com", "secret")),
+                client.validateUser(login("a@nexus.com", "secret"))).block(Duration.ofSeconds(5));
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void remembersRejectedCredentialsForTheTtl() throws InterruptedException {
+        UserServiceClient client = new UserServiceClient(userService(HttpStatus.UNAUTHORIZED, Mono.empty()),
+                properties(true, Duration.ofMillis(300)));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> client.validateUser(login("a@nexus.com", "wrong")).block())
+                    .isInstanceOf(UserServiceClient.InvalidCredentialsException.class);
+        }
+        assertThat(calls).hasValue(1);
+
+        assertThatThrownBy(() -> client.validateUser(login("a@nexus.com", "other")).block())
+                .isInstanceOf(UserServiceClient.InvalidCredentialsException.class);
+        assertThat(calls).hasValue(2);
+
+        Thread.sleep(400);
+        assertThatThrownBy(() -> client.validateUser(login("a@nexus.com", "wrong")).block())
+                .isInstanceOf(UserServiceClient.InvalidCredentialsException.class);
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void doesNotRememberServerErrors() {
+        UserServiceClient client = new UserServiceClient(userService(HttpStatus.SERVICE_UNAVAILABLE, Mono.empty()),
+                properties(true, Duration.ofMinutes(1)));
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> client.validateUser(login("a@nexus.com", "secret")).block())
+                    .isNotInstanceOf(UserServiceClient.InvalidCredentialsException.class);
+        }
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void requiresTheValidateUri() {
+        assertThatThrownBy(() -> new UserServiceClient(WebClient.create(), new UserServiceClientProperties()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}